@@ -18,13 +18,18 @@
 package org.aesh.processor;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Writer;
+import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Filer;
@@ -32,6 +37,7 @@ import javax.annotation.processing.Messager;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
 import javax.annotation.processing.SupportedSourceVersion;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
@@ -44,16 +50,26 @@ import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
+import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 
 import org.aesh.command.Command;
 import org.aesh.command.CommandDefinition;
 import org.aesh.command.GroupCommandDefinition;
+import org.aesh.io.scanner.CommandIndex;
 
 /**
  * JSR 269 annotation processor that generates {@code CommandMetadataProvider}
  * implementations for classes annotated with {@link CommandDefinition} or
  * {@link GroupCommandDefinition}.
+ * <p>
+ * It also writes the index of the annotated classes to {@value CommandIndex#LOCATION},
+ * which is read by the classpath scanning instead of parsing the class files,
+ * and a {@code CommandMetadataIndex} so the providers are only loaded when used.
+ * <p>
+ * With {@code -A}{@value #GENERATE_PARSERS}{@code =true} a {@code CommandLineParser}
+ * specialised for each command is generated as well.
  *
  * @author Aesh team
  */
@@ -61,6 +77,7 @@ import org.aesh.command.GroupCommandDefinition;
         "org.aesh.command.CommandDefinition",
         "org.aesh.command.GroupCommandDefinition"
 })
+@SupportedOptions(AeshAnnotationProcessor.GENERATE_PARSERS)
 @SupportedSourceVersion(SourceVersion.RELEASE_8)
 public class AeshAnnotationProcessor extends AbstractProcessor {
 
@@ -68,7 +85,17 @@ public class AeshAnnotationProcessor extends AbstractProcessor {
     private Messager messager;
     private Elements elementUtils;
     private Types typeUtils;
+    private boolean generateParsers;
     private final List<String> generatedProviders = new ArrayList<>();
+    // command class -> provider class, not yet written to an index
+    private final Map<String, String> pendingIndex = new TreeMap<>();
+    private final List<String> generatedIndexes = new ArrayList<>();
+    // "annotation class" lines, see org.aesh.io.scanner.CommandIndex
+    private final Set<String> indexedCommands = new TreeSet<>(
+            Comparator.comparing((String line) -> line.substring(line.indexOf(' ') + 1))
+                    .thenComparing(Comparator.naturalOrder()));
+
+    static final String GENERATE_PARSERS = "aesh.generateParsers";
 
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv) {
@@ -77,14 +104,24 @@ public class AeshAnnotationProcessor extends AbstractProcessor {
         this.messager = processingEnv.getMessager();
         this.elementUtils = processingEnv.getElementUtils();
         this.typeUtils = processingEnv.getTypeUtils();
+        this.generateParsers = Boolean.parseBoolean(processingEnv.getOptions().get(GENERATE_PARSERS));
     }
 
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
         if (roundEnv.processingOver()) {
+            if (!pendingIndex.isEmpty()) {
+                generateIndex();
+            }
             if (!generatedProviders.isEmpty()) {
                 writeServiceFile();
             }
+            if (!generatedIndexes.isEmpty()) {
+                writeIndexServiceFile();
+            }
+            if (!indexedCommands.isEmpty()) {
+                writeCommandIndex();
+            }
             return false;
         }
 
@@ -102,10 +139,17 @@ public class AeshAnnotationProcessor extends AbstractProcessor {
             }
         }
 
+        // the providers are indexed in the round after they are generated, a source file
+        // created in the last round would not be compiled without a warning
+        if (commandElements.isEmpty() && !pendingIndex.isEmpty()) {
+            generateIndex();
+        }
+
         for (TypeElement commandElement : commandElements) {
             if (!validate(commandElement)) {
                 continue;
             }
+            addToIndex(commandElement);
             try {
                 generateProvider(commandElement);
             } catch (IOException e) {
@@ -232,9 +276,20 @@ public class AeshAnnotationProcessor extends AbstractProcessor {
 
         List<VariableElement> fields = collectFields(commandElement);
 
+        String parserClassName = null;
+        if (generateParsers) {
+            parserClassName = typeRefName.replace('.', '_') + "_AeshParser";
+            String fullParserName = packageName.isEmpty() ? parserClassName : packageName + "." + parserClassName;
+            String parserCode = CodeGenerator.generateParser(packageName, parserClassName, qualifiedName, fields);
+            JavaFileObject parserFile = filer.createSourceFile(fullParserName, commandElement);
+            try (Writer writer = parserFile.openWriter()) {
+                writer.write(parserCode);
+            }
+        }
+
         String code = CodeGenerator.generate(
                 packageName, typeRefName, metadataClassName, qualifiedName,
-                commandElement, fields, isGroup, elementUtils, typeUtils);
+                commandElement, fields, isGroup, parserClassName, elementUtils, typeUtils);
 
         JavaFileObject sourceFile = filer.createSourceFile(fullMetadataName, commandElement);
         try (Writer writer = sourceFile.openWriter()) {
@@ -242,6 +297,101 @@ public class AeshAnnotationProcessor extends AbstractProcessor {
         }
 
         generatedProviders.add(fullMetadataName);
+        pendingIndex.put(elementUtils.getBinaryName(commandElement).toString(), fullMetadataName);
+    }
+
+    private void generateIndex() {
+        String packageName = null;
+        for (String provider : pendingIndex.values()) {
+            int dot = provider.lastIndexOf('.');
+            String providerPackage = dot < 0 ? "" : provider.substring(0, dot);
+            // a class in the default package can only be referenced from the default package
+            if (packageName == null || providerPackage.isEmpty())
+                packageName = providerPackage;
+        }
+        String className = "AeshMetadataIndex_"
+                + Integer.toHexString(String.join(",", pendingIndex.values()).hashCode());
+        String fullName = packageName.isEmpty() ? className : packageName + "." + className;
+        try {
+            JavaFileObject sourceFile = filer.createSourceFile(fullName);
+            try (Writer writer = sourceFile.openWriter()) {
+                writer.write(CodeGenerator.generateIndex(packageName, className, pendingIndex));
+            }
+            generatedIndexes.add(fullName);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to generate metadata index: " + e.getMessage());
+        }
+        pendingIndex.clear();
+    }
+
+    private void addToIndex(TypeElement commandElement) {
+        String className = elementUtils.getBinaryName(commandElement).toString();
+        if (commandElement.getAnnotation(CommandDefinition.class) != null)
+            indexedCommands.add(CommandDefinition.class.getName() + " " + className);
+        if (commandElement.getAnnotation(GroupCommandDefinition.class) != null)
+            indexedCommands.add(GroupCommandDefinition.class.getName() + " " + className);
+    }
+
+    /**
+     * An incremental compilation only processes the changed classes, the entries of the
+     * existing index are kept as long as their class is still annotated.
+     */
+    private void mergeExistingIndex() {
+        CommandIndex existing;
+        try {
+            FileObject indexFile = filer.getResource(StandardLocation.CLASS_OUTPUT, "", CommandIndex.LOCATION);
+            try (InputStream in = indexFile.openInputStream()) {
+                existing = CommandIndex.read(in);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // no index from an earlier compilation
+            return;
+        }
+        mergeExistingEntries(existing, CommandDefinition.class);
+        mergeExistingEntries(existing, GroupCommandDefinition.class);
+    }
+
+    private void mergeExistingEntries(CommandIndex existing, Class<? extends Annotation> annotation) {
+        for (String className : existing.classes(annotation.getName(), null)) {
+            TypeElement element = elementUtils.getTypeElement(className.replace('$', '.'));
+            if (element != null && element.getAnnotation(annotation) != null)
+                indexedCommands.add(annotation.getName() + " " + className);
+        }
+    }
+
+    private void writeCommandIndex() {
+        mergeExistingIndex();
+        try {
+            FileObject indexFile = filer.createResource(StandardLocation.CLASS_OUTPUT, "", CommandIndex.LOCATION);
+            try (Writer writer = indexFile.openWriter()) {
+                writer.write("# Generated by the aesh annotation processor\n");
+                for (String line : indexedCommands) {
+                    writer.write(line);
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write command index: " + e.getMessage());
+        }
+    }
+
+    private void writeIndexServiceFile() {
+        try {
+            javax.tools.FileObject serviceFile = filer.createResource(
+                    javax.tools.StandardLocation.CLASS_OUTPUT, "",
+                    "META-INF/services/org.aesh.command.metadata.CommandMetadataIndex");
+            try (Writer writer = serviceFile.openWriter()) {
+                for (String index : generatedIndexes) {
+                    writer.write(index);
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write ServiceLoader file: " + e.getMessage());
+        }
     }
 
     private void writeServiceFile() {
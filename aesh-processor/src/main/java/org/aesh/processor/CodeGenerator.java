@@ -17,7 +17,11 @@
  */
 package org.aesh.processor;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
@@ -62,7 +66,7 @@ final class CodeGenerator {
     static String generate(
             String packageName, String simpleName, String metadataClassName,
             String qualifiedCommandName, TypeElement commandElement,
-            List<VariableElement> fields, boolean isGroup,
+            List<VariableElement> fields, boolean isGroup, String parserClassName,
             Elements elementUtils, Types typeUtils) {
 
         StringBuilder sb = new StringBuilder();
@@ -128,12 +132,226 @@ final class CodeGenerator {
         generateBuildProcessedCommand(sb, simpleName, commandElement, fields, isGroup, elementUtils, typeUtils);
         sb.append("    }\n");
 
+        // createParser()
+        if (parserClassName != null) {
+            sb.append("\n    @Override\n");
+            sb.append("    public <CI extends org.aesh.command.invocation.CommandInvocation>");
+            sb.append(" org.aesh.command.impl.parser.CommandLineParser<CI> createParser(\n");
+            sb.append("            ProcessedCommand<Command<CI>, CI> processedCommand) {\n");
+            sb.append("        return new ").append(parserClassName).append("<>(processedCommand);\n");
+            sb.append("    }\n");
+        }
+
         // End class
         sb.append("}\n");
 
         return sb.toString();
     }
 
+    /**
+     * Generate a {@code CommandLineParser} for the command where the option names are
+     * resolved with a switch over the literal names and the required options are checked
+     * directly. Anything not known at compile time is left to {@code AeshCommandLineParser}.
+     */
+    static String generateParser(String packageName, String parserClassName,
+            String qualifiedCommandName, List<VariableElement> fields) {
+
+        List<String> required = new ArrayList<>();
+        // case label -> statement, the first label added wins the same way as in ProcessedCommand.searchAllOptions
+        Map<String, String> longCases = new LinkedHashMap<>();
+        Map<String, String> cases = new LinkedHashMap<>();
+        String argumentCheck = null;
+        int count = 0;
+
+        for (VariableElement field : fields) {
+            String fieldName = field.getSimpleName().toString();
+            Option o = field.getAnnotation(Option.class);
+            OptionList ol = field.getAnnotation(OptionList.class);
+            OptionGroup og = field.getAnnotation(OptionGroup.class);
+            Arguments args = field.getAnnotation(Arguments.class);
+            Argument arg = field.getAnnotation(Argument.class);
+
+            String name = optionName(field);
+            if (name == null) {
+                if (args != null && args.required())
+                    argumentCheck = requiredArgumentCheck("getArguments()", args.description(), fieldName, true);
+                else if (arg != null && arg.required())
+                    argumentCheck = requiredArgumentCheck("getArgument()", arg.description(), fieldName, false);
+                continue;
+            }
+            char shortName = o != null ? o.shortName() : ol != null ? ol.shortName() : og.shortName();
+            boolean isRequired = o != null ? o.required() : ol != null ? ol.required() : og.required();
+
+            String option = "o" + count++;
+            longCases.putIfAbsent("--" + name, "return longName(" + option + ");");
+            // short names are only valid if the option is activated, leave those with an activator to the fallback
+            String activator = getFieldAnnotationClassValue(field, "activator", null);
+            if (shortName != '\u0000' && (activator == null || activator.equals(NULL_ACTIVATOR)))
+                cases.putIfAbsent("-" + shortName, "return shortName(" + option + ");");
+            if (o != null && o.negatable())
+                cases.putIfAbsent("--" + o.negationPrefix() + name, "return negated(" + option + ");");
+            if (o != null && o.acceptNameWithoutDashes())
+                cases.putIfAbsent(name, "return longName(" + option + ");");
+            if (isRequired)
+                required.add(option);
+        }
+        for (Map.Entry<String, String> entry : cases.entrySet())
+            longCases.putIfAbsent(entry.getKey(), entry.getValue());
+
+        StringBuilder sb = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("import org.aesh.command.Command;\n");
+        sb.append("import org.aesh.command.impl.internal.ProcessedCommand;\n");
+        sb.append("import org.aesh.command.impl.internal.ProcessedOption;\n");
+        sb.append("import org.aesh.command.impl.parser.AeshCommandLineParser;\n");
+        sb.append("import org.aesh.command.invocation.CommandInvocation;\n");
+        sb.append("import org.aesh.command.parser.RequiredOptionException;\n\n");
+
+        sb.append("/**\n");
+        sb.append(" * Generated command line parser for {@link ").append(qualifiedCommandName).append("}.\n");
+        sb.append(" * Do not edit — this file is regenerated by the aesh annotation processor.\n");
+        sb.append(" */\n");
+        sb.append("public final class ").append(parserClassName)
+                .append("<CI extends CommandInvocation> extends AeshCommandLineParser<CI> {\n\n");
+
+        for (int i = 0; i < count; i++)
+            sb.append("    private final ProcessedOption o").append(i).append(";\n");
+        sb.append("    private final ProcessedOption[] overrideRequired;\n\n");
+
+        // constructor, the options are looked up once by their long name
+        sb.append("    public ").append(parserClassName).append("(ProcessedCommand<Command<CI>, CI> processedCommand) {\n");
+        sb.append("        super(processedCommand);\n");
+        int index = 0;
+        for (VariableElement field : fields) {
+            String name = optionName(field);
+            if (name != null)
+                sb.append("        o").append(index++).append(" = processedCommand.findLongOptionNoActivatorCheck(")
+                        .append(stringLiteral(name)).append(");\n");
+        }
+        sb.append("        overrideRequired = processedCommand.getOptions().stream()\n");
+        sb.append("                .filter(ProcessedOption::doOverrideRequired).toArray(ProcessedOption[]::new);\n");
+        sb.append("    }\n\n");
+
+        // findOption()
+        sb.append("    @Override\n");
+        sb.append("    protected ProcessedOption findOption(String word) {\n");
+        if (!longCases.isEmpty()) {
+            sb.append("        switch (word) {\n");
+            for (Map.Entry<String, String> entry : longCases.entrySet()) {
+                sb.append("            case ").append(stringLiteral(entry.getKey())).append(":\n");
+                sb.append("                ").append(entry.getValue()).append("\n");
+            }
+            sb.append("            default:\n");
+            sb.append("                return super.findOption(word);\n");
+            sb.append("        }\n");
+        } else {
+            sb.append("        return super.findOption(word);\n");
+        }
+        sb.append("    }\n\n");
+
+        // checkForMissingRequiredOptions()
+        sb.append("    @Override\n");
+        sb.append("    protected RequiredOptionException checkForMissingRequiredOptions() {\n");
+        for (String option : required) {
+            sb.append("        if (").append(option).append(".getValue() == null && !requiredOverridden())\n");
+            sb.append("            return new RequiredOptionException(\"Option: \" + ").append(option)
+                    .append(".getDisplayName() + \" is required for this command.\");\n");
+        }
+        if (argumentCheck != null)
+            sb.append(argumentCheck);
+        sb.append("        return null;\n");
+        sb.append("    }\n\n");
+
+        sb.append("    private boolean requiredOverridden() {\n");
+        sb.append("        for (ProcessedOption option : overrideRequired) {\n");
+        sb.append("            if (option.getValue() != null)\n");
+        sb.append("                return true;\n");
+        sb.append("        }\n");
+        sb.append("        return false;\n");
+        sb.append("    }\n\n");
+
+        sb.append("    private static ProcessedOption longName(ProcessedOption option) {\n");
+        sb.append("        option.setLongNameUsed(true);\n");
+        sb.append("        return option;\n");
+        sb.append("    }\n\n");
+        sb.append("    private static ProcessedOption shortName(ProcessedOption option) {\n");
+        sb.append("        option.setLongNameUsed(false);\n");
+        sb.append("        return option;\n");
+        sb.append("    }\n\n");
+        sb.append("    private static ProcessedOption negated(ProcessedOption option) {\n");
+        sb.append("        option.setNegatedByUser(true);\n");
+        sb.append("        option.setLongNameUsed(true);\n");
+        sb.append("        return option;\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+
+        return sb.toString();
+    }
+
+    private static String optionName(VariableElement field) {
+        String fieldName = field.getSimpleName().toString();
+        Option o = field.getAnnotation(Option.class);
+        if (o != null)
+            return o.name().length() < 1 ? fieldName : o.name();
+        OptionList ol = field.getAnnotation(OptionList.class);
+        if (ol != null)
+            return ol.name().length() < 1 ? fieldName : ol.name();
+        OptionGroup og = field.getAnnotation(OptionGroup.class);
+        if (og != null)
+            return og.name().length() < 1 ? fieldName : og.name();
+        return null;
+    }
+
+    private static String requiredArgumentCheck(String getter, String description, String fieldName, boolean plural) {
+        String msg = description != null && !description.isEmpty() ? description : "Argument '" + fieldName + "'";
+        msg += (plural ? " are " : " is ") + "required for this command.";
+        return "        if (getProcessedCommand()." + getter + ".getValue() == null && !requiredOverridden())\n" +
+                "            return new RequiredOptionException(" + stringLiteral(msg) + ");\n";
+    }
+
+    /**
+     * Generate a {@code CommandMetadataIndex} that creates the providers of the given commands.
+     * The provider classes are only referenced from the switch, so only the one asked for is loaded.
+     */
+    static String generateIndex(String packageName, String className, Map<String, String> providers) {
+        StringBuilder sb = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("import org.aesh.command.metadata.CommandMetadataIndex;\n");
+        sb.append("import org.aesh.command.metadata.CommandMetadataProvider;\n\n");
+
+        sb.append("/**\n");
+        sb.append(" * Generated index of the command metadata providers of one compilation.\n");
+        sb.append(" * Do not edit — this file is regenerated by the aesh annotation processor.\n");
+        sb.append(" */\n");
+        sb.append("public final class ").append(className).append(" implements CommandMetadataIndex {\n\n");
+
+        sb.append("    @Override\n");
+        sb.append("    public String[] providerNames() {\n");
+        sb.append("        return new String[] {\n");
+        for (String provider : providers.values())
+            sb.append("                ").append(stringLiteral(provider)).append(",\n");
+        sb.append("        };\n");
+        sb.append("    }\n\n");
+
+        sb.append("    @Override\n");
+        sb.append("    public CommandMetadataProvider<?> provider(String commandClassName) {\n");
+        sb.append("        switch (commandClassName) {\n");
+        for (Map.Entry<String, String> entry : providers.entrySet()) {
+            sb.append("            case ").append(stringLiteral(entry.getKey())).append(":\n");
+            sb.append("                return new ").append(entry.getValue()).append("();\n");
+        }
+        sb.append("            default:\n");
+        sb.append("                return null;\n");
+        sb.append("        }\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
     private static void generateGroupCommandClasses(StringBuilder sb, TypeElement commandElement, Elements elementUtils) {
         // We need to extract groupCommands() from @GroupCommandDefinition via annotation mirror
         // because accessing it directly would trigger MirroredTypesException at compile time.
@@ -154,12 +372,12 @@ final class CodeGenerator {
 
     @SuppressWarnings("unchecked")
     private static List<String> getGroupCommandClassNames(TypeElement element, Elements elementUtils) {
-        List<String> classNames = new java.util.ArrayList<>();
+        List<String> classNames = new ArrayList<>();
         for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
             String annotationType = ((TypeElement) mirror.getAnnotationType().asElement())
                     .getQualifiedName().toString();
             if (annotationType.equals(GroupCommandDefinition.class.getCanonicalName())) {
-                for (java.util.Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror
                         .getElementValues().entrySet()) {
                     if (entry.getKey().getSimpleName().toString().equals("groupCommands")) {
                         List<? extends AnnotationValue> values = (List<? extends AnnotationValue>) entry.getValue().getValue();
@@ -312,6 +530,7 @@ final class CodeGenerator {
         sb.append("                        .descriptionUrl(").append(stringLiteral(o.descriptionUrl())).append(")\n");
         sb.append("                        .url(").append(o.url()).append(")\n");
         generateFieldSetter(sb, simpleName, field, typeUtils);
+        generateParsingSetter(sb, simpleName, field, typeUtils);
         generateFieldResetter(sb, simpleName, field, typeUtils);
         sb.append("                        .build());\n\n");
     }
@@ -343,6 +562,7 @@ final class CodeGenerator {
         generateOptionRenderer(sb, field, "renderer", elementUtils);
         generateOptionParser(sb, field, "parser", elementUtils);
         generateFieldSetter(sb, simpleName, field, typeUtils);
+        generateCollectionParsingSetter(sb, simpleName, field, typeUtils);
         generateFieldResetter(sb, simpleName, field, typeUtils);
         sb.append("                        .build());\n\n");
     }
@@ -404,6 +624,7 @@ final class CodeGenerator {
         generateOptionParser(sb, field, "parser", elementUtils);
         sb.append("                        .url(").append(a.url()).append(")\n");
         generateFieldSetter(sb, simpleName, field, typeUtils);
+        generateCollectionParsingSetter(sb, simpleName, field, typeUtils);
         generateFieldResetter(sb, simpleName, field, typeUtils);
         sb.append("                        .build());\n\n");
     }
@@ -437,6 +658,7 @@ final class CodeGenerator {
         sb.append("                        .inherited(").append(arg.inherited()).append(")\n");
         sb.append("                        .url(").append(arg.url()).append(")\n");
         generateFieldSetter(sb, simpleName, field, typeUtils);
+        generateParsingSetter(sb, simpleName, field, typeUtils);
         generateFieldResetter(sb, simpleName, field, typeUtils);
         sb.append("                        .build());\n\n");
     }
@@ -551,7 +773,7 @@ final class CodeGenerator {
     }
 
     private static String extractClassAttribute(AnnotationMirror mirror, String attributeName) {
-        for (java.util.Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues()
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues()
                 .entrySet()) {
             if (entry.getKey().getSimpleName().toString().equals(attributeName)) {
                 Object value = entry.getValue().getValue();
@@ -666,7 +888,7 @@ final class CodeGenerator {
     }
 
     private static boolean isAccessibleField(VariableElement field) {
-        java.util.Set<javax.lang.model.element.Modifier> modifiers = field.getModifiers();
+        Set<javax.lang.model.element.Modifier> modifiers = field.getModifiers();
         return !modifiers.contains(javax.lang.model.element.Modifier.PRIVATE);
     }
 
@@ -681,6 +903,90 @@ final class CodeGenerator {
                 .append(fieldName).append(" = (").append(fieldType).append(") val)\n");
     }
 
+    /**
+     * Primitive fields are parsed straight from the string value, without boxing it
+     * and without a converter invocation.
+     */
+    private static void generateParsingSetter(StringBuilder sb, String commandSimpleName, VariableElement field,
+            Types typeUtils) {
+        if (!isAccessibleField(field))
+            return;
+        String parseMethod = parseMethod(field.asType().getKind());
+        if (parseMethod == null)
+            return;
+        sb.append("                        .parsingSetter((inst, values) -> ((").append(commandSimpleName).append(") inst).")
+                .append(field.getSimpleName()).append(" = ").append(parseMethod).append("(values.get(0)))\n");
+    }
+
+    /**
+     * Collections of boxed primitives are filled straight from the string values.
+     */
+    private static void generateCollectionParsingSetter(StringBuilder sb, String commandSimpleName, VariableElement field,
+            Types typeUtils) {
+        if (!isAccessibleField(field) || !(field.asType() instanceof DeclaredType))
+            return;
+        List<? extends TypeMirror> typeArgs = ((DeclaredType) field.asType()).getTypeArguments();
+        if (typeArgs.size() != 1)
+            return;
+        String parseMethod;
+        try {
+            parseMethod = parseMethod(typeUtils.unboxedType(typeArgs.get(0)).getKind());
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        String collectionType = collectionImplementation(typeUtils.erasure(field.asType()).toString());
+        if (parseMethod == null || collectionType == null)
+            return;
+        String elementType = typeArgs.get(0).toString();
+
+        sb.append("                        .parsingSetter((inst, values) -> {\n");
+        sb.append("                            ").append(collectionType).append("<").append(elementType)
+                .append("> parsed = new ").append(collectionType).append("<>(values.size());\n");
+        sb.append("                            for (String value : values)\n");
+        sb.append("                                parsed.add(").append(parseMethod).append("(value));\n");
+        sb.append("                            ((").append(commandSimpleName).append(") inst).")
+                .append(field.getSimpleName()).append(" = parsed;\n");
+        sb.append("                        })\n");
+    }
+
+    /**
+     * The same parsing as the built-in converters of CLConverterManager.
+     */
+    private static String parseMethod(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return "Boolean.parseBoolean";
+            case BYTE:
+                return "Byte.parseByte";
+            case SHORT:
+                return "Short.parseShort";
+            case INT:
+                return "Integer.parseInt";
+            case LONG:
+                return "Long.parseLong";
+            case FLOAT:
+                return "Float.parseFloat";
+            case DOUBLE:
+                return "Double.parseDouble";
+            default:
+                return null;
+        }
+    }
+
+    private static String collectionImplementation(String fieldType) {
+        switch (fieldType) {
+            case "java.util.Collection":
+            case "java.util.List":
+            case "java.util.ArrayList":
+                return "java.util.ArrayList";
+            case "java.util.Set":
+            case "java.util.HashSet":
+                return "java.util.HashSet";
+            default:
+                return null;
+        }
+    }
+
     private static void generateFieldResetter(StringBuilder sb, String commandSimpleName, VariableElement field,
             Types typeUtils) {
         if (!isAccessibleField(field))
@@ -18,7 +18,9 @@
 package org.aesh.processor;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -29,9 +31,11 @@ import java.net.URLClassLoader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.ServiceLoader;
 
 import javax.tools.DiagnosticCollector;
 import javax.tools.JavaCompiler;
@@ -42,10 +46,18 @@ import javax.tools.StandardLocation;
 import javax.tools.ToolProvider;
 
 import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.GroupCommandDefinition;
 import org.aesh.command.impl.container.AeshCommandContainerBuilder;
 import org.aesh.command.impl.internal.ProcessedCommand;
 import org.aesh.command.impl.internal.ProcessedOption;
+import org.aesh.command.impl.parser.AeshCommandLineParser;
+import org.aesh.command.impl.parser.CommandLineParser;
+import org.aesh.command.metadata.CommandMetadataIndex;
 import org.aesh.command.metadata.CommandMetadataProvider;
+import org.aesh.io.scanner.AnnotationDetector;
+import org.aesh.io.scanner.CommandDefinitionReporter;
+import org.aesh.io.scanner.CommandIndex;
 import org.junit.Test;
 
 /**
@@ -369,6 +381,245 @@ public class ProcessorTest {
         assertEquivalence(commandClass, metadataClass);
     }
 
+    // --- Test: Command index ---
+
+    @Test
+    public void testCommandIndex() throws Exception {
+        CompilationResult result = compileWithProcessor(
+                new InMemorySource("test.SubCommand1", SUB_COMMAND1_SOURCE),
+                new InMemorySource("test.SubCommand2", SUB_COMMAND2_SOURCE),
+                new InMemorySource("test.GroupTestCommand", GROUP_COMMAND_SOURCE));
+        assertTrue("Compilation should succeed: " + result.diagnostics, result.success);
+
+        CommandIndex index = CommandIndex.find(result.outputDir.toFile());
+        assertNotNull("Command index should be generated", index);
+        assertEquals(Arrays.asList("test.SubCommand1", "test.SubCommand2"),
+                index.classes(CommandDefinition.class.getName(), "test"));
+        assertEquals(Collections.singletonList("test.GroupTestCommand"),
+                index.classes(GroupCommandDefinition.class.getName(), "test"));
+        assertTrue(index.classes(CommandDefinition.class.getName(), "other").isEmpty());
+
+        CommandDefinitionReporter reporter = new CommandDefinitionReporter();
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(result.classLoader);
+        try {
+            new AnnotationDetector(reporter).detect("test");
+        } finally {
+            Thread.currentThread().setContextClassLoader(loader);
+        }
+        assertEquals(Arrays.asList("test.SubCommand1", "test.SubCommand2"), reporter.getCommands());
+    }
+
+    @Test
+    public void testIncrementalCommandIndex() throws Exception {
+        CompilationResult result = compileWithProcessor(
+                new InMemorySource("test.SubCommand1", SUB_COMMAND1_SOURCE),
+                new InMemorySource("test.SubCommand2", SUB_COMMAND2_SOURCE));
+        assertTrue("Compilation should succeed: " + result.diagnostics, result.success);
+
+        // only SubCommand1 is compiled again, SubCommand2 must stay in the index
+        result = compileWithProcessor(result.outputDir, Collections.emptyList(),
+                new InMemorySource("test.SubCommand1", SUB_COMMAND1_SOURCE));
+        assertTrue("Compilation should succeed: " + result.diagnostics, result.success);
+        assertEquals(Arrays.asList("test.SubCommand1", "test.SubCommand2"),
+                CommandIndex.find(result.outputDir.toFile()).classes(CommandDefinition.class.getName(), "test"));
+
+        // a class that is no longer a command is removed, the build removes its stale metadata
+        Files.delete(result.outputDir.resolve("test/SubCommand2_AeshMetadata.java"));
+        result = compileWithProcessor(result.outputDir, Collections.emptyList(),
+                new InMemorySource("test.SubCommand1", SUB_COMMAND1_SOURCE),
+                new InMemorySource("test.SubCommand2", "package test;\npublic class SubCommand2 {}\n"));
+        assertTrue("Compilation should succeed: " + result.diagnostics, result.success);
+        assertEquals(Collections.singletonList("test.SubCommand1"),
+                CommandIndex.find(result.outputDir.toFile()).classes(CommandDefinition.class.getName(), "test"));
+    }
+
+    // --- Test: Generated parser ---
+
+    private static final String PARSED_COMMAND_SOURCE = "package test;\n" +
+            "\n" +
+            "import java.util.List;\n" +
+            "\n" +
+            "import org.aesh.command.Command;\n" +
+            "import org.aesh.command.CommandDefinition;\n" +
+            "import org.aesh.command.CommandResult;\n" +
+            "import org.aesh.command.invocation.CommandInvocation;\n" +
+            "import org.aesh.command.option.Argument;\n" +
+            "import org.aesh.command.option.Option;\n" +
+            "import org.aesh.command.option.OptionList;\n" +
+            "\n" +
+            "@CommandDefinition(name = \"parsed\", description = \"Parsed command\")\n" +
+            "public class ParsedCommand implements Command<CommandInvocation> {\n" +
+            "    @Option(shortName = 'v', hasValue = false)\n" +
+            "    boolean verbose;\n" +
+            "\n" +
+            "    @Option(hasValue = false, negatable = true)\n" +
+            "    boolean color;\n" +
+            "\n" +
+            "    @Option(required = true)\n" +
+            "    String name;\n" +
+            "\n" +
+            "    @OptionList(shortName = 'i')\n" +
+            "    List<String> items;\n" +
+            "\n" +
+            "    @Argument(required = true)\n" +
+            "    String file;\n" +
+            "\n" +
+            "    @Override\n" +
+            "    public CommandResult execute(CommandInvocation commandInvocation) {\n" +
+            "        return CommandResult.SUCCESS;\n" +
+            "    }\n" +
+            "}\n";
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testGeneratedParser() throws Exception {
+        CompilationResult result = compileWithProcessor(Collections.singletonList("-Aaesh.generateParsers=true"),
+                new InMemorySource("test.ParsedCommand", PARSED_COMMAND_SOURCE));
+        assertTrue("Compilation should succeed: " + result.diagnostics, result.success);
+
+        CommandMetadataProvider provider = (CommandMetadataProvider) result.classLoader
+                .loadClass("test.ParsedCommand_AeshMetadata").newInstance();
+        CommandLineParser parser = provider.createParser(provider.buildProcessedCommand(provider.newInstance()));
+        assertEquals("test.ParsedCommand_AeshParser", parser.getClass().getName());
+        ProcessedCommand command = parser.getProcessedCommand();
+
+        parser.parse("parsed -v --no-color --name foo -i a,b file");
+        assertTrue(command.parserExceptions().toString(), command.parserExceptions().isEmpty());
+        assertEquals("true", command.findLongOption("verbose").getValue());
+        assertFalse(command.findLongOption("verbose").isLongNameUsed());
+        assertTrue(command.findLongOption("color").isNegatedByUser());
+        assertEquals("foo", command.findLongOption("name").getValue());
+        assertEquals(Arrays.asList("a", "b"), command.findLongOption("items").getValues());
+        assertEquals("file", command.getArgument().getValue());
+
+        // not known at compile time, handled by the generic parser
+        parser.parse("parsed --name=bar file");
+        assertTrue(command.parserExceptions().toString(), command.parserExceptions().isEmpty());
+        assertEquals("bar", command.findLongOption("name").getValue());
+
+        // required options are reported the same way as by the generic parser
+        AeshCommandLineParser generic = new AeshCommandLineParser(provider.buildProcessedCommand(provider.newInstance()));
+        for (String line : Arrays.asList("parsed -v file", "parsed --name foo", "parsed --help")) {
+            parser.parse(line);
+            generic.parse(line);
+            assertEquals(line, messages(generic.getProcessedCommand().parserExceptions()),
+                    messages(command.parserExceptions()));
+        }
+
+        result = compileWithProcessor(new InMemorySource("test.ParsedCommand", PARSED_COMMAND_SOURCE));
+        assertTrue("Compilation should succeed: " + result.diagnostics, result.success);
+        provider = (CommandMetadataProvider) result.classLoader.loadClass("test.ParsedCommand_AeshMetadata").newInstance();
+        assertNull(provider.createParser(provider.buildProcessedCommand(provider.newInstance())));
+    }
+
+    private static List<String> messages(List<? extends Exception> exceptions) {
+        List<String> messages = new ArrayList<>();
+        for (Exception e : exceptions)
+            messages.add(e.getMessage());
+        return messages;
+    }
+
+    // --- Test: Parsing setters for primitive fields ---
+
+    private static final String PRIMITIVE_COMMAND_SOURCE = "package test;\n" +
+            "\n" +
+            "import java.util.List;\n" +
+            "import java.util.Set;\n" +
+            "import org.aesh.command.Command;\n" +
+            "import org.aesh.command.CommandDefinition;\n" +
+            "import org.aesh.command.CommandResult;\n" +
+            "import org.aesh.command.invocation.CommandInvocation;\n" +
+            "import org.aesh.command.option.Arguments;\n" +
+            "import org.aesh.command.option.Option;\n" +
+            "import org.aesh.command.option.OptionList;\n" +
+            "\n" +
+            "@CommandDefinition(name = \"primitive\", description = \"\")\n" +
+            "public class PrimitiveCommand implements Command<CommandInvocation> {\n" +
+            "    @Option\n" +
+            "    int count;\n" +
+            "    @Option(defaultValue = \"7\")\n" +
+            "    long size;\n" +
+            "    @Option(negatable = true, defaultValue = \"true\", hasValue = false)\n" +
+            "    boolean color;\n" +
+            "    @Option\n" +
+            "    double ratio;\n" +
+            "    @Option\n" +
+            "    String name;\n" +
+            "    @OptionList\n" +
+            "    List<Integer> ids;\n" +
+            "    @OptionList\n" +
+            "    Set<Long> sizes;\n" +
+            "    @Arguments\n" +
+            "    List<Short> values;\n" +
+            "\n" +
+            "    @Override\n" +
+            "    public CommandResult execute(CommandInvocation commandInvocation) {\n" +
+            "        return CommandResult.SUCCESS;\n" +
+            "    }\n" +
+            "}\n";
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testParsingSetters() throws Exception {
+        CompilationResult result = compileWithProcessor(
+                new InMemorySource("test.PrimitiveCommand", PRIMITIVE_COMMAND_SOURCE));
+        assertTrue("Compilation should succeed: " + result.diagnostics, result.success);
+
+        CommandMetadataProvider provider = (CommandMetadataProvider) result.classLoader
+                .loadClass("test.PrimitiveCommand_AeshMetadata").newInstance();
+        Object instance = provider.newInstance();
+        AeshCommandLineParser parser = new AeshCommandLineParser(provider.buildProcessedCommand((Command) instance));
+        ProcessedCommand command = parser.getProcessedCommand();
+        assertNull(command.findLongOption("name").getParsingSetter());
+
+        parser.parse("primitive --count 3 --no-color --ratio 0.5 --ids 1,2 --sizes 4,4 1 2");
+        assertTrue(command.parserExceptions().toString(), command.parserExceptions().isEmpty());
+        // no invocation providers, the values can only be injected by the parsing setters
+        for (Object option : command.getOptions())
+            if (((ProcessedOption) option).getParsingSetter() != null)
+                ((ProcessedOption) option).injectValueIntoField(instance, null, null, false);
+        command.getArguments().injectValueIntoField(instance, null, null, false);
+
+        assertEquals(3, field(instance, "count"));
+        assertEquals(7L, field(instance, "size"));
+        assertEquals(false, field(instance, "color"));
+        assertEquals(0.5d, field(instance, "ratio"));
+        assertEquals(Arrays.asList(1, 2), field(instance, "ids"));
+        assertEquals(Collections.singleton(4L), field(instance, "sizes"));
+        assertEquals(Arrays.asList((short) 1, (short) 2), field(instance, "values"));
+    }
+
+    private static Object field(Object instance, String name) throws ReflectiveOperationException {
+        java.lang.reflect.Field field = instance.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(instance);
+    }
+
+    // --- Test: Metadata index ---
+
+    @Test
+    public void testMetadataIndex() throws Exception {
+        CompilationResult result = compileWithProcessor(
+                new InMemorySource("test.SubCommand1", SUB_COMMAND1_SOURCE),
+                new InMemorySource("test.SubCommand2", SUB_COMMAND2_SOURCE),
+                new InMemorySource("test.GroupTestCommand", GROUP_COMMAND_SOURCE));
+        assertTrue("Compilation should succeed: " + result.diagnostics, result.success);
+        assertFalse(result.diagnostics, result.diagnostics.contains("last round"));
+
+        List<CommandMetadataIndex> indexes = new ArrayList<>();
+        for (CommandMetadataIndex index : ServiceLoader.load(CommandMetadataIndex.class, result.classLoader))
+            indexes.add(index);
+        assertEquals(1, indexes.size());
+        CommandMetadataIndex index = indexes.get(0);
+
+        assertEquals(Arrays.asList("test.GroupTestCommand_AeshMetadata", "test.SubCommand1_AeshMetadata",
+                "test.SubCommand2_AeshMetadata"), Arrays.asList(index.providerNames()));
+        assertEquals(result.classLoader.loadClass("test.SubCommand1"),
+                index.provider("test.SubCommand1").commandType());
+        assertNull(index.provider("test.Unknown"));
+    }
+
     // --- Test: Compile-time validation catches abstract class ---
 
     private static final String ABSTRACT_COMMAND_SOURCE = "package test;\n" +
@@ -471,11 +722,22 @@ public class ProcessorTest {
     // --- In-memory compilation infrastructure ---
 
     private CompilationResult compileWithProcessor(InMemorySource... sources) throws IOException {
+        return compileWithProcessor(Collections.emptyList(), sources);
+    }
+
+    private CompilationResult compileWithProcessor(List<String> processorOptions, InMemorySource... sources)
+            throws IOException {
+        return compileWithProcessor(Files.createTempDirectory("aesh-processor-test"), processorOptions, sources);
+    }
+
+    /**
+     * The output directory is on the class path, like in an incremental build.
+     */
+    private CompilationResult compileWithProcessor(Path outputDir, List<String> processorOptions,
+            InMemorySource... sources) throws IOException {
         JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
         DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
 
-        Path outputDir = Files.createTempDirectory("aesh-processor-test");
-
         try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
             fileManager.setLocation(StandardLocation.CLASS_OUTPUT,
                     Collections.singletonList(outputDir.toFile()));
@@ -483,22 +745,24 @@ public class ProcessorTest {
             // Add aesh classes to the classpath
             String classpath = System.getProperty("java.class.path");
             String[] cpEntries = classpath.split(File.pathSeparator);
-            List<File> cpFiles = new java.util.ArrayList<>();
+            List<File> cpFiles = new ArrayList<>();
+            cpFiles.add(outputDir.toFile());
             for (String entry : cpEntries) {
                 cpFiles.add(new File(entry));
             }
             fileManager.setLocation(StandardLocation.CLASS_PATH, cpFiles);
 
+            List<String> options = new ArrayList<>(
+                    Arrays.asList("-proc:only", "-processor", AeshAnnotationProcessor.class.getName()));
+            options.addAll(processorOptions);
             JavaCompiler.CompilationTask task = compiler.getTask(
-                    null, fileManager, diagnostics,
-                    Arrays.asList("-proc:only", "-processor", AeshAnnotationProcessor.class.getName()),
-                    null, Arrays.asList(sources));
+                    null, fileManager, diagnostics, options, null, Arrays.asList(sources));
 
             boolean procSuccess = task.call();
 
             // Now compile again with generated sources + original sources
             // First, collect generated source files
-            List<JavaFileObject> allSources = new java.util.ArrayList<>(Arrays.asList(sources));
+            List<JavaFileObject> allSources = new ArrayList<>(Arrays.asList(sources));
 
             // Find generated source files
             collectGeneratedSources(outputDir, allSources);
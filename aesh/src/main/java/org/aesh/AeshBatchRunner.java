@@ -0,0 +1,306 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.aesh.command.AeshCommandRuntimeBuilder;
+import org.aesh.command.Command;
+import org.aesh.command.CommandResult;
+import org.aesh.command.CommandRuntime;
+import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
+import org.aesh.command.registry.CommandRegistryException;
+
+/**
+ * Executes the lines of a script in parallel.
+ *
+ * Every line of the script is independent of the other lines and can be executed at the same
+ * time by a pool of workers. Dependencies are expressed with:
+ * <ul>
+ * <li>a barrier line (default "#wait"): the lines after it are started when all lines
+ * before it are done. The default starts with # so it can never be a command line</li>
+ * <li>a line ending with &amp;&amp;, || or \: it is continued on the next line and executed
+ * together with it, so the runtime executes the parts in order like on a single line</li>
+ * </ul>
+ * Empty lines and other lines starting with # are ignored.
+ *
+ * The script is read while the lines are executed, at most a few lines per worker are read
+ * ahead of the first line that is not reported yet. The results are reported in the order of
+ * the script, both to the result consumer (as soon as a line and all lines before it are done)
+ * and in the returned list.
+ *
+ * A runner is created with {@link #builder()} and can execute several scripts.
+ *
+ * @author Aesh team
+ */
+public class AeshBatchRunner {
+
+    public static final String DEFAULT_BARRIER = "#wait";
+
+    private final CommandRuntime runtime;
+    private final int workers;
+    private final String barrier;
+    private final Consumer<Result> resultConsumer;
+
+    private AeshBatchRunner(Builder builder) {
+        this.runtime = builder.runtime != null ? builder.runtime
+                : AeshCommandRuntimeBuilder.builder()
+                        .commandRegistry(builder.registryBuilder.create())
+                        .operators(AeshCommandRuntimeBuilder.ALL_OPERATORS)
+                        .build();
+        this.workers = builder.workers;
+        this.barrier = builder.barrier;
+        this.resultConsumer = builder.resultConsumer;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<Result> execute(Path script) throws IOException {
+        try (Reader reader = Files.newBufferedReader(script, StandardCharsets.UTF_8)) {
+            return execute(reader);
+        }
+    }
+
+    public List<Result> execute(String... lines) {
+        try {
+            return execute(new StringReader(String.join("\n", lines)));
+        } catch (IOException e) {
+            //not thrown by a StringReader
+            throw new RuntimeException(e);
+        }
+    }
+
+    public List<Result> execute(Reader script) throws IOException {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "aesh-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        //limits how far the script is read ahead of the reported lines
+        int maxPending = workers * 4;
+        List<Result> results = new ArrayList<>();
+        Deque<CompletableFuture<Result>> pending = new ArrayDeque<>();
+        try {
+            BufferedReader reader = script instanceof BufferedReader ? (BufferedReader) script : new BufferedReader(script);
+            StringBuilder unit = new StringBuilder();
+            int lineNumber = 0;
+            int unitStart = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (unit.length() == 0) {
+                    if (trimmed.equals(barrier)) {
+                        while (!pending.isEmpty())
+                            report(pending.poll(), results);
+                        continue;
+                    }
+                    if (trimmed.isEmpty() || trimmed.startsWith("#"))
+                        continue;
+                    unitStart = lineNumber;
+                }
+                if (trimmed.endsWith("\\")) {
+                    unit.append(trimmed.substring(0, trimmed.length() - 1).trim()).append(' ');
+                    continue;
+                }
+                unit.append(trimmed);
+                if (trimmed.endsWith("&&") || trimmed.endsWith("||")) {
+                    unit.append(' ');
+                    continue;
+                }
+                //wait for the first line if too many lines are not reported yet
+                while (pending.size() >= maxPending)
+                    report(pending.poll(), results);
+                pending.add(submit(unitStart, unit.toString(), pool));
+                unit.setLength(0);
+                //report the lines that are done without waiting for the others
+                while (!pending.isEmpty() && pending.peek().isDone())
+                    report(pending.poll(), results);
+            }
+            if (unit.length() > 0)
+                pending.add(submit(unitStart, unit.toString().trim(), pool));
+            while (!pending.isEmpty())
+                report(pending.poll(), results);
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.forEach(f -> f.cancel(true));
+            throw new IOException("Interrupted while executing script", e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Result> submit(int lineNumber, String line, ExecutorService pool) {
+        CompletableFuture<CommandResult> execution = runtime.executeCommandAsync(line, pool);
+        return execution.handle((result, failure) -> new Result(lineNumber, line, result, failure));
+    }
+
+    private void report(CompletableFuture<Result> future, List<Result> results) throws InterruptedException {
+        Result result;
+        try {
+            result = future.get();
+        } catch (ExecutionException e) {
+            //handle() does not complete exceptionally
+            throw new IllegalStateException(e.getCause());
+        }
+        results.add(result);
+        if (resultConsumer != null)
+            resultConsumer.accept(result);
+    }
+
+    public static class Builder {
+        private CommandRuntime runtime;
+        private final AeshCommandRegistryBuilder registryBuilder = AeshCommandRegistryBuilder.builder();
+        private int workers = Runtime.getRuntime().availableProcessors();
+        private String barrier = DEFAULT_BARRIER;
+        private Consumer<Result> resultConsumer;
+
+        private Builder() {
+        }
+
+        public Builder command(Class<? extends Command> command) {
+            try {
+                registryBuilder.command(command);
+            } catch (CommandRegistryException e) {
+                throw new RuntimeException("Exception while building command: " + e.getMessage());
+            }
+            return this;
+        }
+
+        public Builder command(Command commandInstance) {
+            try {
+                registryBuilder.command(commandInstance);
+            } catch (CommandRegistryException e) {
+                throw new RuntimeException("Exception while building command: " + e.getMessage());
+            }
+            return this;
+        }
+
+        /**
+         * Runtime used to execute the lines, it needs operators enabled for lines with operators.
+         */
+        public Builder commandRuntime(CommandRuntime runtime) {
+            this.runtime = runtime;
+            return this;
+        }
+
+        /**
+         * Number of lines executed at the same time, default is the number of processors.
+         */
+        public Builder workers(int workers) {
+            if (workers < 1)
+                throw new IllegalArgumentException("Number of workers must be positive: " + workers);
+            this.workers = workers;
+            return this;
+        }
+
+        public Builder barrier(String barrier) {
+            this.barrier = barrier;
+            return this;
+        }
+
+        /**
+         * Called with the result of every line, in the order of the script.
+         */
+        public Builder onResult(Consumer<Result> resultConsumer) {
+            this.resultConsumer = resultConsumer;
+            return this;
+        }
+
+        public AeshBatchRunner build() {
+            return new AeshBatchRunner(this);
+        }
+    }
+
+    /**
+     * The result of a line in the script.
+     */
+    public static class Result {
+        private final int lineNumber;
+        private final String line;
+        private final CommandResult result;
+        private final Throwable failure;
+
+        Result(int lineNumber, String line, CommandResult result, Throwable failure) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.result = result;
+            this.failure = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure;
+        }
+
+        /**
+         * @return number of the first line in the script, starting with 1
+         */
+        public int lineNumber() {
+            return lineNumber;
+        }
+
+        public String line() {
+            return line;
+        }
+
+        /**
+         * @return result of the line, FAILURE if the line failed with an exception
+         */
+        public CommandResult result() {
+            return failure == null ? result : CommandResult.FAILURE;
+        }
+
+        /**
+         * @return the exception the line failed with, or null
+         */
+        public Throwable failure() {
+            return failure;
+        }
+
+        public boolean isSuccess() {
+            return failure == null && result == CommandResult.SUCCESS;
+        }
+
+        @Override
+        public String toString() {
+            return lineNumber + ": " + line + " -> " + (failure != null ? failure.toString() : result);
+        }
+    }
+}
@@ -140,7 +140,7 @@ public class AeshRuntimeRunner {
             } catch (CommandNotFoundException e) {
                 System.err.println("Command not found: " + sb.toString());
             } catch (CommandException | CommandLineParserException | CommandValidatorException | OptionValidatorException e) {
-                showHelpIfNeeded(runtime, commandName, e);
+                showHelpIfNeeded(runtime, commandName, connection, e);
             } catch (InterruptedException | IOException e) {
                 System.err.println(e.getMessage());
             }
@@ -153,10 +153,16 @@ public class AeshRuntimeRunner {
         }
     }
 
-    private static void showHelpIfNeeded(CommandRuntime runtime, String commandName, Exception e) {
+    private static void showHelpIfNeeded(CommandRuntime runtime, String commandName, Connection connection,
+            Exception e) {
         if (e != null) {
             System.err.println(e.getMessage());
         }
-        System.err.println(runtime.commandInfo(commandName));
+        //without a terminal connection the width is not known
+        if (connection != null)
+            System.err.println(runtime.commandInfo(commandName, connection.size().getWidth(),
+                    connection.terminal().supportsHyperlinks()));
+        else
+            System.err.println(runtime.commandInfo(commandName));
     }
 }
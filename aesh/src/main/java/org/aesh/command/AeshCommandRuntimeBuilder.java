@@ -33,6 +33,7 @@ import org.aesh.command.impl.registry.MutableCommandRegistryImpl;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.invocation.CommandInvocationBuilder;
 import org.aesh.command.invocation.CommandInvocationProvider;
+import org.aesh.command.job.JobTable;
 import org.aesh.command.operator.OperatorType;
 import org.aesh.command.registry.CommandRegistry;
 import org.aesh.command.settings.Settings;
@@ -65,6 +66,10 @@ public class AeshCommandRuntimeBuilder<CI extends CommandInvocation> {
 
     private boolean parseBrackets;
     private EnumSet<OperatorType> operators;
+    private int pipeBufferSize;
+    private int redirectionBufferSize;
+    private int executorCacheSize;
+    private JobTable jobTable;
 
     private AeshCommandRuntimeBuilder() {
     }
@@ -83,6 +88,42 @@ public class AeshCommandRuntimeBuilder<CI extends CommandInvocation> {
         return this;
     }
 
+    /**
+     * Stream the output of piped commands through a buffer of the given size,
+     * 0 (default) collects the output before the next command is executed.
+     */
+    public AeshCommandRuntimeBuilder<CI> pipeBufferSize(int pipeBufferSize) {
+        this.pipeBufferSize = pipeBufferSize;
+        return this;
+    }
+
+    /**
+     * Number of bytes of redirected output buffered before it is written to the file,
+     * 0 (default) uses a 64KB buffer.
+     */
+    public AeshCommandRuntimeBuilder<CI> redirectionBufferSize(int redirectionBufferSize) {
+        this.redirectionBufferSize = redirectionBufferSize;
+        return this;
+    }
+
+    /**
+     * Cache the parsed command line and the commands it resolves to for the given number
+     * of lines, so executing the same line again does not need to parse it and look up the commands.
+     * 0 (default) disables the cache.
+     */
+    public AeshCommandRuntimeBuilder<CI> executorCacheSize(int executorCacheSize) {
+        this.executorCacheSize = executorCacheSize;
+        return this;
+    }
+
+    /**
+     * Table of the jobs started with the &amp; operator, a new table is created if it is not set.
+     */
+    public AeshCommandRuntimeBuilder<CI> jobTable(JobTable jobTable) {
+        this.jobTable = jobTable;
+        return this;
+    }
+
     public AeshCommandRuntimeBuilder<CI> commandRegistry(CommandRegistry<CI> registry) {
         this.registry = registry;
         return this;
@@ -152,6 +193,8 @@ public class AeshCommandRuntimeBuilder<CI extends CommandInvocation> {
             c.registry = (CommandRegistry<CI>) settings.commandRegistry();
             c.ctx = settings.aeshContext();
             c.operators = settings.operatorParserEnabled() ? EnumSet.allOf(OperatorType.class) : null;
+            c.pipeBufferSize = settings.pipeBufferSize();
+            c.redirectionBufferSize = settings.redirectionBufferSize();
         });
     }
 
@@ -180,6 +223,7 @@ public class AeshCommandRuntimeBuilder<CI extends CommandInvocation> {
         return new AeshCommandRuntime<>(ctx, registry, commandInvocationProvider,
                 commandNotFoundHandler, completerInvocationProvider, converterInvocationProvider,
                 validatorInvocationProvider, optionActivatorProvider, commandActivatorProvider,
-                commandInvocationBuilder, parseBrackets, operators);
+                commandInvocationBuilder, parseBrackets, operators, pipeBufferSize,
+                redirectionBufferSize, executorCacheSize, jobTable);
     }
 }
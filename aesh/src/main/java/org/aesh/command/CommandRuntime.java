@@ -20,6 +20,8 @@
 package org.aesh.command;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.invocation.CommandInvocationBuilder;
@@ -35,10 +37,19 @@ import org.aesh.terminal.utils.Parser;
 /**
  * An Aesh Command processor.
  *
+ * Command lines can be executed and completed by several threads at the same time.
+ * Every execution gets its own command instance, except for commands registered as
+ * instances (and not by their class): they are shared and not thread-safe.
+ *
  * @author Aesh team
  */
 public interface CommandRuntime<CI extends CommandInvocation> {
 
+    /**
+     * Width used to format help and command info when the terminal width is not known.
+     */
+    int DEFAULT_HELP_WIDTH = 80;
+
     /**
      * The registry in which commands are registered.
      *
@@ -104,6 +115,28 @@ public interface CommandRuntime<CI extends CommandInvocation> {
             InterruptedException,
             IOException;
 
+    /**
+     * Execute a command line with the given executor, without blocking the calling thread.
+     *
+     * Failures complete the future exceptionally with the same exceptions
+     * {@link #executeCommand(String)} throws. The default implementation executes the whole
+     * line as one task, implementations should interrupt the command if the future is cancelled,
+     * like Ctrl-C does in a console.
+     *
+     * @param line command line
+     * @param executor executes the command
+     * @return the result of the command line
+     */
+    default CompletableFuture<CommandResult> executeCommandAsync(String line, java.util.concurrent.Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return executeCommand(line);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
     /**
      * Returns the aesh context.
      *
@@ -117,9 +150,20 @@ public interface CommandRuntime<CI extends CommandInvocation> {
      * @return condensed information regarding the specific command
      */
     default String commandInfo(String line) {
+        return commandInfo(line, DEFAULT_HELP_WIDTH, false);
+    }
+
+    /**
+     *
+     * @param line input line
+     * @param width terminal width
+     * @param supportsHyperlinks whether the terminal supports OSC 8 hyperlinks
+     * @return condensed information regarding the specific command, formatted for the terminal
+     */
+    default String commandInfo(String line, int width, boolean supportsHyperlinks) {
         try {
             String name = Parser.findFirstWord(line);
-            return getCommandRegistry().getCommand(name, line).printHelp(line);
+            return getCommandRegistry().getCommand(name, line).printHelp(line, width, supportsHyperlinks);
         } catch (CommandNotFoundException e) {
             return null;
         }
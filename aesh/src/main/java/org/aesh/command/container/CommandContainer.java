@@ -58,6 +58,16 @@ public interface CommandContainer<CI extends CommandInvocation> extends AutoClos
      */
     String printHelp(String childCommandName);
 
+    /**
+     * @param childCommandName (for group commands)
+     * @param width terminal width
+     * @param supportsHyperlinks whether the terminal supports OSC 8 hyperlinks
+     * @return help info formatted for the terminal
+     */
+    default String printHelp(String childCommandName, int width, boolean supportsHyperlinks) {
+        return printHelp(childCommandName);
+    }
+
     /**
      * @return error message
      */
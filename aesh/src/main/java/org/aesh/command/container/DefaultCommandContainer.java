@@ -131,6 +131,11 @@ public abstract class DefaultCommandContainer<CI extends CommandInvocation> impl
 
     @Override
     public String printHelp(String childCommandName) {
+        return printHelp(childCommandName, ProcessedCommand.DEFAULT_HELP_WIDTH, false);
+    }
+
+    @Override
+    public String printHelp(String childCommandName, int width, boolean supportsHyperlinks) {
         if (getParser().isGroupCommand() && childCommandName.contains(" ")) {
             String[] names = childCommandName.split(" ");
             if (names.length > 1 && names[1].length() > 0) {
@@ -141,13 +146,13 @@ public abstract class DefaultCommandContainer<CI extends CommandInvocation> impl
                         if (child.isGroupCommand()) {
                             current = child;
                         } else
-                            return child.printHelp();
+                            return child.printHelp(width, supportsHyperlinks);
                     }
 
                 }
             }
             return "Child command " + names[1] + " not found.";
         } else
-            return getParser().printHelp();
+            return getParser().printHelp(width, supportsHyperlinks);
     }
 }
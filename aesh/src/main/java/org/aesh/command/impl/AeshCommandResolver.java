@@ -26,6 +26,7 @@ import org.aesh.command.container.CommandContainer;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.registry.CommandRegistry;
 import org.aesh.parser.LineParser;
+import org.aesh.parser.LineTokens;
 import org.aesh.parser.ParsedLine;
 
 /**
@@ -35,6 +36,7 @@ public class AeshCommandResolver<CI extends CommandInvocation> implements Comman
 
     private CommandRegistry<CI> registry;
     private LineParser lineParser;
+    private final LineTokens tokens = new LineTokens();
 
     public AeshCommandResolver(CommandRegistry<CI> commandRegistry) {
         this.registry = commandRegistry;
@@ -47,7 +49,8 @@ public class AeshCommandResolver<CI extends CommandInvocation> implements Comman
 
     @Override
     public CommandContainer<CI> resolveCommand(String line) throws CommandNotFoundException {
-        return getCommand(lineParser.parseLine(line), line);
+        //we only need the command name, no need to create the other words
+        return getCommand(lineParser.tokenize(line, tokens).word(0), line);
     }
 
     @Override
@@ -20,8 +20,12 @@
 package org.aesh.command.impl;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,11 +51,13 @@ import org.aesh.command.impl.internal.ProcessedOption;
 import org.aesh.command.impl.invocation.AeshInvocationProviders;
 import org.aesh.command.impl.parser.AeshCommandLineCompletionParser;
 import org.aesh.command.impl.parser.CommandLineParser;
+import org.aesh.command.impl.parser.LazyCommandLineParser;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.invocation.CommandInvocationBuilder;
 import org.aesh.command.invocation.CommandInvocationConfiguration;
 import org.aesh.command.invocation.CommandInvocationProvider;
 import org.aesh.command.invocation.InvocationProviders;
+import org.aesh.command.job.JobTable;
 import org.aesh.command.operator.OperatorType;
 import org.aesh.command.parser.CommandLineParserException;
 import org.aesh.command.registry.CommandRegistry;
@@ -85,6 +91,13 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
 
     private final boolean parseBrackets;
     private final EnumSet<OperatorType> operators;
+    private final int pipeBufferSize;
+    private final int redirectionBufferSize;
+    private final ExecutorCache<CI> executorCache;
+    private final JobTable jobTable;
+    private final CommandContainerPool<CI> containerPool = new CommandContainerPool<>(this::initContainer);
+    //lazily registered commands that must be initialized when they are first resolved
+    private final Set<String> uninitialized = ConcurrentHashMap.newKeySet();
 
     public AeshCommandRuntime(AeshContext ctx,
             CommandRegistry<CI> registry,
@@ -98,6 +111,27 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
             CommandInvocationBuilder<CI> commandInvocationBuilder,
             boolean parseBrackets,
             EnumSet<OperatorType> operators) {
+        this(ctx, registry, commandInvocationProvider, commandNotFoundHandler, completerInvocationProvider,
+                converterInvocationProvider, validatorInvocationProvider, optionActivatorProvider,
+                commandActivatorProvider, commandInvocationBuilder, parseBrackets, operators, 0, 0, 0, null);
+    }
+
+    public AeshCommandRuntime(AeshContext ctx,
+            CommandRegistry<CI> registry,
+            CommandInvocationProvider<CI> commandInvocationProvider,
+            CommandNotFoundHandler commandNotFoundHandler,
+            CompleterInvocationProvider completerInvocationProvider,
+            ConverterInvocationProvider converterInvocationProvider,
+            ValidatorInvocationProvider validatorInvocationProvider,
+            OptionActivatorProvider optionActivatorProvider,
+            CommandActivatorProvider commandActivatorProvider,
+            CommandInvocationBuilder<CI> commandInvocationBuilder,
+            boolean parseBrackets,
+            EnumSet<OperatorType> operators,
+            int pipeBufferSize,
+            int redirectionBufferSize,
+            int executorCacheSize,
+            JobTable jobTable) {
         this.ctx = ctx;
         this.registry = registry;
         commandResolver = new AeshCommandResolver<>(registry);
@@ -110,6 +144,10 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
         registry.addRegistrationListener(this);
         this.parseBrackets = parseBrackets;
         this.operators = operators;
+        this.pipeBufferSize = pipeBufferSize;
+        this.redirectionBufferSize = redirectionBufferSize;
+        this.executorCache = executorCacheSize > 0 ? new ExecutorCache<>(executorCacheSize) : null;
+        this.jobTable = jobTable != null ? jobTable : new JobTable();
     }
 
     @Override
@@ -122,6 +160,37 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
         return ctx;
     }
 
+    int pipeBufferSize() {
+        return pipeBufferSize;
+    }
+
+    int redirectionBufferSize() {
+        return redirectionBufferSize;
+    }
+
+    /**
+     * @return the jobs started with the &amp; operator
+     */
+    public JobTable jobTable() {
+        return jobTable;
+    }
+
+    /**
+     * @return number of command lines that were found in the executor cache,
+     *         0 if the cache is not enabled
+     */
+    public long executorCacheHits() {
+        return executorCache != null ? executorCache.hits() : 0;
+    }
+
+    /**
+     * @return number of command lines that were not found in the executor cache,
+     *         0 if the cache is not enabled
+     */
+    public long executorCacheMisses() {
+        return executorCache != null ? executorCache.misses() : 0;
+    }
+
     @Override
     public CommandInvocationBuilder<CI> commandInvocationBuilder() {
         return commandInvocationBuilder;
@@ -140,11 +209,30 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
             InterruptedException,
             IOException {
 
-        Executor<CI> executor;
+        Executor<CI> executor = buildExecutorOrNotify(line);
+        Execution<CI> exec;
+        CommandResult result = null;
+        while ((exec = executor.getNextExecution()) != null) {
+            result = execute(exec);
+        }
+        if (result != null)
+            return result;
+        else
+            return CommandResult.FAILURE;
+    }
+
+    @Override
+    public CompletableFuture<CommandResult> executeCommandAsync(String line, java.util.concurrent.Executor executor) {
+        return new AsyncExecution<>(this, line, executor).start();
+    }
+
+    /**
+     * Build the executor for the line, the command not found handler is called if the command is not found.
+     */
+    Executor<CI> buildExecutorOrNotify(String line) throws CommandNotFoundException, CommandLineParserException,
+            IOException {
         try {
-            executor = buildExecutor(line);
-        } catch (CommandLineParserException e) {
-            throw e;
+            return buildExecutor(line);
         } catch (CommandNotFoundException cmd) {
             if (commandNotFoundHandler != null) {
                 commandNotFoundHandler.handleCommandNotFound(line,
@@ -152,38 +240,37 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
             }
             throw cmd;
         }
-        Execution exec;
-        CommandResult result = null;
-        while ((exec = executor.getNextExecution()) != null) {
-            try {
-                result = exec.execute();
-            } catch (CommandException cmd) {
-                if (exec.getResultHandler() != null) {
-                    exec.getResultHandler().onExecutionFailure(CommandResult.FAILURE, cmd);
-                }
-                throw cmd;
-            } catch (CommandValidatorException | CommandLineParserException e) {
-                if (exec.getResultHandler() != null) {
-                    exec.getResultHandler().onValidationFailure(CommandResult.FAILURE, e);
-                }
-                throw e;
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
-                if (exec.getResultHandler() != null) {
-                    exec.getResultHandler().onValidationFailure(CommandResult.FAILURE, ex);
-                }
-                throw ex;
-            } catch (Exception e) {
-                if (exec.getResultHandler() != null) {
-                    exec.getResultHandler().onValidationFailure(CommandResult.FAILURE, e);
-                }
-                throw new RuntimeException(e);
+    }
+
+    /**
+     * Execute one execution of a command line, failures are reported to its result handler.
+     */
+    CommandResult execute(Execution<CI> exec) throws CommandException, CommandValidatorException,
+            CommandLineParserException, InterruptedException {
+        try {
+            return exec.execute();
+        } catch (CommandException cmd) {
+            if (exec.getResultHandler() != null) {
+                exec.getResultHandler().onExecutionFailure(CommandResult.FAILURE, cmd);
+            }
+            throw cmd;
+        } catch (CommandValidatorException | CommandLineParserException e) {
+            if (exec.getResultHandler() != null) {
+                exec.getResultHandler().onValidationFailure(CommandResult.FAILURE, e);
+            }
+            throw e;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (exec.getResultHandler() != null) {
+                exec.getResultHandler().onValidationFailure(CommandResult.FAILURE, ex);
+            }
+            throw ex;
+        } catch (Exception e) {
+            if (exec.getResultHandler() != null) {
+                exec.getResultHandler().onValidationFailure(CommandResult.FAILURE, e);
             }
+            throw new RuntimeException(e);
         }
-        if (result != null)
-            return result;
-        else
-            return CommandResult.FAILURE;
     }
 
     @Override
@@ -210,12 +297,31 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
         }
     }
 
+    private void initContainer(CommandContainer<CI> container) {
+        container.getParser().getProcessedCommand().updateInvocationProviders(invocationProviders);
+        for (CommandLineParser<CI> child : container.getParser().getAllChildParsers()) {
+            updateInvocationProviders(child);
+        }
+    }
+
+    private void updateInvocationProviders(CommandLineParser<?> child) {
+        //lazy children get the providers when they are created
+        if (child instanceof LazyCommandLineParser)
+            ((LazyCommandLineParser<?>) child).updateInvocationProviders(invocationProviders);
+        else
+            child.getProcessedCommand().updateInvocationProviders(invocationProviders);
+    }
+
     private void updateCommand(String commandName) throws CommandNotFoundException {
+        if (!registry.isCommandCreated(commandName)) {
+            uninitialized.add(commandName);
+            return;
+        }
         ProcessedCommand<Command<CI>, CI> cmd = registry.getCommand(commandName, "").getParser().getProcessedCommand();
         List<CommandLineParser<CI>> childParsers = registry.getChildCommandParsers(commandName);
         cmd.updateInvocationProviders(invocationProviders);
         for (CommandLineParser<?> child : childParsers) {
-            child.getProcessedCommand().updateInvocationProviders(invocationProviders);
+            updateInvocationProviders(child);
         }
     }
 
@@ -223,8 +329,19 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
     public Executor<CI> buildExecutor(String line) throws CommandNotFoundException,
             CommandLineParserException, IOException {
         LOGGER.fine("Command: " + line);
+        if (executorCache == null) {
+            List<ParsedLine> lines = new LineParser().parseLine(line, -1, parseBrackets, operators);
+            return new Executor<>(Executions.buildExecution(lines, this, new ArrayList<>()));
+        }
+        ExecutorCache.CachedLine<CI> cached = executorCache.get(line);
+        if (cached != null)
+            return new Executor<>(Executions.buildExecution(cached.lines(), this, cached.containers()));
+
+        long generation = executorCache.generation();
         List<ParsedLine> lines = new LineParser().parseLine(line, -1, parseBrackets, operators);
-        List<Execution<CI>> executions = Executions.buildExecution(lines, this);
+        List<CommandContainer<CI>> resolved = new ArrayList<>();
+        List<Execution<CI>> executions = Executions.buildExecution(lines, this, resolved);
+        executorCache.put(line, generation, lines, resolved);
         return new Executor<>(executions);
     }
 
@@ -242,10 +359,42 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
         if (container == null) {
             throw new CommandNotFoundException("No command handler for '" + name + "'.", name);
         }
-        container.addLine(aeshLine);
+        return initialized(container);
+    }
+
+    /**
+     * Initialize lazily registered commands the first time they are resolved.
+     * The name is only removed when the container is initialized, so a thread that does not
+     * find it can use the container while others wait on the lock until it is ready.
+     */
+    private CommandContainer<CI> initialized(CommandContainer<CI> container) {
+        if (!uninitialized.isEmpty()) {
+            String name = container.getParser().getProcessedCommand().name();
+            if (uninitialized.contains(name)) {
+                synchronized (uninitialized) {
+                    if (uninitialized.contains(name)) {
+                        initContainer(container);
+                        uninitialized.remove(name);
+                    }
+                }
+            }
+        }
         return container;
     }
 
+    /**
+     * @param registered container found for the command line
+     * @return container to execute the command with, it is not used by any other thread
+     *         (unless the command can not be created by aesh)
+     */
+    CommandContainer<CI> acquireCommandContainer(CommandContainer<CI> registered) {
+        return containerPool.acquire(registered);
+    }
+
+    void releaseCommandContainer(CommandContainer<CI> registered, CommandContainer<CI> container) {
+        containerPool.release(registered, container);
+    }
+
     void populateAskedOption(ProcessedOption option) {
         try {
             option.injectValueIntoField(option.parent().getCommand(), invocationProviders, getAeshContext(), false);
@@ -257,12 +406,17 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
 
     @Override
     public void registrationAction(String commandName, CommandRegistry.REGISTRATION_ACTION action) {
+        if (executorCache != null)
+            executorCache.invalidate();
         if (action == CommandRegistry.REGISTRATION_ACTION.ADDED) {
             try {
                 updateCommand(commandName);
             } catch (Exception e) {
                 LOGGER.log(Level.FINER, "Exception while iterating commands.", e);
             }
+        } else if (action == CommandRegistry.REGISTRATION_ACTION.REMOVED) {
+            uninitialized.remove(commandName);
+            containerPool.clear();
         }
     }
 
@@ -336,10 +490,15 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
         }
         if (completeOperation.getCompletionCandidates().size() < 1) {
 
-            try (CommandContainer commandContainer = commandResolver.resolveCommand(parsedLine)) {
-
-                commandContainer.getParser()
-                        .complete(completeOperation, parsedLine, invocationProviders);
+            try (CommandContainer<CI> registered = initialized(commandResolver.resolveCommand(parsedLine))) {
+                //completing parses the line, so the container must not be used by an execution
+                CommandContainer<CI> commandContainer = acquireCommandContainer(registered);
+                try {
+                    commandContainer.getParser()
+                            .complete(completeOperation, parsedLine, invocationProviders);
+                } finally {
+                    releaseCommandContainer(registered, commandContainer);
+                }
             } catch (CommandNotFoundException ignored) {
             } catch (Exception ex) {
                 LOGGER.log(Level.SEVERE, "Runtime exception when completing: "
@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2017 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.aesh.command.CommandResult;
+import org.aesh.command.Execution;
+import org.aesh.command.Executor;
+import org.aesh.command.invocation.CommandInvocation;
+
+/**
+ * Executes a command line with an executor, one execution at a time.
+ *
+ * Every execution of the line (eg each side of &amp;&amp;, || and ;) is a separate task, the next one
+ * is submitted when the previous is done. No thread waits between the executions, so a small
+ * pool can run many command lines at the same time.
+ * The future returned to the caller is a copy, completing it does not change the result the
+ * runtime sees. Cancelling it interrupts the thread running the current execution and no more
+ * executions are started.
+ *
+ * @author Aesh team
+ */
+final class AsyncExecution<CI extends CommandInvocation> {
+
+    private final AeshCommandRuntime<CI> runtime;
+    private final String line;
+    private final java.util.concurrent.Executor executor;
+    //only completed by the executions
+    private final CompletableFuture<CommandResult> future = new CompletableFuture<>();
+
+    private Executor<CI> commandExecutor;
+    private CommandResult result;
+    //the thread executing the current execution, if any
+    private Thread running;
+
+    AsyncExecution(AeshCommandRuntime<CI> runtime, String line, java.util.concurrent.Executor executor) {
+        this.runtime = runtime;
+        this.line = line;
+        this.executor = executor;
+    }
+
+    /**
+     * @return the result of the command line, cancelling it cancels the execution
+     */
+    CompletableFuture<CommandResult> start() {
+        CompletableFuture<CommandResult> copy = new CompletableFuture<CommandResult>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                if (cancelled)
+                    AsyncExecution.this.cancel();
+                return cancelled;
+            }
+        };
+        future.whenComplete((r, t) -> {
+            if (t != null)
+                copy.completeExceptionally(t);
+            else
+                copy.complete(r);
+        });
+        submit(this::build);
+        return copy;
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    private void build() {
+        if (!begin())
+            return;
+        try {
+            commandExecutor = runtime.buildExecutorOrNotify(line);
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            return;
+        } finally {
+            end();
+        }
+        next();
+    }
+
+    private void next() {
+        if (future.isDone())
+            return;
+        Execution<CI> execution = commandExecutor.getNextExecution();
+        if (execution == null)
+            future.complete(result != null ? result : CommandResult.FAILURE);
+        else
+            submit(() -> run(execution));
+    }
+
+    private void run(Execution<CI> execution) {
+        if (!begin())
+            return;
+        try {
+            result = runtime.execute(execution);
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            return;
+        } finally {
+            end();
+        }
+        next();
+    }
+
+    private synchronized boolean begin() {
+        if (future.isDone())
+            return false;
+        running = Thread.currentThread();
+        return true;
+    }
+
+    private void end() {
+        synchronized (this) {
+            running = null;
+        }
+        //an interrupt from cancel should not be seen by the next task of this thread
+        if (future.isCancelled())
+            Thread.interrupted();
+    }
+
+    private void cancel() {
+        if (future.cancel(true)) {
+            synchronized (this) {
+                if (running != null)
+                    running.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2017 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.aesh.command.container.CommandContainer;
+import org.aesh.command.impl.container.AeshCommandContainer;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.parser.CommandLineParserException;
+
+/**
+ * Hands out a command container for every execution, so the same command can be
+ * executed by several threads at the same time.
+ *
+ * The registered container is used when it is free, which is always the case when commands
+ * are executed by one thread. If it is busy a pooled copy with its own command instance and
+ * parse state is used instead. At most {@link #MAX_IDLE} copies of a command are kept when they
+ * are given back, more are dropped. Commands that aesh can not create again (registered as instances)
+ * share the registered container, like before, so they are not thread-safe.
+ *
+ * @author Aesh team
+ */
+final class CommandContainerPool<CI extends CommandInvocation> {
+
+    private static final Logger LOGGER = Logger.getLogger(CommandContainerPool.class.getName());
+
+    static final int MAX_IDLE = 16;
+
+    private final Map<CommandContainer<CI>, Entry<CI>> entries = new ConcurrentHashMap<>();
+    //called on every new container before it is used
+    private final Consumer<CommandContainer<CI>> initializer;
+
+    CommandContainerPool(Consumer<CommandContainer<CI>> initializer) {
+        this.initializer = initializer;
+    }
+
+    /**
+     * @return true if the command can be executed by several threads at the same time
+     */
+    static boolean canCreateNewContainer(CommandContainer<?> container) {
+        return container instanceof AeshCommandContainer &&
+                ((AeshCommandContainer<?>) container).canCreateNewContainer();
+    }
+
+    /**
+     * @param registered the container found in the registry
+     * @return the container that should be used to execute the command, must be given back
+     *         with {@link #release(CommandContainer, CommandContainer)}
+     */
+    CommandContainer<CI> acquire(CommandContainer<CI> registered) {
+        if (!canCreateNewContainer(registered))
+            return registered;
+        Entry<CI> entry = entries.computeIfAbsent(registered, c -> new Entry<>());
+        if (entry.users.compareAndSet(0, 1))
+            return registered;
+        CommandContainer<CI> container = entry.idle.poll();
+        if (container != null)
+            return container;
+        try {
+            container = ((AeshCommandContainer<CI>) registered).newContainer();
+            initializer.accept(container);
+            return container;
+        } catch (CommandLineParserException | RuntimeException e) {
+            //only reported once per command, the executions are no longer isolated from each other
+            if (entry.sharing.compareAndSet(false, true))
+                LOGGER.log(Level.WARNING, "Could not create another container for "
+                        + registered.getParser().getProcessedCommand().name() + ", concurrent executions share it", e);
+            entry.users.incrementAndGet();
+            return registered;
+        }
+    }
+
+    void release(CommandContainer<CI> registered, CommandContainer<CI> container) {
+        Entry<CI> entry = entries.get(registered);
+        if (entry == null)
+            return;
+        if (container == registered)
+            entry.users.decrementAndGet();
+        else
+            //dropped when enough copies are idle
+            entry.idle.offer(container);
+    }
+
+    /**
+     * Drop all pooled copies, eg when commands are removed from the registry
+     */
+    void clear() {
+        entries.clear();
+    }
+
+    private static final class Entry<CI extends CommandInvocation> {
+        //executions using the registered container
+        private final AtomicInteger users = new AtomicInteger();
+        private final AtomicBoolean sharing = new AtomicBoolean();
+        private final Queue<CommandContainer<CI>> idle = new ArrayBlockingQueue<>(MAX_IDLE);
+    }
+}
@@ -40,6 +40,7 @@ import org.aesh.command.impl.internal.ParsedCommand;
 import org.aesh.command.impl.internal.ProcessedCommand;
 import org.aesh.command.impl.internal.ProcessedOption;
 import org.aesh.command.impl.operator.AndOperator;
+import org.aesh.command.impl.operator.BackgroundOperator;
 import org.aesh.command.impl.operator.ConfigurationOperator;
 import org.aesh.command.impl.operator.DataProvider;
 import org.aesh.command.impl.operator.EndOperator;
@@ -79,18 +80,29 @@ class Executions {
         private ProcessedCommand<Command<T>, T> cmd;
         private final CommandInvocationConfiguration invocationConfiguration;
         private final AeshCommandRuntime<T> runtime;
-        private final CommandContainer<T> commandContainer;
-        private CommandResult result;
+        //the container found in the registry, and the one used for this execution
+        private final CommandContainer<T> registeredContainer;
+        private CommandContainer<T> commandContainer;
+        private boolean leased;
+        private final ParsedLine line;
+        private final DataProvider dataProvider;
+        //set from the pipe thread when the command is a streaming pipe stage
+        private volatile CommandResult result;
         private boolean populated;
 
         ExecutionImpl(ExecutableOperator<T> executable,
                 AeshCommandRuntime<T> runtime,
                 CommandInvocationConfiguration invocationConfiguration,
-                CommandContainer<T> commandContainer) {
+                CommandContainer<T> commandContainer,
+                ParsedLine line,
+                DataProvider dataProvider) {
             this.executable = executable;
             this.runtime = runtime;
             this.invocationConfiguration = invocationConfiguration;
+            this.registeredContainer = commandContainer;
             this.commandContainer = commandContainer;
+            this.line = line;
+            this.dataProvider = dataProvider;
             this.cmd = commandContainer.getParser().getProcessedCommand();
         }
 
@@ -118,6 +130,12 @@ class Executions {
         @Override
         public void populateCommand() throws CommandLineParserException, OptionValidatorException {
             if (!populated) {
+                //the parse state is stored in the container, get one that no other thread is using
+                if (!leased) {
+                    commandContainer = runtime.acquireCommandContainer(registeredContainer);
+                    leased = true;
+                }
+                commandContainer.addLine(line);
                 // Get command context for inherited option injection
                 CommandContext cmdContext = getCommandInvocation().getCommandContext();
                 cmd = commandContainer.parseAndPopulate(runtime.invocationProviders(), runtime.getAeshContext(), cmdContext);
@@ -133,6 +151,62 @@ class Executions {
         @Override
         public CommandResult execute() throws CommandException, InterruptedException, CommandValidatorException,
                 CommandLineParserException, OptionValidatorException {
+            if (executable instanceof BackgroundOperator) {
+                //the next command is executed while this command runs as a job
+                result = CommandResult.SUCCESS;
+                ((BackgroundOperator<T>) executable).start(runtime.jobTable(), line.line(), this::executeStage);
+                return result;
+            }
+            if (executable instanceof PipeOperator && ((PipeOperator) executable).isStreaming()) {
+                //the next command reads the output while this command is running,
+                //the pipe operator always continues so the real result is not needed yet
+                result = CommandResult.SUCCESS;
+                ((PipeOperator) executable).startStage(this::executeStage);
+                return result;
+            }
+            return executeStage();
+        }
+
+        private CommandResult executeStage() throws CommandException, InterruptedException, CommandValidatorException,
+                CommandLineParserException, OptionValidatorException {
+            PipeOperator pipe = dataProvider instanceof PipeOperator && ((PipeOperator) dataProvider).isStreaming()
+                    ? (PipeOperator) dataProvider
+                    : null;
+            if (pipe == null)
+                return doExecute();
+
+            CommandResult stageResult;
+            try {
+                stageResult = doExecute();
+            } catch (InterruptedException e) {
+                pipe.awaitStage(true);
+                throw e;
+            } catch (CommandException | CommandValidatorException | CommandLineParserException
+                    | OptionValidatorException | RuntimeException | Error e) {
+                pipe.awaitStage(false);
+                throw e;
+            }
+            //report a failure of the previous command, same as when the pipe is not streaming
+            Throwable failure = pipe.awaitStage(Thread.currentThread().isInterrupted());
+            if (failure != null)
+                rethrow(failure);
+            return stageResult;
+        }
+
+        private CommandResult doExecute() throws CommandException, InterruptedException, CommandValidatorException,
+                CommandLineParserException, OptionValidatorException {
+            try {
+                return runCommand();
+            } finally {
+                if (leased) {
+                    runtime.releaseCommandContainer(registeredContainer, commandContainer);
+                    leased = false;
+                }
+            }
+        }
+
+        private CommandResult runCommand() throws CommandException, InterruptedException, CommandValidatorException,
+                CommandLineParserException, OptionValidatorException {
             //first we need to parse and populate the command line
             populateCommand();
 
@@ -261,6 +335,25 @@ class Executions {
             return result;
         }
 
+        private static void rethrow(Throwable failure) throws CommandException, InterruptedException,
+                CommandValidatorException, CommandLineParserException, OptionValidatorException {
+            if (failure instanceof CommandException)
+                throw (CommandException) failure;
+            if (failure instanceof InterruptedException)
+                throw (InterruptedException) failure;
+            if (failure instanceof CommandValidatorException)
+                throw (CommandValidatorException) failure;
+            if (failure instanceof CommandLineParserException)
+                throw (CommandLineParserException) failure;
+            if (failure instanceof OptionValidatorException)
+                throw (OptionValidatorException) failure;
+            if (failure instanceof Error)
+                throw (Error) failure;
+            if (failure instanceof RuntimeException)
+                throw (RuntimeException) failure;
+            throw new RuntimeException(failure);
+        }
+
         private void updateInjectedArgumentWithPipelinedData(PipelineResource resource) {
             ProcessedOption arg = checkProcessedCommandForResourceArgument();
             if (arg != null)
@@ -274,8 +367,7 @@ class Executions {
         private void updateInjectedArgumentWithRedirectedInData() {
             ProcessedOption arg = checkProcessedCommandForResourceArgument();
             if (arg != null)
-                arg.injectResource(new PipelineResource(invocationConfiguration.getInputRedirection().read()),
-                        cmd.getCommand());
+                arg.injectResource(invocationConfiguration.getInputRedirection().getResource(), cmd.getCommand());
         }
 
         private ProcessedOption checkProcessedCommandForResourceArgument() {
@@ -306,7 +398,9 @@ class Executions {
 
         @Override
         public void clearQueuedLine() {
-            commandContainer.emptyLine();
+            //the line is only queued in the container when the command is populated
+            if (leased)
+                commandContainer.emptyLine();
         }
     }
 
@@ -316,11 +410,17 @@ class Executions {
         NEED_ARGUMENT
     }
 
+    /**
+     * @param resolved containers of the commands in the line found earlier, they are used instead of
+     *        looking up the commands in the registry again. Containers that are looked up are added to it.
+     */
     static <CI extends CommandInvocation> List<Execution<CI>> buildExecution(List<ParsedLine> fullLine,
-            AeshCommandRuntime<CI> runtime)
+            AeshCommandRuntime<CI> runtime, List<CommandContainer<CI>> resolved)
             throws CommandNotFoundException, CommandLineParserException, IOException {
         State state = State.NEED_COMMAND;
+        int commandCount = 0;
         CommandContainer<CI> processedCommand = null;
+        ParsedLine commandLine = null;
         boolean newParsedLine;
         ConfigurationOperator config = null;
         DataProvider dataProvider = null;
@@ -334,7 +434,14 @@ class Executions {
             while (!newParsedLine) {
                 switch (state) {
                     case NEED_COMMAND: {
-                        processedCommand = runtime.findCommandContainer(pl);
+                        if (commandCount < resolved.size()) {
+                            processedCommand = resolved.get(commandCount);
+                        } else {
+                            processedCommand = runtime.findCommandContainer(pl);
+                            resolved.add(processedCommand);
+                        }
+                        commandCount++;
+                        commandLine = pl;
                         state = State.NEED_OPERATOR;
                         break;
                     }
@@ -348,7 +455,8 @@ class Executions {
                     }
                     case NEED_OPERATOR: {
                         OperatorType ot = pl.operator();
-                        Operator op = buildOperator(pl.operator(), runtime.getAeshContext());
+                        Operator op = buildOperator(pl.operator(), runtime.getAeshContext(), runtime.pipeBufferSize(),
+                                runtime.redirectionBufferSize());
                         if (ot.isConfiguration()) {
                             if (config != null) { // input provider prior to an output consumer.
                                 if (config.getConfiguration().getInputRedirection() == null) {
@@ -375,8 +483,13 @@ class Executions {
                                             config.getConfiguration().getOutputRedirection(),
                                             inDelegate == null ? config.getConfiguration().getInputRedirection() : inDelegate,
                                             dataProvider);
+                            //collect the output of a background job, unless it is redirected
+                            if (exec instanceof BackgroundOperator && !invocationConfiguration.hasOutputRedirection())
+                                invocationConfiguration = new CommandInvocationConfiguration(runtime.getAeshContext(),
+                                        ((BackgroundOperator<CI>) exec).getOutput(),
+                                        invocationConfiguration.getInputRedirection(), dataProvider);
                             Execution<CI> execution = new ExecutionImpl<>(exec, runtime,
-                                    invocationConfiguration, processedCommand);
+                                    invocationConfiguration, processedCommand, commandLine, dataProvider);
                             if (exec instanceof DataProvider) {
                                 dataProvider = (DataProvider) exec;
                             } else {
@@ -400,13 +513,47 @@ class Executions {
             invocationConfiguration = config == null
                     ? new CommandInvocationConfiguration(runtime.getAeshContext(), dataProvider)
                     : config.getConfiguration();
-            Execution<CI> execution = new ExecutionImpl<CI>(exec, runtime, invocationConfiguration, processedCommand);
+            Execution<CI> execution = new ExecutionImpl<CI>(exec, runtime, invocationConfiguration, processedCommand,
+                    commandLine, dataProvider);
             executions.add(execution);
         }
+        checkStreamingPipes(executions);
         return executions;
     }
 
+    /**
+     * The commands of a streaming pipeline run at the same time. A command instance that aesh
+     * can not create again can not be used by two of them, so the pipe in front of such a
+     * command that is already running is buffered.
+     */
+    private static <CI extends CommandInvocation> void checkStreamingPipes(List<Execution<CI>> executions) {
+        int running = 0;
+        for (int i = 0; i < executions.size() - 1; i++) {
+            ExecutionImpl<CI> execution = (ExecutionImpl<CI>) executions.get(i);
+            if (!(execution.executable instanceof PipeOperator) ||
+                    !((PipeOperator) execution.executable).isStreaming()) {
+                running = i + 1;
+                continue;
+            }
+            CommandContainer<CI> next = ((ExecutionImpl<CI>) executions.get(i + 1)).registeredContainer;
+            if (CommandContainerPool.canCreateNewContainer(next))
+                continue;
+            for (int j = running; j <= i; j++) {
+                if (((ExecutionImpl<CI>) executions.get(j)).registeredContainer == next) {
+                    ((PipeOperator) execution.executable).disableStreaming();
+                    running = i + 1;
+                    break;
+                }
+            }
+        }
+    }
+
     private static Operator buildOperator(OperatorType op, AeshContext context) {
+        return buildOperator(op, context, 0, 0);
+    }
+
+    private static Operator buildOperator(OperatorType op, AeshContext context, int pipeBufferSize,
+            int redirectionBufferSize) {
         if (op == null) {
             return null;
         }
@@ -416,13 +563,13 @@ class Executions {
                 return new EndOperator();
             }
             case REDIRECT_OUT: {
-                return new OutputRedirectionOperator(context);
+                return new OutputRedirectionOperator(context, false, redirectionBufferSize);
             }
             case APPEND_OUT: {
-                return new OutputRedirectionOperator(context, true);
+                return new OutputRedirectionOperator(context, true, redirectionBufferSize);
             }
             case PIPE: {
-                return new PipeOperator(context);
+                return new PipeOperator(context, pipeBufferSize);
             }
             case REDIRECT_IN: {
                 return new InputRedirectionOperator(context);
@@ -430,6 +577,9 @@ class Executions {
             case AND: {
                 return new AndOperator();
             }
+            case AMP: {
+                return new BackgroundOperator();
+            }
             case OR: {
                 return new OrOperator();
             }
@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2017 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.aesh.command.container.CommandContainer;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.parser.ParsedLine;
+
+/**
+ * Least recently used cache of the parts of a command line that do not change between
+ * executions: the parsed lines and the commands they resolved to in the registry.
+ *
+ * Operators and option values belong to a single execution, they are created again on
+ * every execution. All entries are removed when a command is added to or removed from
+ * the registry, an entry that was built while the registry changed is not added.
+ *
+ * @author Aesh team
+ */
+final class ExecutorCache<CI extends CommandInvocation> {
+
+    private final int maxSize;
+    private final Map<String, CachedLine<CI>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long generation;
+
+    ExecutorCache(int maxSize) {
+        this.maxSize = maxSize;
+        entries = new LinkedHashMap<String, CachedLine<CI>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedLine<CI>> eldest) {
+                return size() > ExecutorCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the cached entry for the line, or null
+     */
+    synchronized CachedLine<CI> get(String line) {
+        CachedLine<CI> entry = entries.get(line);
+        if (entry != null)
+            hits.incrementAndGet();
+        else
+            misses.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * @return the current generation, pass it to {@link #put} when the entry is built
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    synchronized void put(String line, long generation, List<ParsedLine> lines,
+            List<CommandContainer<CI>> containers) {
+        if (generation == this.generation)
+            entries.put(line, new CachedLine<>(lines, containers));
+    }
+
+    synchronized void invalidate() {
+        generation++;
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    long hits() {
+        return hits.get();
+    }
+
+    long misses() {
+        return misses.get();
+    }
+
+    static final class CachedLine<CI extends CommandInvocation> {
+        private final List<ParsedLine> lines;
+        private final List<CommandContainer<CI>> containers;
+
+        private CachedLine(List<ParsedLine> lines, List<CommandContainer<CI>> containers) {
+            this.lines = Collections.unmodifiableList(lines);
+            this.containers = Collections.unmodifiableList(containers);
+        }
+
+        List<ParsedLine> lines() {
+            return lines;
+        }
+
+        /**
+         * @return the registered containers of the commands in the line, in order
+         */
+        List<CommandContainer<CI>> containers() {
+            return containers;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package org.aesh.command.impl.completer;
 
 import java.util.List;
-import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -10,6 +9,7 @@ import org.aesh.command.container.CommandContainer;
 import org.aesh.command.impl.internal.ProcessedCommand;
 import org.aesh.command.impl.internal.ProcessedOption;
 import org.aesh.command.impl.parser.CommandLineParser;
+import org.aesh.command.impl.parser.LazyCommandLineParser;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.registry.CommandRegistry;
 import org.aesh.readline.SuggestionProvider;
@@ -60,10 +60,9 @@ public class CommandSuggestionProvider<CI extends CommandInvocation> implements
     }
 
     private String suggestCommand(String prefix, String originalBuffer) {
-        Set<String> allNames = registry.getAllCommandNames();
         String match = null;
-        for (String name : allNames) {
-            if (name.startsWith(prefix) && !name.equals(prefix)) {
+        for (String name : registry.findCommandNames(prefix)) {
+            if (!name.equals(prefix)) {
                 if (!isCommandActivated(name)) {
                     continue;
                 }
@@ -99,7 +98,7 @@ public class CommandSuggestionProvider<CI extends CommandInvocation> implements
                 List<CommandLineParser<CI>> childParsers = parser.getAllChildParsers();
                 String match = null;
                 for (CommandLineParser<CI> child : childParsers) {
-                    String childName = child.getProcessedCommand().name();
+                    String childName = LazyCommandLineParser.nameOf(child);
                     if (childName.startsWith(rest) && !childName.equals(rest)) {
                         if (match != null) {
                             return null; // ambiguous
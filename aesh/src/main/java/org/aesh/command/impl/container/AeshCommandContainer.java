@@ -22,6 +22,7 @@ package org.aesh.command.impl.container;
 
 import org.aesh.command.Command;
 import org.aesh.command.container.CommandContainer;
+import org.aesh.command.container.CommandContainerBuilder;
 import org.aesh.command.container.DefaultCommandContainer;
 import org.aesh.command.impl.internal.ProcessedCommand;
 import org.aesh.command.impl.parser.AeshCommandLineParser;
@@ -36,6 +37,10 @@ public class AeshCommandContainer<CI extends CommandInvocation> extends DefaultC
 
     private CommandLineParser<CI> parser;
     private String errorMessage;
+    //set when the command was created by aesh, then we can create more instances of it
+    private Class<? extends Command> commandClass;
+    //the builder that created this container from the command class
+    private CommandContainerBuilder<CI> containerBuilder;
 
     public AeshCommandContainer(CommandLineParser<CI> parser) {
         super();
@@ -68,6 +73,43 @@ public class AeshCommandContainer<CI extends CommandInvocation> extends DefaultC
         return errorMessage;
     }
 
+    void setCommandClass(Class<? extends Command> commandClass, CommandContainerBuilder<CI> containerBuilder) {
+        this.commandClass = commandClass;
+        this.containerBuilder = containerBuilder;
+    }
+
+    /**
+     * Set the builder used by {@link #newContainer()}, when this container was created
+     * by a builder that delegates to another builder.
+     */
+    public void setContainerBuilder(CommandContainerBuilder<CI> containerBuilder) {
+        if (commandClass != null)
+            this.containerBuilder = containerBuilder;
+    }
+
+    /**
+     * @return true if {@link #newContainer()} can create a new container for this command
+     */
+    public boolean canCreateNewContainer() {
+        return commandClass != null && errorMessage == null;
+    }
+
+    /**
+     * Create a new container with a new command instance and its own parse state,
+     * used to execute the same command in several threads at the same time.
+     * Only commands registered with their class can be created again, an instance
+     * registered by the user is always shared. The new container is created by the
+     * same builder as this container.
+     *
+     * @return new container or null if the command instance was not created by aesh
+     * @throws CommandLineParserException if the command could not be created
+     */
+    public CommandContainer<CI> newContainer() throws CommandLineParserException {
+        if (!canCreateNewContainer())
+            return null;
+        return containerBuilder.create(commandClass);
+    }
+
     @Override
     public void close() {
 
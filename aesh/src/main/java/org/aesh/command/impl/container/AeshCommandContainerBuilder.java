@@ -33,6 +33,7 @@ import org.aesh.command.GroupCommand;
 import org.aesh.command.GroupCommandDefinition;
 import org.aesh.command.container.CommandContainer;
 import org.aesh.command.container.CommandContainerBuilder;
+import org.aesh.command.impl.internal.FieldAccessors;
 import org.aesh.command.impl.internal.OptionType;
 import org.aesh.command.impl.internal.ProcessedCommand;
 import org.aesh.command.impl.internal.ProcessedCommandBuilder;
@@ -40,6 +41,7 @@ import org.aesh.command.impl.internal.ProcessedOptionBuilder;
 import org.aesh.command.impl.invocation.AeshInvocationProviders;
 import org.aesh.command.impl.parser.AeshCommandLineParser;
 import org.aesh.command.impl.parser.CommandLineParser;
+import org.aesh.command.impl.parser.LazyCommandLineParser;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.invocation.InvocationProviders;
 import org.aesh.command.metadata.CommandMetadataProvider;
@@ -72,18 +74,20 @@ public class AeshCommandContainerBuilder<CI extends CommandInvocation> implement
     @Override
     public CommandContainer<CI> create(Class<? extends Command> command) throws CommandLineParserException {
         CommandMetadataProvider provider = MetadataProviderRegistry.getProvider(command);
-        if (provider != null) {
-            return buildFromProvider(provider, provider.newInstance());
-        }
-        return doGenerateCommandLineParser(ReflectionUtil.newInstance(command));
+        AeshCommandContainer<CI> container = provider != null
+                ? buildFromProvider(provider, provider.newInstance())
+                : doGenerateCommandLineParser(ReflectionUtil.newInstance(command));
+        container.setCommandClass(command, this);
+        return container;
     }
 
     private AeshCommandContainer<CI> buildFromProvider(CommandMetadataProvider provider, Command command)
             throws CommandLineParserException {
         ProcessedCommand<Command<CI>, CI> processedCommand = provider.buildProcessedCommand(command);
+        CommandLineParser<CI> parser = provider.createParser(processedCommand);
 
         AeshCommandContainer<CI> container = new AeshCommandContainer<>(
-                new AeshCommandLineParser<>(processedCommand));
+                parser != null ? parser : new AeshCommandLineParser<>(processedCommand));
 
         if (provider.isGroupCommand()) {
             if (command instanceof GroupCommand) {
@@ -101,7 +105,12 @@ public class AeshCommandContainerBuilder<CI extends CommandInvocation> implement
                 }
             } else {
                 for (Class<? extends Command> groupClazz : provider.groupCommandClasses()) {
-                    container.addChild(create(groupClazz));
+                    LazyCommandLineParser<CI> child = LazyCommandLineParser.of(groupClazz,
+                            () -> create(groupClazz).getParser());
+                    if (child != null)
+                        container.getParser().addChildParser(child);
+                    else
+                        container.addChild(create(groupClazz));
                 }
             }
         }
@@ -128,6 +137,7 @@ public class AeshCommandContainerBuilder<CI extends CommandInvocation> implement
                     .create();
 
             processCommand(processedCommand, clazz);
+            FieldAccessors.bind(processedCommand, clazz);
 
             return new AeshCommandContainer<>(
                     new AeshCommandLineParser<>(processedCommand));
@@ -149,6 +159,7 @@ public class AeshCommandContainerBuilder<CI extends CommandInvocation> implement
                     .create();
 
             processCommand(processedGroupCommand, clazz);
+            FieldAccessors.bind(processedGroupCommand, clazz);
 
             AeshCommandContainer<CI> groupContainer;
 
@@ -170,8 +181,14 @@ public class AeshCommandContainerBuilder<CI extends CommandInvocation> implement
                 }
             } else {
                 for (Class<? extends Command> groupClazz : groupCommand.groupCommands()) {
-                    Command<CI> groupInstance = (Command<CI>) ReflectionUtil.newInstance(groupClazz);
-                    groupContainer.addChild(doGenerateCommandLineParser(groupInstance));
+                    LazyCommandLineParser<CI> child = LazyCommandLineParser.of(groupClazz,
+                            () -> doGenerateCommandLineParser((Command<CI>) ReflectionUtil.newInstance(groupClazz))
+                                    .getParser());
+                    if (child != null)
+                        groupContainer.getParser().addChildParser(child);
+                    else
+                        groupContainer.addChild(doGenerateCommandLineParser(
+                                (Command<CI>) ReflectionUtil.newInstance(groupClazz)));
                 }
             }
 
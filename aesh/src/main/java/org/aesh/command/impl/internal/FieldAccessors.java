@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Creates field setters and resetters for options of commands that are processed at runtime,
+ * so they are injected the same way as commands generated by the annotation processor,
+ * without looking up the field and boxing arguments through {@link Field#set} every time.
+ *
+ * The accessors wrap {@link MethodHandle}s and are created once per field of a command class.
+ *
+ * @author Aesh team
+ */
+public final class FieldAccessors {
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<Map<String, Accessor>> ACCESSORS = new ClassValue<Map<String, Accessor>>() {
+        @Override
+        protected Map<String, Accessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    //marks fields that could not be accessed with a method handle
+    private static final Accessor NONE = new Accessor(null, null, null);
+
+    private FieldAccessors() {
+    }
+
+    /**
+     * Set the field setter and resetter of all options and arguments of the command that
+     * do not have one. Fields that can not be accessed keep using reflection.
+     *
+     * @param command processed command
+     * @param commandClass the class of the command instances that will be injected
+     */
+    public static void bind(ProcessedCommand<?, ?> command, Class<?> commandClass) {
+        for (ProcessedOption option : command.getOptions())
+            bind(option, commandClass);
+        if (command.getArgument() != null)
+            bind(command.getArgument(), commandClass);
+        if (command.getArguments() != null)
+            bind(command.getArguments(), commandClass);
+    }
+
+    private static void bind(ProcessedOption option, Class<?> commandClass) {
+        if (option.getFieldSetter() != null || option.getFieldName() == null)
+            return;
+        Accessor accessor = ACCESSORS.get(commandClass)
+                .computeIfAbsent(option.getFieldName() + ' ' + option.getOptionType(),
+                        key -> create(commandClass, option.getFieldName(), option.getOptionType()));
+        if (accessor != NONE) {
+            option.setFieldSetter(accessor.setter);
+            option.setFieldResetter(accessor.resetter);
+        }
+    }
+
+    private static Accessor create(Class<?> commandClass, String fieldName, OptionType optionType) {
+        Field field = findField(commandClass, fieldName);
+        if (field == null || Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers()))
+            return NONE;
+        MethodHandle handle;
+        try {
+            if (!Modifier.isPublic(field.getModifiers()) || !Modifier.isPublic(field.getDeclaringClass().getModifiers()))
+                field.setAccessible(true);
+            handle = MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return NONE;
+        }
+        return new Accessor(handle, adapter(field.getType(), optionType), resetValue(field.getType(), optionType));
+    }
+
+    private static Field findField(Class<?> clazz, String fieldName) {
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(fieldName);
+            } catch (NoSuchFieldException e) {
+                //try the super class
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Values of list and group options are created as an ArrayList, HashSet or HashMap. Like the
+     * reflection path, fields with a concrete type get a new instance of their own type.
+     */
+    private static Adapter adapter(Class<?> fieldType, OptionType optionType) {
+        boolean concrete = !fieldType.isInterface() && !Modifier.isAbstract(fieldType.getModifiers());
+        if (optionType == OptionType.LIST || optionType == OptionType.ARGUMENTS) {
+            if (concrete)
+                return value -> {
+                    if (fieldType.isInstance(value))
+                        return value;
+                    @SuppressWarnings("unchecked")
+                    Collection<Object> collection = (Collection<Object>) newInstance(fieldType);
+                    collection.addAll((Collection<?>) value);
+                    return collection;
+                };
+            if (Set.class.isAssignableFrom(fieldType))
+                return value -> value instanceof Set ? value : new HashSet<>((Collection<?>) value);
+            if (List.class.isAssignableFrom(fieldType))
+                return value -> value instanceof List ? value : new ArrayList<>((Collection<?>) value);
+        } else if (optionType == OptionType.GROUP && concrete && !fieldType.isAssignableFrom(HashMap.class)) {
+            return value -> {
+                if (fieldType.isInstance(value))
+                    return value;
+                @SuppressWarnings("unchecked")
+                Map<Object, Object> map = (Map<Object, Object>) newInstance(fieldType);
+                map.putAll((Map<?, ?>) value);
+                return map;
+            };
+        }
+        return null;
+    }
+
+    private static Object newInstance(Class<?> type) {
+        try {
+            return type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to create a new instance of " + type.getName(), e);
+        }
+    }
+
+    private static Object resetValue(Class<?> type, OptionType optionType) {
+        if (type == boolean.class)
+            return false;
+        if (type == int.class)
+            return 0;
+        if (type == short.class)
+            return (short) 0;
+        if (type == char.class)
+            return '\u0000';
+        if (type == byte.class)
+            return (byte) 0;
+        if (type == long.class)
+            return 0L;
+        if (type == float.class)
+            return 0.0f;
+        if (type == double.class)
+            return 0.0d;
+        if (type == Boolean.class && optionType == OptionType.BOOLEAN)
+            return Boolean.FALSE;
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface Adapter {
+        Object adapt(Object value);
+    }
+
+    private static final class Accessor {
+        private final BiConsumer<Object, Object> setter;
+        private final Consumer<Object> resetter;
+
+        private Accessor(MethodHandle handle, Adapter adapter, Object resetValue) {
+            if (handle == null) {
+                setter = null;
+                resetter = null;
+                return;
+            }
+            setter = adapter == null ? (instance, value) -> set(handle, instance, value)
+                    : (instance, value) -> set(handle, instance, value != null ? adapter.adapt(value) : null);
+            resetter = instance -> set(handle, instance, resetValue);
+        }
+
+        private static void set(MethodHandle handle, Object instance, Object value) {
+            try {
+                handle.invokeExact(instance, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.internal;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Name index of the options of a {@link ProcessedCommand}.
+ *
+ * Options are identified by their slot, which is their position in the options list of the command.
+ * Short, long and negated names are stored in hash maps, long and negated names are also stored
+ * in a prefix trie used for the startWith and completion lookups.
+ * Every lookup returns the slots in list order, so the first match is the same option a linear
+ * scan of the options would have found. The index is only changed when an option is added,
+ * lookups never modify it.
+ *
+ * @author Aesh team
+ */
+final class OptionIndex {
+
+    static final int[] NO_SLOTS = new int[0];
+
+    private final Map<Character, int[]> shortNames = new HashMap<>();
+    private final Map<String, int[]> longNames = new HashMap<>();
+    private final Map<String, int[]> negatedNames = new HashMap<>();
+    private final Node longNameTrie = new Node();
+    private final Node negatedNameTrie = new Node();
+    private int size;
+
+    /**
+     * Add the option at the next slot, it must be the same as its position in the options list.
+     */
+    void add(ProcessedOption option) {
+        int slot = size++;
+        if (option.shortName() != null)
+            shortNames.put(option.shortName().charAt(0), append(shortNames.get(option.shortName().charAt(0)), slot));
+        if (option.name() != null) {
+            longNames.put(option.name(), append(longNames.get(option.name()), slot));
+            longNameTrie.add(option.name(), slot);
+        }
+        String negatedName = option.getNegatedName();
+        if (option.isNegatable() && negatedName != null) {
+            negatedNames.put(negatedName, append(negatedNames.get(negatedName), slot));
+            negatedNameTrie.add(negatedName, slot);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] shortName(char name) {
+        int[] slots = shortNames.get(name);
+        return slots != null ? slots : NO_SLOTS;
+    }
+
+    int[] longName(String name) {
+        int[] slots = longNames.get(name);
+        return slots != null ? slots : NO_SLOTS;
+    }
+
+    int[] negatedName(String name) {
+        int[] slots = negatedNames.get(name);
+        return slots != null ? slots : NO_SLOTS;
+    }
+
+    Node longNames() {
+        return longNameTrie;
+    }
+
+    /**
+     * @return slots of all options where the long name starts with the given prefix
+     */
+    int[] longNamesStartingWith(String prefix) {
+        Node node = longNameTrie.find(prefix);
+        return node != null ? node.subtree : NO_SLOTS;
+    }
+
+    /**
+     * @return slots of all negatable options where the negated name starts with the given prefix
+     */
+    int[] negatedNamesStartingWith(String prefix) {
+        Node node = negatedNameTrie.find(prefix);
+        return node != null ? node.subtree : NO_SLOTS;
+    }
+
+    private static int[] append(int[] slots, int slot) {
+        if (slots == null)
+            return new int[] { slot };
+        int[] copy = Arrays.copyOf(slots, slots.length + 1);
+        copy[slots.length] = slot;
+        return copy;
+    }
+
+    /**
+     * A trie node, the root node is the empty name.
+     */
+    static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        // options with the name ending in this node
+        private int[] slots = NO_SLOTS;
+        // options with a name that starts with the name of this node, sorted
+        private int[] subtree = NO_SLOTS;
+
+        private void add(String name, int slot) {
+            Node node = this;
+            node.subtree = append(node.subtree, slot);
+            for (int i = 0; i < name.length(); i++) {
+                Node next = node.child(name.charAt(i));
+                if (next == null) {
+                    next = new Node();
+                    node.keys = Arrays.copyOf(node.keys, node.keys.length + 1);
+                    node.children = Arrays.copyOf(node.children, node.children.length + 1);
+                    node.keys[node.keys.length - 1] = name.charAt(i);
+                    node.children[node.children.length - 1] = next;
+                }
+                node = next;
+                node.subtree = append(node.subtree, slot);
+            }
+            node.slots = append(node.slots, slot);
+        }
+
+        private Node find(String prefix) {
+            Node node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++)
+                node = node.child(prefix.charAt(i));
+            return node;
+        }
+
+        Node child(char key) {
+            for (int i = 0; i < keys.length; i++)
+                if (keys[i] == key)
+                    return children[i];
+            return null;
+        }
+
+        /**
+         * @return slots of the options where the name ends in this node
+         */
+        int[] slots() {
+            return slots;
+        }
+
+        /**
+         * @return slots of the options where the name starts with the name of this node
+         */
+        int[] subtree() {
+            return subtree;
+        }
+    }
+}
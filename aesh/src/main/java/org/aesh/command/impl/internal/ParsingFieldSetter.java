@@ -0,0 +1,41 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.internal;
+
+import java.util.List;
+
+/**
+ * Parses the string values of an option straight into its field, generated for options
+ * of primitive and number types so they are populated without a converter invocation
+ * and without boxing primitive values.
+ * <p>
+ * Only used when the option has the built-in converter for its type and no validator.
+ *
+ * @author Aesh team
+ */
+@FunctionalInterface
+public interface ParsingFieldSetter {
+
+    /**
+     * @param instance the command instance
+     * @param values the values to parse, the first one for single value options
+     */
+    void set(Object instance, List<String> values);
+}
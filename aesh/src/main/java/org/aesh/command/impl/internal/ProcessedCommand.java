@@ -20,10 +20,15 @@
 package org.aesh.command.impl.internal;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.aesh.command.Command;
+import org.aesh.command.CommandRuntime;
 import org.aesh.command.activator.CommandActivator;
 import org.aesh.command.impl.parser.CompleteStatus;
 import org.aesh.command.impl.populator.AeshCommandPopulator;
@@ -45,6 +50,9 @@ import org.aesh.terminal.utils.Parser;
  */
 public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocation> {
 
+    public static final int DEFAULT_HELP_WIDTH = CommandRuntime.DEFAULT_HELP_WIDTH;
+    private static final int MAX_CACHED_HELP = 16;
+
     private final String name;
     private final String description;
     private final CommandValidator<C, CI> validator;
@@ -64,6 +72,13 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
     private List<CommandLineParserException> parserExceptions;
     private CompleteStatus completeStatus;
 
+    private final OptionIndex index = new OptionIndex();
+    private final ParsedCommand parsedCommand = new ParsedCommand(this);
+    private int activationGeneration = 1;
+    private int[] activationStamps = new int[0];
+    private boolean[] activations = new boolean[0];
+    private final Map<HelpKey, String> helpCache = new ConcurrentHashMap<>();
+
     public ProcessedCommand(String name, List<String> aliases, C command,
             String description, CommandValidator<C, CI> validator,
             ResultHandler resultHandler,
@@ -130,16 +145,33 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
         return activator == null || activator.isActivated(parsedCommand);
     }
 
+    /**
+     * Same as {@link #isActivated(ParsedCommand)} with a ParsedCommand of this command
+     */
+    public boolean isActivated() {
+        return activator == null || activator.isActivated(parsedCommand);
+    }
+
     public List<String> getAliases() {
         return aliases;
     }
 
     public void addOption(ProcessedOption opt) throws OptionParserException {
         verifyThatNamesAreUnique(opt.shortName(), opt.name());
-        this.options.add(opt);
+        indexOption(opt);
         opt.setParent(this);
     }
 
+    private void indexOption(ProcessedOption opt) {
+        options.add(opt);
+        invalidateHelp();
+        index.add(opt);
+        if (activationStamps.length < options.size()) {
+            activationStamps = Arrays.copyOf(activationStamps, Math.max(4, options.size() * 2));
+            activations = Arrays.copyOf(activations, activationStamps.length);
+        }
+    }
+
     private void setOptions(List<ProcessedOption> options) throws OptionParserException {
         for (ProcessedOption opt : options) {
             addOption(opt);
@@ -173,6 +205,7 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
     public void setArguments(ProcessedOption arguments) {
         this.arguments = arguments;
         this.arguments.setParent(this);
+        invalidateHelp();
     }
 
     public CommandPopulator<Object, CI> getCommandPopulator() {
@@ -231,19 +264,24 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
     }
 
     public ProcessedOption findOption(String name) {
-        for (ProcessedOption option : getOptions())
-            if (option.shortName() != null &&
-                    option.shortName().equals(name) &&
-                    option.isActivated(new ParsedCommand(this)))
-                return option;
-
+        if (name.length() == 1)
+            return findShortOption(name.charAt(0), true);
         return null;
     }
 
     public ProcessedOption findOptionNoActivatorCheck(String name) {
-        for (ProcessedOption option : getOptions())
-            if (option.shortName() != null &&
-                    option.shortName().equals(name))
+        if (name.length() == 1)
+            return findShortOption(name.charAt(0), false);
+        return null;
+    }
+
+    private ProcessedOption findShortOption(char name, boolean activatorCheck) {
+        for (int slot : index.shortName(name))
+            if (!activatorCheck || isActivated(slot))
+                return options.get(slot);
+        for (ProcessedOption option : dynamicOptions())
+            if (option.shortName() != null && option.shortName().charAt(0) == name &&
+                    (!activatorCheck || isActivated(option)))
                 return option;
 
         return null;
@@ -274,9 +312,8 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
 
             return currentOption;
         } else if (input.startsWith("-")) {
-            ProcessedOption currentOption = findOption(input.substring(1));
-            if (currentOption == null)
-                currentOption = startWithOption(input.substring(1));
+            //same as findOption followed by startWithOption, without creating the substring
+            ProcessedOption currentOption = input.length() > 1 ? findShortOption(input.charAt(1), true) : null;
 
             if (currentOption != null)
                 currentOption.setLongNameUsed(false);
@@ -296,18 +333,20 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
     }
 
     public ProcessedOption findLongOption(String name) {
-        for (ProcessedOption option : getOptions())
-            if (option.name() != null &&
-                    option.name().equals(name) &&
-                    option.isActivated(new ParsedCommand(this)))
-                return option;
-
-        return null;
+        return findLongOption(name, true);
     }
 
     public ProcessedOption findLongOptionNoActivatorCheck(String name) {
-        for (ProcessedOption option : getOptions())
-            if (option.name() != null && option.name().equals(name))
+        return findLongOption(name, false);
+    }
+
+    private ProcessedOption findLongOption(String name, boolean activatorCheck) {
+        for (int slot : index.longName(name))
+            if (!activatorCheck || isActivated(slot))
+                return options.get(slot);
+        for (ProcessedOption option : dynamicOptions())
+            if (option.name() != null && option.name().equals(name) &&
+                    (!activatorCheck || isActivated(option)))
                 return option;
 
         return null;
@@ -321,15 +360,7 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
      * @return the matching option, or null if not found
      */
     public ProcessedOption findNegatedOption(String name) {
-        for (ProcessedOption option : getOptions()) {
-            if (option.isNegatable() && option.getNegatedName() != null &&
-                    option.getNegatedName().equals(name) &&
-                    option.isActivated(new ParsedCommand(this))) {
-                option.setNegatedByUser(true);
-                return option;
-            }
-        }
-        return null;
+        return findNegatedOption(name, true);
     }
 
     /**
@@ -339,18 +370,37 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
      * @return the matching option, or null if not found
      */
     public ProcessedOption findNegatedOptionNoActivatorCheck(String name) {
-        for (ProcessedOption option : getOptions()) {
-            if (option.isNegatable() && option.getNegatedName() != null &&
-                    option.getNegatedName().equals(name)) {
-                option.setNegatedByUser(true);
-                return option;
+        return findNegatedOption(name, false);
+    }
+
+    private ProcessedOption findNegatedOption(String name, boolean activatorCheck) {
+        ProcessedOption negated = null;
+        for (int slot : index.negatedName(name)) {
+            if (!activatorCheck || isActivated(slot)) {
+                negated = options.get(slot);
+                break;
             }
         }
-        return null;
+        if (negated == null) {
+            for (ProcessedOption option : dynamicOptions()) {
+                if (option.isNegatable() && option.getNegatedName() != null &&
+                        option.getNegatedName().equals(name) &&
+                        (!activatorCheck || isActivated(option))) {
+                    negated = option;
+                    break;
+                }
+            }
+        }
+        if (negated != null)
+            negated.setNegatedByUser(true);
+        return negated;
     }
 
     public ProcessedOption findBareLongOption(String name) {
-        for (ProcessedOption option : getOptions())
+        for (int slot : index.longName(name))
+            if (options.get(slot).acceptNameWithoutDashes())
+                return options.get(slot);
+        for (ProcessedOption option : dynamicOptions())
             if (option.name() != null && option.name().equals(name) && option.acceptNameWithoutDashes())
                 return option;
 
@@ -358,9 +408,12 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
     }
 
     public List<TerminalString> findPossibleBareLongNamesWithDash(String name) {
-        List<ProcessedOption> opts = getOptions();
-        List<TerminalString> names = new ArrayList<>(opts.size());
-        for (ProcessedOption o : opts) {
+        List<TerminalString> names = new ArrayList<>();
+        for (int slot : index.longNamesStartingWith(name)) {
+            if (options.get(slot).acceptNameWithoutDashes())
+                names.add(options.get(slot).getRenderedNameWithDashes());
+        }
+        for (ProcessedOption o : dynamicOptions()) {
             if (o.name() != null && o.name().startsWith(name) && o.acceptNameWithoutDashes()) {
                 names.add(o.getRenderedNameWithDashes());
             }
@@ -369,26 +422,45 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
     }
 
     public ProcessedOption startWithOption(String name) {
-        for (ProcessedOption option : getOptions())
-            if (option.shortName() != null && name.startsWith(option.shortName()) &&
-                    option.isActivated(new ParsedCommand(this)))
-                return option;
-
+        if (name.length() > 0)
+            return findShortOption(name.charAt(0), true);
         return null;
     }
 
+    /**
+     * @return the first activated option, in option order, where name starts with the option name
+     */
     public ProcessedOption startWithLongOption(String name) {
-        for (ProcessedOption option : getOptions())
-            if (name.startsWith(option.name()) &&
-                    option.isActivated(new ParsedCommand(this)))
+        int first = Integer.MAX_VALUE;
+        OptionIndex.Node node = index.longNames();
+        for (int i = 0; node != null; i++) {
+            for (int slot : node.slots()) {
+                if (slot < first && isActivated(slot))
+                    first = slot;
+            }
+            node = i < name.length() ? node.child(name.charAt(i)) : null;
+        }
+        if (first < Integer.MAX_VALUE)
+            return options.get(first);
+        for (ProcessedOption option : dynamicOptions())
+            if (name.startsWith(option.name()) && isActivated(option))
                 return option;
 
         return null;
     }
 
+    /**
+     * @return the option with the longest name that name starts with
+     */
     public ProcessedOption startWithLongOptionNoActivatorCheck(String name) {
         ProcessedOption longestMatch = null;
-        for (ProcessedOption option : getOptions()) {
+        OptionIndex.Node node = index.longNames();
+        for (int i = 0; node != null; i++) {
+            if (node.slots().length > 0)
+                longestMatch = options.get(node.slots()[0]);
+            node = i < name.length() ? node.child(name.charAt(i)) : null;
+        }
+        for (ProcessedOption option : dynamicOptions()) {
             if (name.startsWith(option.name())) {
                 if (longestMatch == null) {
                     longestMatch = option;
@@ -400,6 +472,42 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
         return longestMatch;
     }
 
+    /**
+     * Options that are not known when the command is created, they are not indexed and
+     * are searched after the indexed options.
+     *
+     * @return options that are not part of {@link #getOptions()} of this class
+     */
+    protected List<ProcessedOption> dynamicOptions() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Activators are only evaluated once per parse, the result is cached until the
+     * command is cleared or an option value is changed.
+     */
+    private boolean isActivated(int slot) {
+        ProcessedOption option = options.get(slot);
+        if (option.activator() == null)
+            return true;
+        if (activationStamps[slot] != activationGeneration) {
+            activations[slot] = option.isActivated(parsedCommand);
+            activationStamps[slot] = activationGeneration;
+        }
+        return activations[slot];
+    }
+
+    private boolean isActivated(ProcessedOption option) {
+        return option.isActivated(parsedCommand);
+    }
+
+    /**
+     * Called when the value of an option is changed, activators might depend on it
+     */
+    void invalidateActivations() {
+        activationGeneration++;
+    }
+
     public void clear() {
         clearOptions();
         if (arguments != null)
@@ -412,6 +520,7 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
         else
             parserExceptions = Collections.emptyList();
         completeStatus = null;
+        invalidateActivations();
     }
 
     protected void clearOptions() {
@@ -437,7 +546,7 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
                         .fieldName("generatedHelp")
                         .build();
 
-                options.add(helpOption);
+                indexOption(helpOption);
             } catch (OptionParserException e) {
                 throw new RuntimeException("Failed to generate help option", e);
             }
@@ -466,7 +575,7 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
                         .fieldName("generatedVersion")
                         .build();
 
-                options.add(versionOption);
+                indexOption(versionOption);
             } catch (OptionParserException e) {
                 throw new RuntimeException("Failed to generate version option", e);
             }
@@ -483,63 +592,91 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
      * and is enabled. For negatable options, also includes the negated form.
      */
     public List<TerminalString> getOptionLongNamesWithDash() {
-        List<ProcessedOption> opts = getOptions();
-        List<TerminalString> names = new ArrayList<>(opts.size());
-        for (ProcessedOption o : opts) {
-            if (o.getValues().size() == 0 &&
-                    o.isActivated(new ParsedCommand(this))) {
-                names.add(o.getRenderedNameWithDashes());
-                // Also add the negated form for negatable options
-                TerminalString negated = o.getRenderedNegatedNameWithDashes();
-                if (negated != null) {
-                    names.add(negated);
-                }
-            }
+        List<TerminalString> names = new ArrayList<>(options.size());
+        for (int slot = 0; slot < options.size(); slot++) {
+            ProcessedOption o = options.get(slot);
+            if (o.getValues().size() == 0 && isActivated(slot))
+                addRenderedNames(o, names);
+        }
+        for (ProcessedOption o : dynamicOptions()) {
+            if (o.getValues().size() == 0 && isActivated(o))
+                addRenderedNames(o, names);
         }
 
         return names;
     }
 
-    public List<TerminalString> findPossibleLongNamesWithDash(String name) {
-        List<ProcessedOption> opts = getOptions();
-        List<TerminalString> names = new ArrayList<>(opts.size());
-        for (ProcessedOption o : opts) {
-            if (((o.shortName() != null && o.shortName().equals(name) &&
-                    !o.isLongNameUsed() && o.getValues().size() == 0) ||
-                    (o.name().startsWith(name) && o.getValues().size() == 0)) &&
-                    o.isActivated(new ParsedCommand(this)))
-                names.add(o.getRenderedNameWithDashes());
-            // Also check negated option names for negatable options
-            if (o.isNegatable() && o.getNegatedName() != null &&
-                    o.getNegatedName().startsWith(name) && o.getValues().size() == 0 &&
-                    o.isActivated(new ParsedCommand(this))) {
-                TerminalString negated = o.getRenderedNegatedNameWithDashes();
-                if (negated != null) {
-                    names.add(negated);
-                }
-            }
+    private void addRenderedNames(ProcessedOption o, List<TerminalString> names) {
+        names.add(o.getRenderedNameWithDashes());
+        // Also add the negated form for negatable options
+        TerminalString negated = o.getRenderedNegatedNameWithDashes();
+        if (negated != null) {
+            names.add(negated);
         }
+    }
+
+    public List<TerminalString> findPossibleLongNamesWithDash(String name) {
+        List<TerminalString> names = new ArrayList<>();
+        findPossibleLongNames(name, names, null);
         return names;
     }
 
     public List<String> findPossibleLongNames(String name) {
         if (name.startsWith("--"))
             name = name.substring(2);
-        List<ProcessedOption> opts = getOptions();
-        List<String> names = new ArrayList<>(opts.size());
-        for (ProcessedOption o : opts) {
-            if (((o.shortName() != null && o.shortName().equals(name) &&
-                    !o.isLongNameUsed() && o.getValues().size() == 0) ||
-                    (o.name().startsWith(name) && o.getValues().size() == 0)) &&
-                    o.isActivated(new ParsedCommand(this)))
+        List<String> names = new ArrayList<>();
+        findPossibleLongNames(name, null, names);
+        return names;
+    }
+
+    /**
+     * Only the options found in the index for name are checked, they are visited in
+     * option order so the names are added in the same order as a scan of all options would.
+     */
+    private void findPossibleLongNames(String name, List<TerminalString> rendered, List<String> names) {
+        int[] longNames = index.longNamesStartingWith(name);
+        int[] negatedNames = index.negatedNamesStartingWith(name);
+        int[] shortNames = name.length() == 1 ? index.shortName(name.charAt(0)) : OptionIndex.NO_SLOTS;
+        int l = 0, n = 0, s = 0;
+        while (l < longNames.length || n < negatedNames.length || s < shortNames.length) {
+            int slot = Math.min(l < longNames.length ? longNames[l] : Integer.MAX_VALUE,
+                    Math.min(n < negatedNames.length ? negatedNames[n] : Integer.MAX_VALUE,
+                            s < shortNames.length ? shortNames[s] : Integer.MAX_VALUE));
+            if (l < longNames.length && longNames[l] == slot)
+                l++;
+            if (n < negatedNames.length && negatedNames[n] == slot)
+                n++;
+            if (s < shortNames.length && shortNames[s] == slot)
+                s++;
+            addPossibleLongNames(options.get(slot), name, slot, rendered, names);
+        }
+        for (ProcessedOption o : dynamicOptions())
+            addPossibleLongNames(o, name, -1, rendered, names);
+    }
+
+    private void addPossibleLongNames(ProcessedOption o, String name, int slot,
+            List<TerminalString> rendered, List<String> names) {
+        if (((o.shortName() != null && o.shortName().equals(name) &&
+                !o.isLongNameUsed() && o.getValues().size() == 0) ||
+                (o.name() != null && o.name().startsWith(name) && o.getValues().size() == 0)) &&
+                (slot > -1 ? isActivated(slot) : isActivated(o))) {
+            if (rendered != null)
+                rendered.add(o.getRenderedNameWithDashes());
+            else
                 names.add(o.name());
-            // Also check negated option names for negatable options
-            if (o.isNegatable() && o.getNegatedName() != null &&
-                    o.getNegatedName().startsWith(name) && o.getValues().size() == 0 &&
-                    o.isActivated(new ParsedCommand(this)))
+        }
+        // Also check negated option names for negatable options
+        if (o.isNegatable() && o.getNegatedName() != null &&
+                o.getNegatedName().startsWith(name) && o.getValues().size() == 0 &&
+                (slot > -1 ? isActivated(slot) : isActivated(o))) {
+            if (rendered != null) {
+                TerminalString negated = o.getRenderedNegatedNameWithDashes();
+                if (negated != null) {
+                    rendered.add(negated);
+                }
+            } else
                 names.add(o.getNegatedName());
         }
-        return names;
     }
 
     /**
@@ -587,8 +724,49 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
      * @param supportsHyperlinks whether the terminal supports OSC 8 hyperlinks
      */
     public String printHelp(String commandName, boolean supportsHyperlinks) {
+        return printHelp(commandName, DEFAULT_HELP_WIDTH, supportsHyperlinks);
+    }
+
+    /**
+     * Returns a description String formatted for the given terminal width.
+     * The text only depends on the command definition, it is rendered once per command name,
+     * width and hyperlink support and cached until the options of the command are changed.
+     *
+     * @param commandName the command name to display
+     * @param width the terminal width, option descriptions are wrapped to fit it
+     * @param supportsHyperlinks whether the terminal supports OSC 8 hyperlinks
+     */
+    public String printHelp(String commandName, int width, boolean supportsHyperlinks) {
+        if (!isHelpCacheable())
+            return renderHelp(commandName, width, supportsHyperlinks);
+        HelpKey key = new HelpKey(commandName, width, supportsHyperlinks);
+        String help = helpCache.get(key);
+        if (help == null) {
+            //terminals are not resized that often, keep it simple and start over
+            if (helpCache.size() >= MAX_CACHED_HELP)
+                helpCache.clear();
+            help = renderHelp(commandName, width, supportsHyperlinks);
+            helpCache.put(key, help);
+        }
+        return help;
+    }
+
+    /**
+     * Drop the cached help text, must be called when anything that is part of it is changed
+     */
+    public void invalidateHelp() {
+        helpCache.clear();
+    }
+
+    /**
+     * @return false if the options can change between invocations, the help is then rendered every time
+     */
+    protected boolean isHelpCacheable() {
+        return true;
+    }
+
+    private String renderHelp(String commandName, int width, boolean supportsHyperlinks) {
         int maxLength = 0;
-        int width = 80;
         List<ProcessedOption> opts = getOptions();
         for (ProcessedOption o : opts) {
             if (o.getFormattedLength() > maxLength)
@@ -650,6 +828,34 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
         return sb.toString();
     }
 
+    private static final class HelpKey {
+        private final String commandName;
+        private final int width;
+        private final boolean supportsHyperlinks;
+
+        HelpKey(String commandName, int width, boolean supportsHyperlinks) {
+            this.commandName = commandName;
+            this.width = width;
+            this.supportsHyperlinks = supportsHyperlinks;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof HelpKey))
+                return false;
+            HelpKey that = (HelpKey) o;
+            return width == that.width && supportsHyperlinks == that.supportsHyperlinks
+                    && Objects.equals(commandName, that.commandName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(commandName, width, supportsHyperlinks);
+        }
+    }
+
     @Override
     public String toString() {
         return "ProcessedCommand{" +
@@ -697,7 +903,9 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
     }
 
     public boolean hasLongOption(String optionName) {
-        for (ProcessedOption o : getOptions()) {
+        if (index.longName(optionName).length > 0)
+            return true;
+        for (ProcessedOption o : dynamicOptions()) {
             if (o.name().equals(optionName))
                 return true;
         }
@@ -713,7 +921,11 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
     //not start with another option name
     public boolean hasUniqueLongOption(String optionName) {
         if (hasLongOption(optionName)) {
-            for (ProcessedOption o : getOptions()) {
+            for (int slot : index.longNamesStartingWith(optionName)) {
+                if (!options.get(slot).name().equals(optionName))
+                    return false;
+            }
+            for (ProcessedOption o : dynamicOptions()) {
                 if (o.name().startsWith(optionName) && !o.name().equals(optionName))
                     return false;
             }
@@ -732,6 +944,7 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
         }
         if (activator != null)
             activator = invocationProviders.getCommandActivatorProvider().enhanceCommandActivator(activator);
+        invalidateActivations();
     }
 
     protected void updateOptionsInvocationProviders(InvocationProviders invocationProviders) {
@@ -776,6 +989,7 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
     public void setArgument(ProcessedOption arg) {
         this.argument = arg;
         this.argument.setParent(this);
+        invalidateHelp();
     }
 
     public ProcessedOption getArgument() {
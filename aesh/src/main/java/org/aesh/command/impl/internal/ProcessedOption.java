@@ -26,6 +26,7 @@ import java.lang.reflect.Modifier;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -47,11 +48,13 @@ import org.aesh.command.renderer.OptionRenderer;
 import org.aesh.command.validator.OptionValidator;
 import org.aesh.command.validator.OptionValidatorException;
 import org.aesh.console.AeshContext;
+import org.aesh.converter.CLConverterManager;
 import org.aesh.io.PipelineResource;
 import org.aesh.io.Resource;
 import org.aesh.selector.SelectorType;
 import org.aesh.terminal.formatting.TerminalString;
 import org.aesh.terminal.utils.ANSI;
+import org.aesh.terminal.utils.Config;
 import org.aesh.util.PropertiesLookup;
 
 /**
@@ -59,6 +62,9 @@ import org.aesh.util.PropertiesLookup;
  */
 public final class ProcessedOption {
 
+    private static final int MIN_DESCRIPTION_WIDTH = 20;
+    private static final List<String> NEGATED_VALUE = Collections.singletonList("false");
+
     private String shortName;
     private String name;
 
@@ -97,6 +103,7 @@ public final class ProcessedOption {
     private boolean isUrl = false;
     private BiConsumer<Object, Object> fieldSetter;
     private Consumer<Object> fieldResetter;
+    private ParsingFieldSetter parsingSetter;
 
     public ProcessedOption(char shortName, String name, String description,
             String argument, boolean required, char valueSeparator, boolean askIfNotSet, boolean acceptNameWithoutDashes,
@@ -186,6 +193,14 @@ public final class ProcessedOption {
         this.fieldResetter = fieldResetter;
     }
 
+    public void setParsingSetter(ParsingFieldSetter parsingSetter) {
+        this.parsingSetter = parsingSetter;
+    }
+
+    public ParsingFieldSetter getParsingSetter() {
+        return parsingSetter;
+    }
+
     public BiConsumer<Object, Object> getFieldSetter() {
         return fieldSetter;
     }
@@ -244,12 +259,20 @@ public final class ProcessedOption {
         if (values.isEmpty() && !(values instanceof ArrayList))
             values = new ArrayList<>();
         values.add(value);
+        valuesChanged();
     }
 
     public void addValues(List<String> values) {
         if (this.values.isEmpty() && !(this.values instanceof ArrayList))
             this.values = new ArrayList<>();
         this.values.addAll(values);
+        valuesChanged();
+    }
+
+    //option activators can depend on the values of other options
+    private void valuesChanged() {
+        if (parent != null)
+            parent.invalidateActivations();
     }
 
     public String getValue() {
@@ -544,7 +567,6 @@ public final class ProcessedOption {
         return sb.length();
     }
 
-    //TODO: add offset, offset for descriptionstart and break on width
     public String getFormattedOption(int offset, int descriptionStart, int width) {
         return getFormattedOption(offset, descriptionStart, width, false);
     }
@@ -582,13 +604,38 @@ public final class ProcessedOption {
             if (supportsHyperlinks && descriptionUrl != null && descriptionUrl.length() > 0) {
                 sb.append(ANSI.hyperlink(descriptionUrl, description));
             } else {
-                sb.append(description);
+                appendDescription(sb, Math.max(descriptionStart, offset + getFormattedLength() + 1), descriptionStart,
+                        width);
             }
         }
 
         return sb.toString();
     }
 
+    /**
+     * Wrap the description on word boundaries if it does not fit within the width,
+     * continuation lines are aligned with the description start.
+     */
+    private void appendDescription(StringBuilder sb, int column, int descriptionStart, int width) {
+        if (column + description.length() <= width || width - descriptionStart < MIN_DESCRIPTION_WIDTH) {
+            sb.append(description);
+            return;
+        }
+        boolean first = true;
+        for (String word : description.split(" ")) {
+            if (!first && column + 1 + word.length() > width) {
+                sb.append(Config.getLineSeparator()).append(String.format("%" + descriptionStart + "s", ""));
+                column = descriptionStart;
+            } else if (!first) {
+                sb.append(' ');
+                column++;
+            }
+            sb.append(word);
+            column += word.length();
+            first = false;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public Object doConvert(String inputValue, InvocationProviders invocationProviders,
             Object command, AeshContext aeshContext, boolean doValidation) throws OptionValidatorException {
@@ -608,13 +655,37 @@ public final class ProcessedOption {
             boolean doValidation) throws OptionValidatorException {
         if (converter == null || instance == null)
             return;
-        if (fieldSetter != null) {
+        if (canParseIntoField()) {
+            injectParsedValues(instance);
+        } else if (fieldSetter != null) {
             injectValueWithSetter(instance, invocationProviders, aeshContext, doValidation);
         } else {
             injectValueWithReflection(instance, invocationProviders, aeshContext, doValidation);
         }
     }
 
+    /**
+     * The parsing setter does the same as the built-in converters, it can not be used
+     * if the converter is replaced or the converted value must be validated.
+     */
+    private boolean canParseIntoField() {
+        return parsingSetter != null && validator == null
+                && CLConverterManager.getInstance().isDefaultConverter(converter);
+    }
+
+    private void injectParsedValues(Object instance) {
+        if (optionType == OptionType.NORMAL || optionType == OptionType.BOOLEAN || optionType == OptionType.ARGUMENT) {
+            if (negatedByUser && optionType == OptionType.BOOLEAN)
+                parsingSetter.set(instance, NEGATED_VALUE);
+            else if (!values.isEmpty())
+                parsingSetter.set(instance, values);
+            else if (!defaultValues.isEmpty())
+                parsingSetter.set(instance, defaultValues);
+        } else if (optionType == OptionType.LIST || optionType == OptionType.ARGUMENTS) {
+            parsingSetter.set(instance, values.isEmpty() ? defaultValues : values);
+        }
+    }
+
     private void injectValueWithSetter(Object instance, InvocationProviders invocationProviders, AeshContext aeshContext,
             boolean doValidation) throws OptionValidatorException {
         if (optionType == OptionType.NORMAL || optionType == OptionType.BOOLEAN || optionType == OptionType.ARGUMENT) {
@@ -744,6 +815,8 @@ public final class ProcessedOption {
 
     public void updateAnsiMode(boolean ansiMode) {
         this.ansiMode = ansiMode;
+        if (parent != null)
+            parent.invalidateHelp();
     }
 
     private <S, T> Map<S, T> newHashMap() {
@@ -79,6 +79,7 @@ public class ProcessedOptionBuilder {
     private boolean isUrl = false;
     private BiConsumer<Object, Object> fieldSetter;
     private Consumer<Object> fieldResetter;
+    private ParsingFieldSetter parsingSetter;
 
     private ProcessedOptionBuilder() {
         defaultValues = java.util.Collections.emptyList();
@@ -364,6 +365,10 @@ public class ProcessedOptionBuilder {
         return apply(c -> c.fieldResetter = fieldResetter);
     }
 
+    public ProcessedOptionBuilder parsingSetter(ParsingFieldSetter parsingSetter) {
+        return apply(c -> c.parsingSetter = parsingSetter);
+    }
+
     public ProcessedOption build() throws OptionParserException {
         if (optionType == null) {
             if (!hasValue)
@@ -422,6 +427,8 @@ public class ProcessedOptionBuilder {
             option.setFieldSetter(fieldSetter);
         if (fieldResetter != null)
             option.setFieldResetter(fieldResetter);
+        if (parsingSetter != null)
+            option.setParsingSetter(parsingSetter);
         return option;
     }
 }
@@ -102,7 +102,8 @@ public final class AeshCommandInvocation implements CommandInvocation {
 
     @Override
     public String getHelpInfo() {
-        return commandContainer.getParser().parsedCommand().printHelp();
+        return commandContainer.getParser().parsedCommand().printHelp(getShell().size().getWidth(),
+                getShell().supportsHyperlinks());
     }
 
     @Override
@@ -28,8 +28,10 @@ import org.aesh.command.CommandNotFoundException;
 import org.aesh.command.CommandRuntime;
 import org.aesh.command.Executor;
 import org.aesh.command.container.CommandContainer;
+import org.aesh.command.impl.shell.ShellOutputDelegate;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.invocation.CommandInvocationConfiguration;
+import org.aesh.command.job.JobOutput;
 import org.aesh.command.parser.CommandLineParserException;
 import org.aesh.command.shell.Shell;
 import org.aesh.command.validator.CommandValidatorException;
@@ -61,10 +63,12 @@ public class DefaultCommandInvocation implements CommandInvocation {
         this.processor = processor;
         this.config = config;
         this.commandContainer = commandContainer;
-        if (shell != null)
-            this.shell = shell;
+        Shell target = shell != null ? shell : new DefaultShell();
+        //the output of a background job is collected, other redirections are left to the shell
+        if (config != null && config.getOutputRedirection() instanceof JobOutput)
+            this.shell = new ShellOutputDelegate(target, config.getOutputRedirection());
         else
-            this.shell = new DefaultShell();
+            this.shell = target;
     }
 
     @Override
@@ -83,12 +87,13 @@ public class DefaultCommandInvocation implements CommandInvocation {
 
     @Override
     public String getHelpInfo(String commandName) {
-        return processor.commandInfo(commandName);
+        return processor.commandInfo(commandName, getShell().size().getWidth(), getShell().supportsHyperlinks());
     }
 
     @Override
     public String getHelpInfo() {
-        return commandContainer.getParser().parsedCommand().printHelp();
+        return commandContainer.getParser().parsedCommand().printHelp(getShell().size().getWidth(),
+                getShell().supportsHyperlinks());
     }
 
     @Override
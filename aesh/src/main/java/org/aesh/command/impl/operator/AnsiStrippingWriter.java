@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.operator;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Removes ANSI escape sequences from the text written to it, in a single pass.
+ *
+ * The same sequences as {@link org.aesh.terminal.utils.Parser#stripAwayAnsiCodes(String)} are
+ * removed: CSI sequences (ESC [ ...) and OSC sequences terminated by BEL or ESC \.
+ * The state is kept between writes, so a sequence split over several writes is removed as well.
+ * A sequence that is not complete when the writer is closed is handled as the regular
+ * expression would: an unterminated OSC sequence is written as is.
+ *
+ * @author Aesh team
+ */
+final class AnsiStrippingWriter extends FilterWriter {
+
+    private static final char ESC = '\u001B';
+    private static final char BEL = '\u0007';
+
+    private enum State {
+        TEXT,
+        //after ESC
+        ESCAPE,
+        //after ESC [
+        CSI_START,
+        //after ESC [ ? or a digit or ;
+        CSI_PARAMS,
+        //after ESC ]
+        OSC,
+        //after ESC ] ... ESC
+        OSC_ESCAPE
+    }
+
+    private State state = State.TEXT;
+    //the OSC sequence read so far, written as text if it is not terminated
+    private final StringBuilder osc = new StringBuilder();
+    private char[] chars = new char[256];
+
+    AnsiStrippingWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        write(new char[] { (char) c }, 0, 1);
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        if (chars.length < len)
+            chars = new char[Math.max(len, chars.length * 2)];
+        str.getChars(off, off + len, chars, 0);
+        write(chars, 0, len);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        int end = off + len;
+        //start of the text that is not written yet
+        int text = off;
+        for (int i = off; i < end; i++) {
+            char c = cbuf[i];
+            switch (state) {
+                case TEXT:
+                    if (c != ESC)
+                        continue;
+                    out.write(cbuf, text, i - text);
+                    state = State.ESCAPE;
+                    break;
+                case ESCAPE:
+                    if (c == '[')
+                        state = State.CSI_START;
+                    else if (c == ']') {
+                        osc.setLength(0);
+                        osc.append(ESC).append(c);
+                        state = State.OSC;
+                    } else {
+                        //not a sequence, keep the ESC
+                        out.write(ESC);
+                        state = State.TEXT;
+                        i = reprocess(i);
+                    }
+                    break;
+                case CSI_START:
+                    if (c == '?' || isParam(c))
+                        state = State.CSI_PARAMS;
+                    else
+                        i = endCsi(c, i);
+                    break;
+                case CSI_PARAMS:
+                    if (!isParam(c))
+                        i = endCsi(c, i);
+                    break;
+                case OSC:
+                    if (c == BEL)
+                        state = State.TEXT;
+                    else if (c == ESC)
+                        state = State.OSC_ESCAPE;
+                    else
+                        osc.append(c);
+                    break;
+                case OSC_ESCAPE:
+                    if (c == '\\')
+                        state = State.TEXT;
+                    else {
+                        //not terminated, the OSC start is text and the ESC might start a new sequence
+                        out.write(osc.toString());
+                        state = State.ESCAPE;
+                        i = reprocess(i);
+                    }
+                    break;
+            }
+            text = i + 1;
+        }
+        if (state == State.TEXT && text < end)
+            out.write(cbuf, text, end - text);
+    }
+
+    /**
+     * The CSI sequence ends with an optional letter, anything else is text
+     */
+    private int endCsi(char c, int i) {
+        state = State.TEXT;
+        return isLetter(c) ? i : reprocess(i);
+    }
+
+    //the current character must be handled again in the new state
+    private static int reprocess(int i) {
+        return i - 1;
+    }
+
+    private static boolean isParam(char c) {
+        return (c >= '0' && c <= '9') || c == ';';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            //a CSI sequence can end anywhere, the rest was not a sequence
+            if (state == State.ESCAPE)
+                out.write(ESC);
+            else if (state == State.OSC)
+                out.write(osc.toString());
+            else if (state == State.OSC_ESCAPE) {
+                out.write(osc.toString());
+                out.write(ESC);
+            }
+            state = State.TEXT;
+        } finally {
+            super.close();
+        }
+    }
+}
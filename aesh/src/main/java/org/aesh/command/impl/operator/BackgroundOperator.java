@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2017 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.operator;
+
+import java.util.concurrent.Callable;
+
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.job.Job;
+import org.aesh.command.job.JobOutput;
+import org.aesh.command.job.JobTable;
+
+/**
+ * The &amp; operator, the command before it is executed as a background job and the
+ * next command is executed right away.
+ * The output of the job is collected unless it is redirected.
+ *
+ * @author Aesh team
+ */
+public class BackgroundOperator<T extends CommandInvocation> extends EndOperator<T> {
+
+    private final JobOutput output = new JobOutput();
+
+    public BackgroundOperator() {
+    }
+
+    /**
+     * @return collects the output of the job
+     */
+    public JobOutput getOutput() {
+        return output;
+    }
+
+    /**
+     * Start the command as a job.
+     *
+     * @param jobs the job table of the console
+     * @param line command line of the job
+     * @param task executes the command
+     * @return the started job
+     */
+    public Job start(JobTable jobs, String line, Callable<CommandResult> task) {
+        return jobs.start(line, output, task);
+    }
+
+    @Override
+    public boolean canExecuteNext(CommandResult result) {
+        return true;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.operator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes UTF-8 text to a file through a direct byte buffer.
+ *
+ * Text is only written to the file when the buffer is full, on {@link #flush()} and on
+ * {@link #close()}, so many small writes cost one system call per buffer instead of one each.
+ *
+ * Instances are not thread safe.
+ *
+ * @author Aesh team
+ */
+public class FileChannelWriter extends Writer {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer bytes;
+    //text that is not encoded yet
+    private final CharBuffer chars;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private boolean closed;
+
+    /**
+     * @param file file
+     * @param append append to the file instead of replacing its content
+     * @param bufferSize number of bytes buffered before they are written to the file
+     * @throws IOException if the file could not be opened
+     */
+    public FileChannelWriter(Path file, boolean append, int bufferSize) throws IOException {
+        if (bufferSize < 1)
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        channel = append
+                ? FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                : FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+        //utf-8 needs up to 3 bytes for a char, the encoder needs room for at least one
+        bytes = ByteBuffer.allocateDirect(Math.max(bufferSize, 4));
+        chars = CharBuffer.allocate(Math.max(bufferSize / 2, 2));
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        if (!chars.hasRemaining())
+            encode(false);
+        chars.put((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (!chars.hasRemaining())
+                encode(false);
+            int n = Math.min(len, chars.remaining());
+            chars.put(cbuf, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (!chars.hasRemaining())
+                encode(false);
+            int n = Math.min(len, chars.remaining());
+            chars.put(str, off, off + n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Encode the buffered chars, the bytes are written to the file when the byte buffer is full.
+     * A high surrogate at the end is kept until the next char is written.
+     */
+    private void encode(boolean endOfInput) throws IOException {
+        ((Buffer) chars).flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow())
+                drain();
+            else
+                break;
+        }
+        chars.compact();
+    }
+
+    private void drain() throws IOException {
+        ((Buffer) bytes).flip();
+        while (bytes.hasRemaining())
+            channel.write(bytes);
+        ((Buffer) bytes).clear();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        encode(false);
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        try {
+            encode(true);
+            while (encoder.flush(bytes).isOverflow())
+                drain();
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed)
+            throw new IOException("Writer is closed");
+    }
+}
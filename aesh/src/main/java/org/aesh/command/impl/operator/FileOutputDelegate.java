@@ -19,9 +19,9 @@
  */
 package org.aesh.command.impl.operator;
 
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.Objects;
 
 import org.aesh.console.AeshContext;
@@ -44,9 +44,17 @@ public abstract class FileOutputDelegate extends OutputDelegate {
     }
 
     @Override
-    protected BufferedWriter buildWriter() throws IOException {
+    protected Writer buildWriter() throws IOException {
         return buildWriter(outputFile);
     }
 
-    protected abstract BufferedWriter buildWriter(File f) throws IOException;
+    /**
+     * Output to a file is buffered, it is written when the buffer is full and on close
+     */
+    @Override
+    protected boolean flushOnWrite() {
+        return false;
+    }
+
+    protected abstract Writer buildWriter(File f) throws IOException;
 }
@@ -24,6 +24,9 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 
+import org.aesh.io.MappedFileResource;
+import org.aesh.io.PipelineResource;
+
 /**
  * @author Aesh team
  */
@@ -47,4 +50,14 @@ public class InputDelegate {
         return null;
     }
 
+    /**
+     * @return the redirected input, the file is memory mapped when it is read
+     */
+    public PipelineResource getResource() {
+        File file = new File(path);
+        if (file.isFile())
+            return new MappedFileResource(file);
+        return new PipelineResource(null);
+    }
+
 }
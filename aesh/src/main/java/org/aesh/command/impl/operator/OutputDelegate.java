@@ -19,44 +19,67 @@
  */
 package org.aesh.command.impl.operator;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
-
-import org.aesh.terminal.utils.Parser;
+import java.io.Writer;
 
 /**
+ * Output of a command that is redirected, eg to a file or a pipe.
+ * ANSI escape sequences are removed from the output.
  *
  * @author Aesh team
  */
 public abstract class OutputDelegate {
 
-    private BufferedWriter writer;
+    private Writer writer;
     private IOException exception;
+    private boolean closed;
 
     protected OutputDelegate() {
     }
 
-    protected abstract BufferedWriter buildWriter() throws IOException;
+    protected abstract Writer buildWriter() throws IOException;
+
+    /**
+     * @return true if the output should be flushed after every write, false if it is
+     *         only written when the writer buffer is full and when this delegate is closed
+     */
+    protected boolean flushOnWrite() {
+        return true;
+    }
 
     public void write(String msg) {
         try {
-            msg = Parser.stripAwayAnsiCodes(msg);
-            if (writer == null && exception == null) {
-                writer = buildWriter();
+            if (writer == null && exception == null && !closed) {
+                writer = new AnsiStrippingWriter(buildWriter());
             }
             //if we have a writer, write
             if (writer != null) {
-                writer.append(msg);
-                writer.flush();
+                writer.write(msg);
+                if (flushOnWrite())
+                    writer.flush();
             }
         } catch (IOException e) {
             exception = e;
         }
     }
 
+    /**
+     * Write what is buffered and close the writer, output written after this is ignored
+     *
+     * @throws IOException if the output could not be written
+     */
     public void close() throws IOException {
-        //if(writer != null)
-        //    writer.close();
+        closed = true;
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                if (exception == null)
+                    exception = e;
+            } finally {
+                writer = null;
+            }
+        }
         if (exception != null)
             throw exception;
     }
@@ -19,12 +19,9 @@
  */
 package org.aesh.command.impl.operator;
 
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
+import java.io.Writer;
 
 import org.aesh.command.invocation.CommandInvocationConfiguration;
 import org.aesh.console.AeshContext;
@@ -41,12 +38,8 @@ public class OutputRedirectionOperator implements ConfigurationOperator {
         }
 
         @Override
-        protected BufferedWriter buildWriter(File f) throws IOException {
-            if (append) {
-                return Files.newBufferedWriter(f.toPath(), StandardCharsets.UTF_8,
-                        StandardOpenOption.APPEND, StandardOpenOption.CREATE);
-            }
-            return Files.newBufferedWriter(f.toPath(), StandardCharsets.UTF_8);
+        protected Writer buildWriter(File f) throws IOException {
+            return new FileChannelWriter(f.toPath(), append, bufferSize);
         }
     }
 
@@ -54,14 +47,25 @@ public class OutputRedirectionOperator implements ConfigurationOperator {
     private String argument;
     private final AeshContext context;
     private final boolean append;
+    private final int bufferSize;
 
     public OutputRedirectionOperator(AeshContext context) {
         this(context, false);
     }
 
     public OutputRedirectionOperator(AeshContext context, boolean append) {
+        this(context, append, FileChannelWriter.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param context context
+     * @param append append to the file instead of replacing it
+     * @param bufferSize number of bytes buffered before the output is written to the file
+     */
+    public OutputRedirectionOperator(AeshContext context, boolean append, int bufferSize) {
         this.context = context;
         this.append = append;
+        this.bufferSize = bufferSize > 0 ? bufferSize : FileChannelWriter.DEFAULT_BUFFER_SIZE;
     }
 
     @Override
@@ -24,12 +24,25 @@ import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.aesh.command.CommandResult;
 import org.aesh.command.invocation.CommandInvocationConfiguration;
 import org.aesh.console.AeshContext;
 
 /**
+ * Connects the output of a command to the input of the next command.
+ *
+ * By default the whole output is buffered and the next command is executed after the
+ * first has finished. If a buffer size is given the pipe is streaming: both commands
+ * run at the same time, connected by a {@link PipeBuffer} of that size.
  *
  * @author Aesh team
  */
@@ -40,16 +53,54 @@ public class PipeOperator extends EndOperator implements
 
         @Override
         protected BufferedWriter buildWriter() throws IOException {
-            return new BufferedWriter(new OutputStreamWriter(stream));
+            OutputStream out = isStreaming() ? pipe().sink() : stream;
+            return new BufferedWriter(new OutputStreamWriter(out));
+        }
+
+        /**
+         * The next command reads the output while this command is running, only when streaming
+         */
+        @Override
+        protected boolean flushOnWrite() {
+            return isStreaming();
         }
     }
 
-    private ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    //idle threads are reused by later stages and stopped after a minute
+    private static final ExecutorService STAGES = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable stage) {
+            Thread thread = new Thread(stage, "aesh-pipe-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final ByteArrayOutputStream stream = new ByteArrayOutputStream();
     private final AeshContext context;
     private CommandInvocationConfiguration config;
 
+    private int bufferSize;
+    private PipeBuffer pipe;
+    private BufferedInputStream pipedData;
+    private CountDownLatch stageDone;
+    //the thread running the stage, guarded by this
+    private Thread stageThread;
+    private volatile Throwable stageFailure;
+
     public PipeOperator(AeshContext context) {
+        this(context, 0);
+    }
+
+    /**
+     * @param context context
+     * @param bufferSize size of the streaming buffer, 0 to buffer all output
+     */
+    public PipeOperator(AeshContext context, int bufferSize) {
         this.context = context;
+        this.bufferSize = Math.max(0, bufferSize);
     }
 
     @Override
@@ -67,6 +118,97 @@ public class PipeOperator extends EndOperator implements
 
     @Override
     public BufferedInputStream getData() {
+        if (isStreaming()) {
+            //there is only one reader of a streaming pipe
+            if (pipedData == null)
+                pipedData = new BufferedInputStream(pipe().source());
+            return pipedData;
+        }
         return new BufferedInputStream(new ByteArrayInputStream(stream.toByteArray()));
     }
+
+    public boolean isStreaming() {
+        return bufferSize > 0;
+    }
+
+    /**
+     * Buffer all output instead, must be called before the pipe is used
+     */
+    public void disableStreaming() {
+        bufferSize = 0;
+    }
+
+    private PipeBuffer pipe() {
+        if (pipe == null)
+            pipe = new PipeBuffer(bufferSize);
+        return pipe;
+    }
+
+    /**
+     * Run the command writing to this pipe in a thread of its own, the output is closed when it is done.
+     * The thread is never shared with the command reading from the pipe, which waits for the output,
+     * so stages do not run in a bounded pool where they could wait for each other.
+     *
+     * @param command the execution of the command writing to the pipe
+     */
+    public void startStage(Callable<CommandResult> command) {
+        PipeBuffer buffer = pipe();
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            STAGES.execute(() -> {
+                synchronized (this) {
+                    stageThread = Thread.currentThread();
+                }
+                try {
+                    command.call();
+                } catch (Throwable e) {
+                    stageFailure = e;
+                } finally {
+                    synchronized (this) {
+                        stageThread = null;
+                    }
+                    buffer.closeWriter();
+                    done.countDown();
+                }
+            });
+        } catch (RuntimeException e) {
+            buffer.closeWriter();
+            throw e;
+        }
+        stageDone = done;
+    }
+
+    private synchronized void interruptStage() {
+        if (stageThread != null)
+            stageThread.interrupt();
+    }
+
+    /**
+     * Called by the command reading from this pipe when it is done. Unread data is discarded
+     * and the writing command is waited for.
+     *
+     * @param interrupt interrupt the writing command, eg when the reading command was interrupted
+     * @return the exception thrown by the writing command, or null
+     */
+    public Throwable awaitStage(boolean interrupt) {
+        if (stageDone == null)
+            return null;
+        pipe.closeReader();
+        if (interrupt)
+            interruptStage();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                stageDone.await();
+                break;
+            } catch (InterruptedException e) {
+                //forward the interrupt (Ctrl-C) to the writing command and keep waiting for it
+                interrupted = true;
+                interruptStage();
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        return stageFailure;
+    }
 }
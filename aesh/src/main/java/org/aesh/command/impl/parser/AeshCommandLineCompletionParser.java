@@ -182,16 +182,15 @@ public class AeshCommandLineCompletionParser<CI extends CommandInvocation> imple
     private void doProcessGroupCommand(AeshCompleteOperation completeOperation, String name, ParsedLine line) {
         if (name.length() == 0) {
             for (CommandLineParser clp : parser.getAllChildParsers()) {
-                if (clp.getProcessedCommand().isActivated(new ParsedCommand(clp.getProcessedCommand())))
-                    completeOperation.addCompletionCandidate(clp.getProcessedCommand().name());
+                if (LazyCommandLineParser.isActivated(clp))
+                    completeOperation.addCompletionCandidate(LazyCommandLineParser.nameOf(clp));
             }
             if (completeOperation.getCompletionCandidates().size() == 1)
                 completeOperation.setOffset(completeOperation.getCursor());
         } else {
             for (CommandLineParser child : parser.getAllChildParsers()) {
-                if (child.getProcessedCommand().name().startsWith(name) &&
-                        child.getProcessedCommand().isActivated(new ParsedCommand(child.getProcessedCommand()))) {
-                    completeOperation.addCompletionCandidate(child.getProcessedCommand().name());
+                if (LazyCommandLineParser.nameOf(child).startsWith(name) && LazyCommandLineParser.isActivated(child)) {
+                    completeOperation.addCompletionCandidate(LazyCommandLineParser.nameOf(child));
                     completeOperation.setOffset(completeOperation.getCursor() - name.length());
                 }
             }
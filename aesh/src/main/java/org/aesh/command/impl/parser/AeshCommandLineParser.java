@@ -81,6 +81,8 @@ public class AeshCommandLineParser<CI extends CommandInvocation> implements Comm
         childParsers.add(commandLineParser);
         if (commandLineParser instanceof AeshCommandLineParser)
             ((AeshCommandLineParser<CI>) commandLineParser).setParent(this);
+        else if (commandLineParser instanceof LazyCommandLineParser)
+            ((LazyCommandLineParser<CI>) commandLineParser).setParent(this);
     }
 
     public List<CommandLineParser<CI>> getChildParsers() {
@@ -92,7 +94,7 @@ public class AeshCommandLineParser<CI extends CommandInvocation> implements Comm
         isChild = child;
     }
 
-    private void setParent(AeshCommandLineParser<CI> parent) {
+    void setParent(AeshCommandLineParser<CI> parent) {
         this.parent = parent;
     }
 
@@ -115,7 +117,7 @@ public class AeshCommandLineParser<CI extends CommandInvocation> implements Comm
     public void complete(AeshCompleteOperation completeOperation, InvocationProviders invocationProviders) {
 
         complete(completeOperation,
-                new LineParser().parseLine(completeOperation.getBuffer(), completeOperation.getCursor(), true),
+                lineParser.parseLine(completeOperation.getBuffer(), completeOperation.getCursor(), true),
                 invocationProviders);
     }
 
@@ -133,7 +135,7 @@ public class AeshCommandLineParser<CI extends CommandInvocation> implements Comm
             List<CommandLineParser<CI>> parsers = getChildParsers();
             List<String> names = new ArrayList<>(parsers.size());
             for (CommandLineParser child : parsers) {
-                names.add(processedCommand.name() + " " + child.getProcessedCommand().name());
+                names.add(processedCommand.name() + " " + LazyCommandLineParser.nameOf(child));
             }
             return names;
         } else {
@@ -152,7 +154,7 @@ public class AeshCommandLineParser<CI extends CommandInvocation> implements Comm
         if (!isGroupCommand())
             return null;
         for (CommandLineParser<CI> clp : getChildParsers()) {
-            if (clp.getProcessedCommand().name().equals(name))
+            if (LazyCommandLineParser.nameOf(clp).equals(name))
                 return clp;
         }
         return null;
@@ -204,6 +206,9 @@ public class AeshCommandLineParser<CI extends CommandInvocation> implements Comm
         getCommandPopulator().populateObject(processedCommand, invocationProviders, aeshContext, mode);
         if (isGroupCommand()) {
             for (CommandLineParser<CI> parser : getChildParsers()) {
+                //children that are not created yet have nothing to populate
+                if (parser instanceof LazyCommandLineParser && !((LazyCommandLineParser<CI>) parser).isMaterialized())
+                    continue;
                 parser.doPopulate(parser.getProcessedCommand(), invocationProviders, aeshContext, mode);
             }
         }
@@ -215,10 +220,15 @@ public class AeshCommandLineParser<CI extends CommandInvocation> implements Comm
      */
     @Override
     public String printHelp() {
+        return printHelp(ProcessedCommand.DEFAULT_HELP_WIDTH, false);
+    }
+
+    @Override
+    public String printHelp(int width, boolean supportsHyperlinks) {
         List<CommandLineParser<CI>> parsers = getChildParsers();
         if (parsers != null && parsers.size() > 0) {
             StringBuilder sb = new StringBuilder();
-            sb.append(processedCommand.printHelp(helpNames()))
+            sb.append(processedCommand.printHelp(helpNames(), width, supportsHyperlinks))
                     .append(Config.getLineSeparator())
                     .append(processedCommand.name())
                     .append(" commands:")
@@ -226,8 +236,9 @@ public class AeshCommandLineParser<CI extends CommandInvocation> implements Comm
 
             int maxLength = 0;
 
+            //lazy children are listed without creating them
             for (CommandLineParser child : parsers) {
-                int length = child.getProcessedCommand().name().length();
+                int length = LazyCommandLineParser.nameOf(child).length();
                 if (length > maxLength) {
                     maxLength = length;
                 }
@@ -240,7 +251,7 @@ public class AeshCommandLineParser<CI extends CommandInvocation> implements Comm
 
             return sb.toString();
         } else
-            return processedCommand.printHelp(helpNames());
+            return processedCommand.printHelp(helpNames(), width, supportsHyperlinks);
     }
 
     private String helpNames() {
@@ -315,7 +326,7 @@ public class AeshCommandLineParser<CI extends CommandInvocation> implements Comm
                         setArgStatus(word.word());
                         iter.pollParsedWord();
                     } else {
-                        lastParsedOption = processedCommand.searchAllOptions(word.word());
+                        lastParsedOption = findOption(word.word());
                         if (lastParsedOption != null) {
                             lastParsedOption.parser().parse(iter, lastParsedOption);
                         } else {
@@ -379,7 +390,7 @@ public class AeshCommandLineParser<CI extends CommandInvocation> implements Comm
                         return;
                     }
                 }
-                RequiredOptionException re = checkForMissingRequiredOptions(processedCommand);
+                RequiredOptionException re = checkForMissingRequiredOptions();
                 if (re != null)
                     processedCommand.addParserException(re);
             }
@@ -534,7 +545,23 @@ public class AeshCommandLineParser<CI extends CommandInvocation> implements Comm
         }
     }
 
-    private RequiredOptionException checkForMissingRequiredOptions(ProcessedCommand<? extends Command<CI>, CI> command) {
+    /**
+     * Find the option a word on the command line refers to.
+     * Parsers generated for a specific command resolve the known names directly
+     * and fall back to this method for anything else.
+     *
+     * @param word word on the command line
+     * @return matching option or null
+     */
+    protected ProcessedOption findOption(String word) {
+        return processedCommand.searchAllOptions(word);
+    }
+
+    /**
+     * @return an exception for the first required option or argument that is not set, null if none
+     */
+    protected RequiredOptionException checkForMissingRequiredOptions() {
+        ProcessedCommand<Command<CI>, CI> command = processedCommand;
         for (ProcessedOption o : command.getOptions()) {
             if (doCheckForMissingRequiredOption(o))
                 return new RequiredOptionException("Option: " + o.getDisplayName() + " is required for this command.");
@@ -624,22 +651,27 @@ public class AeshCommandLineParser<CI extends CommandInvocation> implements Comm
 
     @Override
     public String getFormattedCommand(int offset, int descriptionStart) {
+        return formatCommand(ansiMode, getProcessedCommand().name(), getProcessedCommand().description(),
+                offset, descriptionStart);
+    }
+
+    static String formatCommand(boolean ansiMode, String name, String description, int offset, int descriptionStart) {
 
         ANSIBuilder ansiBuilder = ANSIBuilder.builder(ansiMode);
 
         if (offset > 0)
             ansiBuilder.append(String.format("%" + offset + "s", ""));
 
-        ansiBuilder.blueText(getProcessedCommand().name());
+        ansiBuilder.blueText(name);
 
-        int descOffset = descriptionStart - getProcessedCommand().name().length();
+        int descOffset = descriptionStart - name.length();
 
         if (descOffset > 0)
             ansiBuilder.append(String.format("%" + descOffset + "s", ""));
         else
             ansiBuilder.append(" ");
 
-        ansiBuilder.append(getProcessedCommand().description());
+        ansiBuilder.append(description);
 
         return ansiBuilder.toString();
     }
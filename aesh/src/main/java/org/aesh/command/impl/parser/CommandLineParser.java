@@ -99,6 +99,16 @@ public interface CommandLineParser<CI extends CommandInvocation> {
      */
     String printHelp();
 
+    /**
+     * Returns a usage String formatted for the given terminal width.
+     *
+     * @param width terminal width
+     * @param supportsHyperlinks whether the terminal supports OSC 8 hyperlinks
+     */
+    default String printHelp(int width, boolean supportsHyperlinks) {
+        return printHelp();
+    }
+
     /**
      * Parse a command line with the defined command as base of the rules.
      * If any options are found, but not defined in the command object an
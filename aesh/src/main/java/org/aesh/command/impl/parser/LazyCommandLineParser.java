@@ -0,0 +1,315 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.parser;
+
+import java.util.List;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.GroupCommandDefinition;
+import org.aesh.command.impl.activator.NullCommandActivator;
+import org.aesh.command.impl.internal.ParsedCommand;
+import org.aesh.command.impl.internal.ProcessedCommand;
+import org.aesh.command.impl.internal.ProcessedOption;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.invocation.InvocationProviders;
+import org.aesh.command.parser.CommandLineParserException;
+import org.aesh.command.populator.CommandPopulator;
+import org.aesh.command.validator.OptionValidatorException;
+import org.aesh.complete.AeshCompleteOperation;
+import org.aesh.console.AeshContext;
+import org.aesh.parser.ParsedLine;
+import org.aesh.parser.ParsedLineIterator;
+
+/**
+ * The parser of a group command child that is created the first time it is used.
+ *
+ * Only the name and description are read from the annotation when the group is
+ * created, so a group with many subcommands only creates the commands that are
+ * invoked, completed or shown in help.
+ *
+ * @author Aesh team
+ */
+public final class LazyCommandLineParser<CI extends CommandInvocation> implements CommandLineParser<CI> {
+
+    private final String name;
+    private final String description;
+    private final Factory<CI> factory;
+
+    private volatile CommandLineParser<CI> parser;
+    private boolean child;
+    private AeshCommandLineParser<CI> parent;
+    private InvocationProviders invocationProviders;
+    private volatile Boolean ansiMode;
+
+    private LazyCommandLineParser(String name, String description, Factory<CI> factory) {
+        this.name = name;
+        this.description = description;
+        this.factory = factory;
+    }
+
+    /**
+     * Commands with an activator are created right away, their activator must be known
+     * to complete the child names.
+     *
+     * @param commandClass the child command
+     * @param factory creates the parser of the child
+     * @return a lazy parser or null if the child must be created right away
+     */
+    public static <CI extends CommandInvocation> LazyCommandLineParser<CI> of(Class<? extends Command> commandClass,
+            Factory<CI> factory) {
+        CommandDefinition command = commandClass.getAnnotation(CommandDefinition.class);
+        if (command != null && command.activator() == NullCommandActivator.class)
+            return new LazyCommandLineParser<>(command.name(), command.description(), factory);
+        GroupCommandDefinition group = commandClass.getAnnotation(GroupCommandDefinition.class);
+        if (group != null && group.activator() == NullCommandActivator.class)
+            return new LazyCommandLineParser<>(group.name(), group.description(), factory);
+        return null;
+    }
+
+    /**
+     * @return the command name of the given parser, without creating a lazy parser
+     */
+    public static String nameOf(CommandLineParser<?> parser) {
+        if (parser instanceof LazyCommandLineParser)
+            return ((LazyCommandLineParser<?>) parser).name;
+        return parser.getProcessedCommand().name();
+    }
+
+    /**
+     * Lazy parsers are only created for commands without an activator.
+     *
+     * @return true if the command of the given parser is activated
+     */
+    public static boolean isActivated(CommandLineParser<?> parser) {
+        if (parser instanceof LazyCommandLineParser && !((LazyCommandLineParser<?>) parser).isMaterialized())
+            return true;
+        ProcessedCommand<?, ?> command = parser.getProcessedCommand();
+        return command.isActivated(new ParsedCommand(command));
+    }
+
+    public String description() {
+        return description;
+    }
+
+    /**
+     * @return true if the parser have been created
+     */
+    public boolean isMaterialized() {
+        return parser != null;
+    }
+
+    /**
+     * The invocation providers are applied to the command when it is created.
+     */
+    public synchronized void updateInvocationProviders(InvocationProviders invocationProviders) {
+        if (parser != null)
+            parser.getProcessedCommand().updateInvocationProviders(invocationProviders);
+        else
+            this.invocationProviders = invocationProviders;
+    }
+
+    synchronized void setParent(AeshCommandLineParser<CI> parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Create the parser the first time this is called, later calls return the same parser.
+     *
+     * @return the parser of the child command
+     */
+    public CommandLineParser<CI> parser() {
+        CommandLineParser<CI> result = parser;
+        if (result == null) {
+            synchronized (this) {
+                result = parser;
+                if (result == null) {
+                    try {
+                        result = factory.create();
+                    } catch (CommandLineParserException e) {
+                        throw new RuntimeException("Command: " + name + " could not be created: " + e.getMessage(), e);
+                    }
+                    result.setChild(child);
+                    if (parent != null && result instanceof AeshCommandLineParser)
+                        ((AeshCommandLineParser<CI>) result).setParent(parent);
+                    if (invocationProviders != null)
+                        result.getProcessedCommand().updateInvocationProviders(invocationProviders);
+                    if (ansiMode != null)
+                        result.updateAnsiMode(ansiMode);
+                    parser = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ProcessedCommand<Command<CI>, CI> getProcessedCommand() {
+        return parser().getProcessedCommand();
+    }
+
+    @Override
+    public Command<CI> getCommand() {
+        return parser().getCommand();
+    }
+
+    @Override
+    public CommandLineCompletionParser getCompletionParser() {
+        return parser().getCompletionParser();
+    }
+
+    @Override
+    public void complete(AeshCompleteOperation completeOperation, ParsedLine line,
+            InvocationProviders invocationProviders) {
+        parser().complete(completeOperation, line, invocationProviders);
+    }
+
+    @Override
+    public List<String> getAllNames() {
+        return parser().getAllNames();
+    }
+
+    @Override
+    public CommandLineParser<CI> getChildParser(String name) {
+        return parser().getChildParser(name);
+    }
+
+    @Override
+    public void addChildParser(CommandLineParser<CI> childParser) throws CommandLineParserException {
+        parser().addChildParser(childParser);
+    }
+
+    @Override
+    public List<CommandLineParser<CI>> getAllChildParsers() {
+        return parser().getAllChildParsers();
+    }
+
+    @Override
+    public CommandPopulator<Object, CI> getCommandPopulator() {
+        return parser().getCommandPopulator();
+    }
+
+    @Override
+    public void populateObject(String line, InvocationProviders invocationProviders, AeshContext aeshContext, Mode mode)
+            throws CommandLineParserException, OptionValidatorException {
+        parser().populateObject(line, invocationProviders, aeshContext, mode);
+    }
+
+    @Override
+    public String printHelp() {
+        return parser().printHelp();
+    }
+
+    @Override
+    public String printHelp(int width, boolean supportsHyperlinks) {
+        return parser().printHelp(width, supportsHyperlinks);
+    }
+
+    @Override
+    public void parse(String line) {
+        parser().parse(line);
+    }
+
+    @Override
+    public ProcessedOption lastParsedOption() {
+        CommandLineParser<CI> current = parser;
+        return current != null ? current.lastParsedOption() : null;
+    }
+
+    @Override
+    public void parse(String line, Mode mode) {
+        parser().parse(line, mode);
+    }
+
+    @Override
+    public void parse(ParsedLineIterator iterator, Mode mode) {
+        parser().parse(iterator, mode);
+    }
+
+    @Override
+    public void clear() {
+        CommandLineParser<CI> current = parser;
+        if (current != null)
+            current.clear();
+    }
+
+    @Override
+    public boolean isGroupCommand() {
+        return parser().isGroupCommand();
+    }
+
+    @Override
+    public synchronized void setChild(boolean child) {
+        this.child = child;
+        if (parser != null)
+            parser.setChild(child);
+    }
+
+    @Override
+    public CommandLineParser<CI> parsedCommand() {
+        CommandLineParser<CI> current = parser;
+        return current != null ? current.parsedCommand() : null;
+    }
+
+    @Override
+    public void complete(AeshCompleteOperation completeOperation, InvocationProviders invocationProviders) {
+        parser().complete(completeOperation, invocationProviders);
+    }
+
+    @Override
+    public void doPopulate(ProcessedCommand<Command<CI>, CI> processedCommand, InvocationProviders invocationProviders,
+            AeshContext aeshContext, Mode mode) throws CommandLineParserException, OptionValidatorException {
+        parser().doPopulate(processedCommand, invocationProviders, aeshContext, mode);
+    }
+
+    /**
+     * Rendered from the annotation values until the parser is created.
+     */
+    @Override
+    public String getFormattedCommand(int offset, int descriptionStart) {
+        CommandLineParser<CI> result = parser;
+        if (result != null)
+            return result.getFormattedCommand(offset, descriptionStart);
+        return AeshCommandLineParser.formatCommand(ansiMode == null || ansiMode, name, description, offset,
+                descriptionStart);
+    }
+
+    @Override
+    public synchronized void updateAnsiMode(boolean mode) {
+        this.ansiMode = mode;
+        if (parser != null)
+            parser.updateAnsiMode(mode);
+    }
+
+    @Override
+    public String toString() {
+        CommandLineParser<CI> current = parser;
+        return current != null ? current.toString()
+                : "LazyCommandLineParser{name='" + name + "'}";
+    }
+
+    /**
+     * Creates the parser of a child command.
+     */
+    @FunctionalInterface
+    public interface Factory<CI extends CommandInvocation> {
+        CommandLineParser<CI> create() throws CommandLineParserException;
+    }
+}
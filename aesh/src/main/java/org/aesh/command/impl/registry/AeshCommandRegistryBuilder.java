@@ -53,22 +53,35 @@ public class AeshCommandRegistryBuilder<CI extends CommandInvocation> {
         return this;
     }
 
+    /**
+     * Only read the name, aliases and description of commands added with their class after
+     * this call, the commands are created the first time they are used.
+     */
+    public AeshCommandRegistryBuilder<CI> lazyRegistration(boolean lazy) {
+        commandRegistry.setLazyRegistration(lazy);
+        return this;
+    }
+
     public AeshCommandRegistryBuilder<CI> command(Class<? extends Command> command) throws CommandRegistryException {
         commandRegistry.addCommand((Class<Command>) command);
         return this;
     }
 
     public AeshCommandRegistryBuilder<CI> commands(Class<? extends Command>... commands) throws CommandRegistryException {
-        for (Class<? extends Command> c : commands) {
-            commandRegistry.addCommand((Class<Command>) c);
-        }
+        commandRegistry.update(registry -> {
+            for (Class<? extends Command> c : commands) {
+                registry.addCommand((Class<Command>) c);
+            }
+        });
         return this;
     }
 
     public AeshCommandRegistryBuilder<CI> commands(List<Class<? extends Command>> commands) throws CommandRegistryException {
-        for (Class<? extends Command> c : commands) {
-            commandRegistry.addCommand(c);
-        }
+        commandRegistry.update(registry -> {
+            for (Class<? extends Command> c : commands) {
+                registry.addCommand(c);
+            }
+        });
         return this;
     }
 
@@ -87,6 +100,9 @@ public class AeshCommandRegistryBuilder<CI extends CommandInvocation> {
         return this;
     }
 
+    /**
+     * The instance is shared by all executions, it is not thread-safe unlike a command added by its class.
+     */
     public AeshCommandRegistryBuilder<CI> command(Command command) throws CommandRegistryException {
         commandRegistry.addCommand(command);
         return this;
@@ -0,0 +1,186 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.registry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Prefix trie of command names, used for command name completion and suggestions.
+ *
+ * Finding all names with a prefix costs the length of the prefix plus the size of the
+ * matching subtree, independent of the number of commands in the registry.
+ * Children are stored in sorted arrays, so names are returned in lexicographic order.
+ *
+ * Instances are immutable, adding or removing a name returns a new trie that shares
+ * all nodes that are not on the path of the name with this one. That way registry
+ * snapshots can be read by any thread while a new snapshot is created.
+ *
+ * @author Aesh team
+ */
+final class CommandNameTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Node EMPTY_NODE = new Node(NO_KEYS, NO_CHILDREN, null, 0);
+
+    static final CommandNameTrie EMPTY = new CommandNameTrie(EMPTY_NODE);
+
+    private final Node root;
+
+    private CommandNameTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @return a trie that contains the name, this trie if the name already was in it
+     */
+    CommandNameTrie with(String name) {
+        Node added = add(root, name, 0);
+        return added == root ? this : new CommandNameTrie(added);
+    }
+
+    /**
+     * @return a trie without the name, this trie if the name was not in it
+     */
+    CommandNameTrie without(String name) {
+        Node removed = remove(root, name, 0);
+        if (removed == root)
+            return this;
+        return removed == null ? EMPTY : new CommandNameTrie(removed);
+    }
+
+    boolean contains(String name) {
+        Node node = find(name);
+        return node != null && node.name != null;
+    }
+
+    int size() {
+        return root.count;
+    }
+
+    /**
+     * @return all names that start with prefix, sorted
+     */
+    List<String> startingWith(String prefix) {
+        Node node = find(prefix);
+        if (node == null)
+            return Collections.emptyList();
+        List<String> names = new ArrayList<>(node.count);
+        collect(node, names);
+        return names;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++)
+            node = node.child(prefix.charAt(i));
+        return node;
+    }
+
+    private static Node add(Node node, String name, int depth) {
+        if (depth == name.length())
+            return node.name != null ? node : new Node(node.keys, node.children, name, node.count + 1);
+        char key = name.charAt(depth);
+        int index = Arrays.binarySearch(node.keys, key);
+        Node child = index >= 0 ? node.children[index] : EMPTY_NODE;
+        Node added = add(child, name, depth + 1);
+        if (added == child)
+            return node;
+        return index >= 0 ? node.replaceChild(index, added, 1) : node.insertChild(-(index + 1), key, added);
+    }
+
+    //returns null when nothing is left below the node
+    private static Node remove(Node node, String name, int depth) {
+        if (depth == name.length()) {
+            if (node.name == null)
+                return node;
+            return node.count == 1 ? null : new Node(node.keys, node.children, null, node.count - 1);
+        }
+        int index = Arrays.binarySearch(node.keys, name.charAt(depth));
+        if (index < 0)
+            return node;
+        Node child = node.children[index];
+        Node removed = remove(child, name, depth + 1);
+        if (removed == child)
+            return node;
+        if (node.count == 1)
+            return null;
+        return removed == null ? node.removeChild(index) : node.replaceChild(index, removed, -1);
+    }
+
+    private static void collect(Node node, List<String> names) {
+        if (node.name != null)
+            names.add(node.name);
+        for (Node child : node.children)
+            collect(child, names);
+    }
+
+    private static final class Node {
+        private final char[] keys;
+        private final Node[] children;
+        //the name ending in this node, if any
+        private final String name;
+        //number of names in this subtree
+        private final int count;
+
+        private Node(char[] keys, Node[] children, String name, int count) {
+            this.keys = keys;
+            this.children = children;
+            this.name = name;
+            this.count = count;
+        }
+
+        private Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node replaceChild(int index, Node child, int countChange) {
+            Node[] newChildren = children.clone();
+            newChildren[index] = child;
+            return new Node(keys, newChildren, name, count + countChange);
+        }
+
+        private Node insertChild(int index, char key, Node child) {
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = key;
+            newChildren[index] = child;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            return new Node(newKeys, newChildren, name, count + 1);
+        }
+
+        private Node removeChild(int index) {
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, newKeys.length - index);
+            System.arraycopy(children, index + 1, newChildren, index, newChildren.length - index);
+            return new Node(newKeys, newChildren, name, count - 1);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.registry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandException;
+import org.aesh.command.GroupCommandDefinition;
+import org.aesh.command.container.CommandContainer;
+import org.aesh.command.container.CommandContainerBuilder;
+import org.aesh.command.container.CommandContainerResult;
+import org.aesh.command.impl.activator.NullCommandActivator;
+import org.aesh.command.impl.context.CommandContext;
+import org.aesh.command.impl.internal.ProcessedCommand;
+import org.aesh.command.impl.parser.CommandLineParser;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.invocation.InvocationProviders;
+import org.aesh.command.parser.CommandLineParserException;
+import org.aesh.command.validator.CommandValidatorException;
+import org.aesh.command.validator.OptionValidatorException;
+import org.aesh.console.AeshContext;
+import org.aesh.parser.ParsedLine;
+
+/**
+ * A command registered with its class, where only the name, aliases and description
+ * are read at registration. The command instance, options, converters, completers and
+ * parser are created the first time the container is used.
+ *
+ * The registry unwraps these containers with {@link #container()} before they are
+ * returned, the delegating methods are only a fallback.
+ *
+ * @author Aesh team
+ */
+final class LazyCommandContainer<CI extends CommandInvocation> implements CommandContainer<CI> {
+
+    private final Class<? extends Command> commandClass;
+    private final String name;
+    private final List<String> aliases;
+    private final String description;
+    private final CommandContainerBuilder<CI> builder;
+
+    private volatile CommandContainer<CI> container;
+    private volatile String errorMessage;
+
+    private LazyCommandContainer(Class<? extends Command> commandClass, String name, String[] aliases,
+            String description, CommandContainerBuilder<CI> builder) {
+        this.commandClass = commandClass;
+        this.name = name;
+        this.aliases = aliases.length == 0 ? Collections.emptyList() : Arrays.asList(aliases);
+        this.description = description;
+        this.builder = builder;
+    }
+
+    /**
+     * Commands with an activator are created right away, their activator must be known
+     * to complete command names.
+     *
+     * @return a lazy container or null if the command must be created right away
+     */
+    static <CI extends CommandInvocation> LazyCommandContainer<CI> of(Class<? extends Command> commandClass,
+            CommandContainerBuilder<CI> builder) {
+        CommandDefinition command = commandClass.getAnnotation(CommandDefinition.class);
+        if (command != null && command.activator() == NullCommandActivator.class)
+            return new LazyCommandContainer<>(commandClass, command.name(), command.aliases(), command.description(),
+                    builder);
+        GroupCommandDefinition group = commandClass.getAnnotation(GroupCommandDefinition.class);
+        if (group != null && group.activator() == NullCommandActivator.class)
+            return new LazyCommandContainer<>(commandClass, group.name(), group.aliases(), group.description(),
+                    builder);
+        return null;
+    }
+
+    String name() {
+        return name;
+    }
+
+    List<String> aliases() {
+        return aliases;
+    }
+
+    String description() {
+        return description;
+    }
+
+    /**
+     * @return true if the command have been created
+     */
+    boolean isMaterialized() {
+        return container != null;
+    }
+
+    /**
+     * Create the command the first time this is called, later calls return the same container.
+     *
+     * @return the container or null if the command could not be created, see {@link #getBuildErrorMessage()}
+     */
+    CommandContainer<CI> container() {
+        CommandContainer<CI> result = container;
+        if (result == null && errorMessage == null) {
+            synchronized (this) {
+                result = container;
+                if (result == null && errorMessage == null) {
+                    try {
+                        result = MutableCommandRegistryImpl.create(builder, commandClass);
+                        if (result.haveBuildError()) {
+                            errorMessage = result.getBuildErrorMessage();
+                            result = null;
+                        } else
+                            container = result;
+                    } catch (CommandLineParserException | RuntimeException e) {
+                        errorMessage = e.getMessage() != null ? e.getMessage() : e.toString();
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private CommandContainer<CI> existing() {
+        CommandContainer<CI> c = container();
+        if (c == null)
+            throw new IllegalStateException("Command " + name + " could not be created: " + errorMessage);
+        return c;
+    }
+
+    @Override
+    public CommandLineParser<CI> getParser() {
+        return existing().getParser();
+    }
+
+    @Override
+    public boolean haveBuildError() {
+        return container() == null;
+    }
+
+    @Override
+    public String printHelp(String childCommandName) {
+        return existing().printHelp(childCommandName);
+    }
+
+    @Override
+    public String printHelp(String childCommandName, int width, boolean supportsHyperlinks) {
+        return existing().printHelp(childCommandName, width, supportsHyperlinks);
+    }
+
+    @Override
+    public String getBuildErrorMessage() {
+        container();
+        return errorMessage;
+    }
+
+    @Override
+    public ParsedLine pollLine() {
+        return existing().pollLine();
+    }
+
+    @Override
+    public void emptyLine() {
+        existing().emptyLine();
+    }
+
+    @Override
+    public ProcessedCommand<Command<CI>, CI> parseAndPopulate(InvocationProviders invocationProviders,
+            AeshContext aeshContext) throws CommandLineParserException, OptionValidatorException {
+        return existing().parseAndPopulate(invocationProviders, aeshContext);
+    }
+
+    @Override
+    public ProcessedCommand<Command<CI>, CI> parseAndPopulate(InvocationProviders invocationProviders,
+            AeshContext aeshContext, CommandContext commandContext)
+            throws CommandLineParserException, OptionValidatorException {
+        return existing().parseAndPopulate(invocationProviders, aeshContext, commandContext);
+    }
+
+    @Override
+    public CommandContainerResult executeCommand(ParsedLine line, InvocationProviders invocationProviders,
+            AeshContext aeshContext, CI commandInvocation) throws CommandLineParserException, OptionValidatorException,
+            CommandValidatorException, CommandException, InterruptedException {
+        return existing().executeCommand(line, invocationProviders, aeshContext, commandInvocation);
+    }
+
+    @Override
+    public void addLine(ParsedLine aeshLine) {
+        existing().addLine(aeshLine);
+    }
+
+    @Override
+    public void close() throws Exception {
+        CommandContainer<CI> c = container;
+        if (c != null)
+            c.close();
+    }
+
+    @Override
+    public String toString() {
+        return "LazyCommandContainer{" +
+                "name='" + name + '\'' +
+                ", commandClass=" + commandClass.getName() +
+                ", materialized=" + isMaterialized() +
+                '}';
+    }
+}
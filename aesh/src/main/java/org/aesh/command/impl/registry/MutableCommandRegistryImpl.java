@@ -26,14 +26,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 import org.aesh.command.Command;
 import org.aesh.command.CommandNotFoundException;
 import org.aesh.command.container.CommandContainer;
 import org.aesh.command.container.CommandContainerBuilder;
+import org.aesh.command.impl.container.AeshCommandContainer;
 import org.aesh.command.impl.container.AeshCommandContainerBuilder;
-import org.aesh.command.impl.internal.ParsedCommand;
-import org.aesh.command.impl.internal.ProcessedCommand;
 import org.aesh.command.impl.parser.CommandLineParser;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.parser.CommandLineParserException;
@@ -43,30 +45,59 @@ import org.aesh.parser.ParsedLine;
 import org.aesh.readline.completion.CompleteOperation;
 
 /**
+ * Registry that can be changed while other threads complete and execute commands.
+ *
+ * Readers use an immutable snapshot of the registry that they get with one volatile read,
+ * they never block. Changes are made to a copy of the snapshot while holding a lock, the
+ * copy is then published. Several changes can be published at once with
+ * {@link #update(RegistryUpdate)}.
+ *
  * @author Aesh team
  */
 public class MutableCommandRegistryImpl<CI extends CommandInvocation> implements MutableCommandRegistry<CI> {
 
-    private final Map<String, CommandContainer<CI>> registry = new HashMap<>();
-    private final Map<String, CommandContainer<CI>> aliases = new HashMap<>();
+    private volatile Snapshot<CI> snapshot = new Snapshot<>();
 
-    private CommandContainerBuilder<CI> containerBuilder;
+    //reentrant, so listeners and updates can change the registry
+    private final ReentrantLock writeLock = new ReentrantLock();
+    //the snapshot being changed and the changes made to it, only used when holding the lock
+    private Snapshot<CI> pending;
+    private final List<Change> changes = new ArrayList<>();
+    //true while listeners are notified, their changes are collected and published when they all returned
+    private boolean notifying;
 
-    private final List<CommandRegistrationListener> listeners = new ArrayList<>();
+    private volatile CommandContainerBuilder<CI> containerBuilder;
+    //when true commands added with their class are created the first time they are used
+    private volatile boolean lazyRegistration;
+
+    private final List<CommandRegistrationListener> listeners = new CopyOnWriteArrayList<>();
 
     public void setCommandContainerBuilder(CommandContainerBuilder<CI> containerBuilder) {
         this.containerBuilder = containerBuilder;
     }
 
+    /**
+     * When enabled, commands added with {@link #addCommand(Class)} only have their name,
+     * aliases and description read when they are added. The command is created the first
+     * time it is looked up, so adding many commands is cheap. A command that can not be
+     * created is then reported as not found instead of failing when it is added.
+     */
+    public void setLazyRegistration(boolean lazyRegistration) {
+        this.lazyRegistration = lazyRegistration;
+    }
+
     @Override
     public CommandContainer<CI> getCommand(String name, String line) throws CommandNotFoundException {
-        if (registry.containsKey(name))
-            return registry.get(name);
+        Snapshot<CI> current = snapshot;
+        CommandContainer<CI> container = current.commands.get(name);
+        if (container != null)
+            return materialize(name, container);
         //group command
         else if (name.contains(" ")) {
             String[] names = name.split(" ");
-            if (registry.containsKey(names[0])) {
-                return registry.get(names[0]);
+            container = current.commands.get(names[0]);
+            if (container != null) {
+                return materialize(names[0], container);
             }
             throw new CommandNotFoundException("Command: " + names[0] + " was not found.", names[0]);
         } else
@@ -84,20 +115,19 @@ public class MutableCommandRegistryImpl<CI extends CommandInvocation> implements
 
     @Override
     public void completeCommandName(CompleteOperation co, ParsedLine parsedLine) {
+        Snapshot<CI> current = snapshot;
         if (parsedLine.words().size() == 0) {
             //add all
-            for (CommandContainer<CI> command : registry.values()) {
-                ProcessedCommand<? extends Command<CI>, CI> com = command.getParser().getProcessedCommand();
-                if (com.isActivated(new ParsedCommand(com)))
-                    co.addCompletionCandidate(com.name());
+            for (Map.Entry<String, CommandContainer<CI>> command : current.commands.entrySet()) {
+                if (isActivated(command.getValue()))
+                    co.addCompletionCandidate(command.getKey());
             }
         } else {
-            for (CommandContainer<CI> command : registry.values()) {
-                ProcessedCommand<? extends Command<CI>, CI> com = command.getParser().getProcessedCommand();
-                if (com.name().startsWith(parsedLine.selectedWord().word()) &&
-                        com.isActivated(new ParsedCommand(com))) {
-                    co.addCompletionCandidate(com.name());
-                    co.setOffset(co.getCursor() - parsedLine.selectedWord().word().length());
+            String word = parsedLine.selectedWord().word();
+            for (String name : current.names.startingWith(word)) {
+                if (isActivated(current.commands.get(name))) {
+                    co.addCompletionCandidate(name);
+                    co.setOffset(co.getCursor() - word.length());
                     if (parsedLine.selectedIndex() < parsedLine.size() - 1)
                         co.doAppendSeparator(false);
                 }
@@ -105,109 +135,266 @@ public class MutableCommandRegistryImpl<CI extends CommandInvocation> implements
         }
     }
 
+    @Override
+    public boolean isCommandCreated(String name) {
+        CommandContainer<CI> container = snapshot.commands.get(name);
+        return !(container instanceof LazyCommandContainer)
+                || ((LazyCommandContainer<CI>) container).isMaterialized();
+    }
+
+    @Override
+    public List<String> findCommandNames(String prefix) {
+        return snapshot.names.startingWith(prefix);
+    }
+
+    /**
+     * @return the command names when this is called, later changes to the registry are not visible
+     */
     @Override
     public Set<String> getAllCommandNames() {
-        return registry.keySet();
+        return Collections.unmodifiableSet(snapshot.commands.keySet());
     }
 
     @Override
     public void addCommand(CommandContainer<CI> container) {
-        putIntoRegistry(container);
+        change(s -> putIntoRegistry(s, container));
     }
 
     @Override
     public void addCommand(Command command) throws CommandRegistryException {
+        //create the container before taking the lock
+        CommandContainer<CI> container;
         try {
-            putIntoRegistry(getBuilder().create(command));
+            container = getBuilder().create(command);
         } catch (CommandLineParserException e) {
             throw new CommandRegistryException(e.getMessage(), e.getCause());
         }
+        addCommand(container);
     }
 
     @Override
     public void addCommand(Class<? extends Command> command) throws CommandRegistryException {
+        if (lazyRegistration) {
+            LazyCommandContainer<CI> lazy = LazyCommandContainer.of(command, getBuilder());
+            if (lazy != null) {
+                addCommand(lazy);
+                return;
+            }
+        }
+        CommandContainer<CI> container;
         try {
-            putIntoRegistry(getBuilder().create(command));
+            container = create(getBuilder(), command);
         } catch (CommandLineParserException e) {
             throw new CommandRegistryException(e.getMessage(), e.getCause());
         }
+        addCommand(container);
+    }
+
+    /**
+     * Create the container of a command class, copies of it made to execute the command
+     * in several threads are created by the same builder.
+     */
+    static <CI extends CommandInvocation> CommandContainer<CI> create(CommandContainerBuilder<CI> builder,
+            Class<? extends Command> command) throws CommandLineParserException {
+        CommandContainer<CI> container = builder.create(command);
+        if (container instanceof AeshCommandContainer)
+            ((AeshCommandContainer<CI>) container).setContainerBuilder(builder);
+        return container;
     }
 
     @Override
     public void addAllCommands(List<Command> commands) throws CommandRegistryException {
         if (commands != null) {
-            for (Command command : commands)
-                addCommand(command);
+            update(registry -> {
+                for (Command command : commands)
+                    registry.addCommand(command);
+            });
         }
     }
 
     @Override
     public void addAllCommandContainers(List<CommandContainer<CI>> commands) {
         if (commands != null) {
-            for (CommandContainer<CI> command : commands)
-                addCommand(command);
+            change(s -> {
+                for (CommandContainer<CI> command : commands)
+                    putIntoRegistry(s, command);
+            });
         }
     }
 
     @Override
     public boolean contains(String commandName) {
-        return registry.containsKey(commandName) || aliases.containsKey(commandName);
+        Snapshot<CI> current = snapshot;
+        return current.commands.containsKey(commandName) || current.aliases.containsKey(commandName);
 
     }
 
-    private void putIntoRegistry(CommandContainer<CI> commandContainer) {
-        if (!commandContainer.haveBuildError()
-                && !contains(commandContainer.getParser().getProcessedCommand())) {
-            registry.put(commandContainer.getParser().getProcessedCommand().name(),
-                    commandContainer);
-            ProcessedCommand<? extends Command<CI>, CI> command = commandContainer.getParser().getProcessedCommand();
-            for (String alias : command.getAliases()) {
-                aliases.put(alias, commandContainer);
+    /**
+     * Apply all changes made by the update to the registry at once. Other threads see the
+     * registry as it was before the update until it is done, and listeners are notified
+     * after the changes are visible. If the update fails none of its changes are applied.
+     * An update made inside another update is part of that update. Changes made by listeners
+     * are collected until all listeners are notified and then applied at once, before this
+     * method returns, and the listeners are notified of them in turn.
+     * Lookups made during the update do not see its changes.
+     */
+    @Override
+    public void update(RegistryUpdate<CI> update) throws CommandRegistryException {
+        writeLock.lock();
+        try {
+            if (inUpdate()) {
+                update.apply(this);
+                return;
+            }
+            pending = snapshot.copy();
+            boolean done = false;
+            try {
+                update.apply(this);
+                done = true;
+            } finally {
+                publish(done);
             }
-            emit(commandContainer.getParser().getProcessedCommand().name(),
-                    REGISTRATION_ACTION.ADDED);
+        } finally {
+            writeLock.unlock();
         }
     }
 
-    private boolean contains(ProcessedCommand<? extends Command<CI>, CI> command) {
-        if (registry.containsKey(command.name())) {
-            return true;
+    private void change(Consumer<Snapshot<CI>> change) {
+        writeLock.lock();
+        try {
+            if (inUpdate()) {
+                change.accept(pending);
+                return;
+            }
+            pending = snapshot.copy();
+            boolean done = false;
+            try {
+                change.accept(pending);
+                done = true;
+            } finally {
+                publish(done);
+            }
+        } finally {
+            writeLock.unlock();
         }
-        for (String alias : command.getAliases()) {
-            if (aliases.containsKey(alias)) {
-                return true;
+    }
+
+    //called with the lock held, true when a change is part of the pending update
+    private boolean inUpdate() {
+        if (pending == null && notifying)
+            pending = snapshot.copy();
+        return pending != null;
+    }
+
+    //called with the lock held, at the end of the outermost change
+    private void publish(boolean done) {
+        Snapshot<CI> changed = pending;
+        List<Change> published = new ArrayList<>(changes);
+        pending = null;
+        changes.clear();
+        if (!done)
+            return;
+        snapshot = changed;
+        notifying = true;
+        try {
+            while (!published.isEmpty()) {
+                for (Change change : published)
+                    emit(change.name, change.action);
+                //the changes made by the listeners
+                if (pending != null)
+                    snapshot = pending;
+                published = new ArrayList<>(changes);
+                pending = null;
+                changes.clear();
             }
+        } finally {
+            notifying = false;
+            pending = null;
+            changes.clear();
+        }
+    }
+
+    private void putIntoRegistry(Snapshot<CI> s, CommandContainer<CI> commandContainer) {
+        //a lazy container do not know about build errors until it is created
+        if (!(commandContainer instanceof LazyCommandContainer) && commandContainer.haveBuildError())
+            return;
+        String name = nameOf(commandContainer);
+        List<String> commandAliases = aliasesOf(commandContainer);
+        if (!s.contains(name, commandAliases)) {
+            s.commands.put(name, commandContainer);
+            s.names = s.names.with(name);
+            for (String alias : commandAliases) {
+                s.aliases.put(alias, commandContainer);
+            }
+            changes.add(new Change(name, REGISTRATION_ACTION.ADDED));
         }
-        return false;
     }
 
     @Override
     public void removeCommand(String name) {
-        if (registry.containsKey(name)) {
-            CommandContainer<CI> container = registry.remove(name);
-            ProcessedCommand<? extends Command<CI>, CI> command = container.getParser().getProcessedCommand();
-            for (String alias : command.getAliases()) {
-                aliases.remove(alias);
+        if (!snapshot.commands.containsKey(name) && !writeLock.isHeldByCurrentThread())
+            return;
+        change(s -> {
+            CommandContainer<CI> container = s.commands.remove(name);
+            if (container != null) {
+                s.names = s.names.without(name);
+                for (String alias : aliasesOf(container)) {
+                    s.aliases.remove(alias);
+                }
+                changes.add(new Change(name, REGISTRATION_ACTION.REMOVED));
             }
-            emit(name, REGISTRATION_ACTION.REMOVED);
-        }
+        });
     }
 
     private CommandContainerBuilder<CI> getBuilder() {
-        if (containerBuilder == null)
-            containerBuilder = new AeshCommandContainerBuilder<>();
-        return containerBuilder;
+        CommandContainerBuilder<CI> builder = containerBuilder;
+        if (builder == null) {
+            builder = new AeshCommandContainerBuilder<>();
+            containerBuilder = builder;
+        }
+        return builder;
     }
 
     @Override
     public CommandContainer<CI> getCommandByAlias(String alias) throws CommandNotFoundException {
-        if (aliases.containsKey(alias)) {
-            return aliases.get(alias);
+        CommandContainer<CI> container = snapshot.aliases.get(alias);
+        if (container != null) {
+            return materialize(alias, container);
         } else {
             throw new CommandNotFoundException("Command: named " + alias + " was not found.", alias);
         }
     }
 
+    private CommandContainer<CI> materialize(String name, CommandContainer<CI> container) throws CommandNotFoundException {
+        if (!(container instanceof LazyCommandContainer))
+            return container;
+        LazyCommandContainer<CI> lazy = (LazyCommandContainer<CI>) container;
+        CommandContainer<CI> created = lazy.container();
+        if (created == null)
+            throw new CommandNotFoundException("Command: " + name + " could not be created: "
+                    + lazy.getBuildErrorMessage(), name);
+        return created;
+    }
+
+    private String nameOf(CommandContainer<CI> container) {
+        if (container instanceof LazyCommandContainer)
+            return ((LazyCommandContainer<CI>) container).name();
+        return container.getParser().getProcessedCommand().name();
+    }
+
+    private List<String> aliasesOf(CommandContainer<CI> container) {
+        if (container instanceof LazyCommandContainer)
+            return ((LazyCommandContainer<CI>) container).aliases();
+        return container.getParser().getProcessedCommand().getAliases();
+    }
+
+    private boolean isActivated(CommandContainer<CI> container) {
+        //lazy containers are only used for commands without an activator
+        if (container instanceof LazyCommandContainer)
+            return true;
+        return container.getParser().getProcessedCommand().isActivated();
+    }
+
     private void emit(String name, REGISTRATION_ACTION action) {
         for (CommandRegistrationListener listener : listeners) {
             listener.registrationAction(name, action);
@@ -224,4 +411,49 @@ public class MutableCommandRegistryImpl<CI extends CommandInvocation> implements
         listeners.remove(listener);
     }
 
+    private static final class Change {
+        private final String name;
+        private final REGISTRATION_ACTION action;
+
+        private Change(String name, REGISTRATION_ACTION action) {
+            this.name = name;
+            this.action = action;
+        }
+    }
+
+    /**
+     * The commands of the registry at one point in time. A published snapshot is never changed.
+     */
+    private static final class Snapshot<CI extends CommandInvocation> {
+        private final Map<String, CommandContainer<CI>> commands;
+        private final Map<String, CommandContainer<CI>> aliases;
+        private CommandNameTrie names;
+
+        private Snapshot() {
+            this(new HashMap<>(), new HashMap<>(), CommandNameTrie.EMPTY);
+        }
+
+        private Snapshot(Map<String, CommandContainer<CI>> commands, Map<String, CommandContainer<CI>> aliases,
+                CommandNameTrie names) {
+            this.commands = commands;
+            this.aliases = aliases;
+            this.names = names;
+        }
+
+        private Snapshot<CI> copy() {
+            return new Snapshot<>(new HashMap<>(commands), new HashMap<>(aliases), names);
+        }
+
+        private boolean contains(String name, List<String> commandAliases) {
+            if (commands.containsKey(name)) {
+                return true;
+            }
+            for (String alias : commandAliases) {
+                if (aliases.containsKey(alias)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.job;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Argument;
+
+/**
+ * Shows that a job continues in the background.
+ * Jobs can not be suspended, so a job that is not done is always running in the background.
+ *
+ * @author Aesh team
+ */
+@CommandDefinition(name = "bg", description = "continue a job in the background")
+public class BgCommand implements Command<CommandInvocation> {
+
+    @Argument(description = "job number, default is the current job")
+    private String job;
+
+    private final JobTable jobs;
+
+    public BgCommand(JobTable jobs) {
+        this.jobs = jobs;
+    }
+
+    @Override
+    public CommandResult execute(CommandInvocation commandInvocation) throws CommandException {
+        Job found = jobs.find(job);
+        if (found == null)
+            throw new CommandException("bg: " + (job != null ? job : "current") + ": no such job");
+        if (found.isDone())
+            throw new CommandException("bg: job " + found.id() + " has terminated");
+        commandInvocation.println("[" + found.id() + "] " + found.line() + " &");
+        return CommandResult.SUCCESS;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.job;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Argument;
+
+/**
+ * Waits for a background job in the foreground and prints its output.
+ * Ctrl-C stops the job.
+ *
+ * @author Aesh team
+ */
+@CommandDefinition(name = "fg", description = "wait for a background job and print its output")
+public class FgCommand implements Command<CommandInvocation> {
+
+    @Argument(description = "job number, default is the current job")
+    private String job;
+
+    private final JobTable jobs;
+
+    public FgCommand(JobTable jobs) {
+        this.jobs = jobs;
+    }
+
+    @Override
+    public CommandResult execute(CommandInvocation commandInvocation) throws CommandException, InterruptedException {
+        Job found = jobs.find(job);
+        if (found == null)
+            throw new CommandException("fg: " + (job != null ? job : "current") + ": no such job");
+        commandInvocation.println(found.line());
+        CommandResult result;
+        try {
+            result = found.await();
+        } catch (InterruptedException e) {
+            found.cancel();
+            jobs.remove(found);
+            throw e;
+        }
+        jobs.remove(found);
+        commandInvocation.print(found.output());
+        if (found.failure() != null && found.failure().getMessage() != null)
+            commandInvocation.println(found.failure().getMessage());
+        return result;
+    }
+}
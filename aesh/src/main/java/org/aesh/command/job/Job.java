@@ -0,0 +1,188 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.job;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.aesh.command.CommandResult;
+
+/**
+ * A command executed in the background, eg: command &amp;
+ *
+ * @author Aesh team
+ */
+public final class Job {
+
+    public enum Status {
+        RUNNING("Running"),
+        DONE("Done"),
+        FAILED("Exit"),
+        CANCELLED("Cancelled");
+
+        private final String label;
+
+        Status(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    private final int id;
+    private final String line;
+    private final JobOutput output;
+    private final CompletableFuture<CommandResult> future = new CompletableFuture<>();
+    private Thread thread;
+    private volatile Throwable failure;
+
+    Job(int id, String line, JobOutput output) {
+        this.id = id;
+        this.line = line;
+        this.output = output;
+    }
+
+    void run(Callable<CommandResult> task) {
+        synchronized (this) {
+            if (future.isDone())
+                return;
+            thread = Thread.currentThread();
+        }
+        try {
+            CommandResult result = task.call();
+            future.complete(result != null ? result : CommandResult.SUCCESS);
+        } catch (Throwable t) {
+            failure = t;
+            future.complete(CommandResult.FAILURE);
+        } finally {
+            synchronized (this) {
+                thread = null;
+            }
+            //an interrupt from cancel should not be seen by the next task of this thread
+            if (future.isCancelled())
+                Thread.interrupted();
+        }
+    }
+
+    public int id() {
+        return id;
+    }
+
+    /**
+     * @return the command line of the job, without the &amp;
+     */
+    public String line() {
+        return line;
+    }
+
+    /**
+     * @return the output of the job so far, output redirected by the command line is not included
+     */
+    public String output() {
+        return output != null ? output.text() : "";
+    }
+
+    public Status status() {
+        if (!future.isDone())
+            return Status.RUNNING;
+        if (future.isCancelled())
+            return Status.CANCELLED;
+        return result() == CommandResult.SUCCESS ? Status.DONE : Status.FAILED;
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * @return the result of the job, null while it is running, FAILURE if it was cancelled
+     */
+    public CommandResult result() {
+        if (!future.isDone())
+            return null;
+        try {
+            return future.getNow(null);
+        } catch (CancellationException e) {
+            return CommandResult.FAILURE;
+        }
+    }
+
+    /**
+     * @return the exception the job failed with, or null
+     */
+    public Throwable failure() {
+        return failure;
+    }
+
+    /**
+     * Wait until the job is done.
+     *
+     * @return the result of the job
+     * @throws InterruptedException if the waiting thread is interrupted, the job is not cancelled
+     */
+    public CommandResult await() throws InterruptedException {
+        try {
+            return future.get();
+        } catch (CancellationException e) {
+            return CommandResult.FAILURE;
+        } catch (ExecutionException e) {
+            //the future is never completed exceptionally
+            return CommandResult.FAILURE;
+        }
+    }
+
+    /**
+     * Stop the job, the command is interrupted like with Ctrl-C.
+     *
+     * @return true if the job was running
+     */
+    public boolean cancel() {
+        if (!future.cancel(true))
+            return false;
+        synchronized (this) {
+            if (thread != null)
+                thread.interrupt();
+        }
+        return true;
+    }
+
+    /**
+     * @return a future completed with the result of the job
+     */
+    public CompletableFuture<CommandResult> future() {
+        return future.thenApply(r -> r);
+    }
+
+    @Override
+    public String toString() {
+        Status status = status();
+        StringBuilder sb = new StringBuilder("[").append(id).append("]  ").append(status.label());
+        for (int i = status.label().length(); i < 10; i++)
+            sb.append(' ');
+        sb.append(line);
+        if (status == Status.RUNNING)
+            sb.append(" &");
+        return sb.toString();
+    }
+}
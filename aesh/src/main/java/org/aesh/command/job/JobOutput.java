@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.job;
+
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+import org.aesh.command.impl.operator.OutputDelegate;
+
+/**
+ * Collects the output of a background job, it can be read while the job is running.
+ * Only the last {@link #DEFAULT_MAX_LENGTH} characters (or the given maximum) are kept.
+ *
+ * @author Aesh team
+ */
+public final class JobOutput extends OutputDelegate {
+
+    public static final int DEFAULT_MAX_LENGTH = 64 * 1024;
+
+    private final StringBuilder text = new StringBuilder();
+    private final int maxLength;
+
+    public JobOutput() {
+        this(DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param maxLength the number of characters that are kept, older output is dropped
+     */
+    public JobOutput(int maxLength) {
+        if (maxLength < 1)
+            throw new IllegalArgumentException("maxLength must be positive: " + maxLength);
+        this.maxLength = maxLength;
+    }
+
+    private synchronized void keep(CharSequence chars, int start, int end) {
+        if (end - start >= maxLength) {
+            text.setLength(0);
+            start = end - maxLength;
+        }
+        text.append(chars, start, end);
+        if (text.length() > maxLength)
+            text.delete(0, text.length() - maxLength);
+    }
+
+    @Override
+    protected Writer buildWriter() {
+        return new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) {
+                keep(CharBuffer.wrap(cbuf), off, off + len);
+            }
+
+            @Override
+            public void write(String str, int off, int len) {
+                keep(str, off, off + len);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * The output is appended to a buffer, there is nothing to flush
+     */
+    @Override
+    protected boolean flushOnWrite() {
+        return false;
+    }
+
+    /**
+     * @return the output written so far, at most the last maxLength characters
+     */
+    public synchronized String text() {
+        return text.toString();
+    }
+}
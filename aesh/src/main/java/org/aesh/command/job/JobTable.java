@@ -0,0 +1,161 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.job;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aesh.command.CommandResult;
+
+/**
+ * The background jobs of a console.
+ *
+ * Jobs are numbered from 1, a new job gets the number after the highest number in the table.
+ * A job stays in the table after it is done, until it has been reported with
+ * {@link #removeDone()} or waited for in the foreground. When nobody reports the jobs, only the
+ * last {@link #MAX_DONE_JOBS} done jobs are kept, older ones are dropped when a new job is started.
+ *
+ * @author Aesh team
+ */
+public class JobTable {
+
+    public static final int MAX_DONE_JOBS = 32;
+
+    private final TreeMap<Integer, Job> jobs = new TreeMap<>();
+    private final Executor executor;
+
+    /**
+     * Every job is executed in a new daemon thread.
+     */
+    public JobTable() {
+        this(newThreadExecutor());
+    }
+
+    public JobTable(Executor executor) {
+        this.executor = executor;
+    }
+
+    private static Executor newThreadExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "aesh-job-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.start();
+        };
+    }
+
+    /**
+     * Start a new job.
+     *
+     * @param line command line of the job
+     * @param output where the output of the job is collected, can be null
+     * @param task executes the command
+     * @return the job
+     */
+    public Job start(String line, JobOutput output, Callable<CommandResult> task) {
+        Job job;
+        synchronized (this) {
+            expireDone();
+            job = new Job(jobs.isEmpty() ? 1 : jobs.lastKey() + 1, line.trim(), output);
+            jobs.put(job.id(), job);
+        }
+        try {
+            executor.execute(() -> job.run(task));
+        } catch (RuntimeException e) {
+            remove(job);
+            throw e;
+        }
+        return job;
+    }
+
+    public synchronized List<Job> jobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    public synchronized Job get(int id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * @return the most recently started job, or null
+     */
+    public synchronized Job current() {
+        return jobs.isEmpty() ? null : jobs.lastEntry().getValue();
+    }
+
+    /**
+     * Find a job by its number, with or without a leading %.
+     *
+     * @param spec job number, the current job if null
+     * @return the job, or null if there is no such job
+     */
+    public Job find(String spec) {
+        if (spec == null || spec.isEmpty() || spec.equals("%") || spec.equals("%%") || spec.equals("%+"))
+            return current();
+        try {
+            return get(Integer.parseInt(spec.startsWith("%") ? spec.substring(1) : spec));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public synchronized void remove(Job job) {
+        jobs.remove(job.id(), job);
+    }
+
+    /**
+     * Remove the jobs that are done.
+     *
+     * @return the removed jobs, to report them
+     */
+    public synchronized List<Job> removeDone() {
+        List<Job> done = new ArrayList<>();
+        for (Iterator<Job> it = jobs.values().iterator(); it.hasNext();) {
+            Job job = it.next();
+            if (job.isDone()) {
+                done.add(job);
+                it.remove();
+            }
+        }
+        return done;
+    }
+
+    private void expireDone() {
+        int done = 0;
+        for (Job job : jobs.values())
+            if (job.isDone())
+                done++;
+        for (Iterator<Job> it = jobs.values().iterator(); it.hasNext() && done >= MAX_DONE_JOBS;) {
+            if (it.next().isDone()) {
+                it.remove();
+                done--;
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return jobs.size();
+    }
+}
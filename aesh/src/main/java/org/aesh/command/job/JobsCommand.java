@@ -0,0 +1,48 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.job;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+
+/**
+ * Lists the background jobs, jobs that are done are removed after they are listed.
+ *
+ * @author Aesh team
+ */
+@CommandDefinition(name = "jobs", description = "list the background jobs")
+public class JobsCommand implements Command<CommandInvocation> {
+
+    private final JobTable jobs;
+
+    public JobsCommand(JobTable jobs) {
+        this.jobs = jobs;
+    }
+
+    @Override
+    public CommandResult execute(CommandInvocation commandInvocation) {
+        for (Job job : jobs.jobs())
+            commandInvocation.println(job.toString());
+        jobs.removeDone();
+        return CommandResult.SUCCESS;
+    }
+}
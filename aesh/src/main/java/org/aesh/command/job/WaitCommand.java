@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.job;
+
+import java.util.List;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Arguments;
+
+/**
+ * Waits for background jobs to be done, all jobs if none are given.
+ * The result is the result of the last job waited for.
+ *
+ * @author Aesh team
+ */
+@CommandDefinition(name = "wait", description = "wait for background jobs to be done")
+public class WaitCommand implements Command<CommandInvocation> {
+
+    @Arguments(description = "job numbers, default is all jobs")
+    private List<String> ids;
+
+    private final JobTable jobs;
+
+    public WaitCommand(JobTable jobs) {
+        this.jobs = jobs;
+    }
+
+    @Override
+    public CommandResult execute(CommandInvocation commandInvocation) throws CommandException, InterruptedException {
+        CommandResult result = CommandResult.SUCCESS;
+        if (ids == null || ids.isEmpty()) {
+            for (Job job : jobs.jobs())
+                result = job.await();
+            return result;
+        }
+        for (String id : ids) {
+            Job job = jobs.find(id);
+            if (job == null)
+                throw new CommandException("wait: " + id + ": no such job");
+            result = job.await();
+        }
+        return result;
+    }
+}
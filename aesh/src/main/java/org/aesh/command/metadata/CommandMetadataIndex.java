@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.metadata;
+
+/**
+ * Index of the {@link CommandMetadataProvider} implementations generated in one compilation.
+ * <p>
+ * Implementations are generated by the aesh-processor annotation processor and discovered
+ * via {@link java.util.ServiceLoader}. Only the provider that is asked for is loaded, so
+ * the providers of commands that are never used are not loaded at all.
+ *
+ * @author Aesh team
+ */
+public interface CommandMetadataIndex {
+
+    /**
+     * @return the class names of the providers in this index
+     */
+    String[] providerNames();
+
+    /**
+     * Create the provider of a command.
+     *
+     * @param commandClassName the binary name of the command class
+     * @return the provider, or null if the command is not part of this index
+     */
+    CommandMetadataProvider<?> provider(String commandClassName);
+}
@@ -19,6 +19,8 @@ package org.aesh.command.metadata;
 
 import org.aesh.command.Command;
 import org.aesh.command.impl.internal.ProcessedCommand;
+import org.aesh.command.impl.parser.CommandLineParser;
+import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.parser.CommandLineParserException;
 
 /**
@@ -56,6 +58,18 @@ public interface CommandMetadataProvider<C extends Command> {
     @SuppressWarnings("rawtypes")
     ProcessedCommand buildProcessedCommand(C instance) throws CommandLineParserException;
 
+    /**
+     * Create a parser specialised for this command.
+     *
+     * @param processedCommand the metadata created by {@link #buildProcessedCommand(Command)}
+     * @param <CI> the invocation type
+     * @return the parser, or null to use the generic parser
+     */
+    default <CI extends CommandInvocation> CommandLineParser<CI> createParser(
+            ProcessedCommand<Command<CI>, CI> processedCommand) {
+        return null;
+    }
+
     /**
      * @return true if this command is a group command with subcommands
      */
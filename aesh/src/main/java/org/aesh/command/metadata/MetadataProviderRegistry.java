@@ -17,21 +17,44 @@
  */
 package org.aesh.command.metadata;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.aesh.command.Command;
+import org.aesh.terminal.utils.LoggerUtil;
 
 /**
- * Registry that discovers and caches {@link CommandMetadataProvider} implementations
- * via {@link ServiceLoader}. Thread-safe with lazy initialization.
+ * Registry that discovers and caches {@link CommandMetadataProvider} implementations.
+ * Thread-safe with lazy initialization.
+ * <p>
+ * The generated {@link CommandMetadataIndex} classes are discovered via {@link ServiceLoader},
+ * and a provider is only loaded the first time its command is looked up. Providers that
+ * are only listed in {@code META-INF/services}, generated before the index existed, are
+ * all loaded on first access.
  *
  * @author Aesh team
  */
 public final class MetadataProviderRegistry {
 
-    private static volatile Map<Class<?>, CommandMetadataProvider<?>> providers;
+    private static final Logger LOGGER = LoggerUtil.getLogger(MetadataProviderRegistry.class.getName());
+    private static final String PROVIDER_SERVICE = "META-INF/services/" + CommandMetadataProvider.class.getName();
+    //cached when a command has no provider
+    private static final Object NONE = new Object();
+
+    private static volatile Registry registry;
 
     private MetadataProviderRegistry() {
     }
@@ -45,40 +68,108 @@ public final class MetadataProviderRegistry {
      */
     @SuppressWarnings("unchecked")
     public static <C extends Command> CommandMetadataProvider<C> getProvider(Class<C> commandClass) {
-        return (CommandMetadataProvider<C>) getProviders().get(commandClass);
+        Registry current = getRegistry();
+        Object provider = current.providers.get(commandClass);
+        if (provider == null) {
+            provider = current.findIndexed(commandClass);
+            Object existing = current.providers.putIfAbsent(commandClass, provider);
+            if (existing != null)
+                provider = existing;
+        }
+        return provider == NONE ? null : (CommandMetadataProvider<C>) provider;
     }
 
-    private static Map<Class<?>, CommandMetadataProvider<?>> getProviders() {
-        Map<Class<?>, CommandMetadataProvider<?>> result = providers;
+    private static Registry getRegistry() {
+        Registry result = registry;
         if (result == null) {
             synchronized (MetadataProviderRegistry.class) {
-                result = providers;
+                result = registry;
                 if (result == null) {
-                    result = loadProviders();
-                    providers = result;
+                    result = new Registry();
+                    registry = result;
                 }
             }
         }
         return result;
     }
 
-    @SuppressWarnings("rawtypes")
-    private static Map<Class<?>, CommandMetadataProvider<?>> loadProviders() {
-        Map<Class<?>, CommandMetadataProvider<?>> map = new ConcurrentHashMap<>();
-        ServiceLoader<CommandMetadataProvider> loader = ServiceLoader.load(CommandMetadataProvider.class);
-        for (CommandMetadataProvider provider : loader) {
-            map.put(provider.commandType(), provider);
-        }
-        return map;
-    }
-
     /**
      * Reset the registry, forcing re-discovery on next access.
      * Package-private for testing.
      */
     static void reset() {
         synchronized (MetadataProviderRegistry.class) {
-            providers = null;
+            registry = null;
+        }
+    }
+
+    private static final class Registry {
+
+        private final List<CommandMetadataIndex> indexes = new ArrayList<>();
+        private final Map<Class<?>, Object> providers = new ConcurrentHashMap<>();
+
+        Registry() {
+            Set<String> indexed = new HashSet<>();
+            for (CommandMetadataIndex index : ServiceLoader.load(CommandMetadataIndex.class)) {
+                indexes.add(index);
+                for (String name : index.providerNames())
+                    indexed.add(name);
+            }
+            loadUnindexedProviders(indexed);
+        }
+
+        Object findIndexed(Class<?> commandClass) {
+            for (CommandMetadataIndex index : indexes) {
+                CommandMetadataProvider<?> provider = index.provider(commandClass.getName());
+                //the same class name might be loaded by another class loader
+                if (provider != null && provider.commandType() == commandClass)
+                    return provider;
+            }
+            return NONE;
+        }
+
+        private void loadUnindexedProviders(Set<String> indexed) {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            if (loader == null)
+                loader = ClassLoader.getSystemClassLoader();
+            try {
+                Enumeration<URL> services = loader.getResources(PROVIDER_SERVICE);
+                while (services.hasMoreElements()) {
+                    for (String name : readServiceFile(services.nextElement())) {
+                        if (indexed.add(name))
+                            loadProvider(name, loader);
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to read " + PROVIDER_SERVICE, e);
+            }
+        }
+
+        private void loadProvider(String name, ClassLoader loader) {
+            try {
+                CommandMetadataProvider<?> provider = (CommandMetadataProvider<?>) Class.forName(name, true, loader)
+                        .getDeclaredConstructor().newInstance();
+                providers.put(provider.commandType(), provider);
+            } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+                LOGGER.log(Level.WARNING, "Failed to load command metadata provider " + name, e);
+            }
+        }
+
+        private static List<String> readServiceFile(URL url) throws IOException {
+            List<String> names = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int comment = line.indexOf('#');
+                    if (comment >= 0)
+                        line = line.substring(0, comment);
+                    line = line.trim();
+                    if (!line.isEmpty())
+                        names.add(line);
+                }
+            }
+            return names;
         }
     }
 }
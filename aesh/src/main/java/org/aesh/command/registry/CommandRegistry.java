@@ -19,6 +19,7 @@
  */
 package org.aesh.command.registry;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -99,6 +100,29 @@ public interface CommandRegistry<CI extends CommandInvocation> {
      */
     Set<String> getAllCommandNames();
 
+    /**
+     * Commands can be registered lazily, then they are created the first time they are looked up.
+     *
+     * @param name command name
+     * @return false if the command is registered but not created yet
+     */
+    default boolean isCommandCreated(String name) {
+        return true;
+    }
+
+    /**
+     * @param prefix command name prefix
+     * @return names of all commands that start with the given prefix
+     */
+    default List<String> findCommandNames(String prefix) {
+        List<String> names = new ArrayList<>();
+        for (String name : getAllCommandNames()) {
+            if (name.startsWith(prefix))
+                names.add(name);
+        }
+        return names;
+    }
+
     default boolean contains(String commandName) {
         if (getAllCommandNames().contains(commandName))
             return true;
@@ -33,8 +33,16 @@ public interface MutableCommandRegistry<CI extends CommandInvocation> extends Co
 
     void addCommand(CommandContainer<CI> container);
 
+    /**
+     * Add a command instance. The instance and its parse state are shared by all executions,
+     * so the command must not be executed by several threads at the same time.
+     */
     void addCommand(Command command) throws CommandRegistryException;
 
+    /**
+     * Add a command by its class. The runtime creates more instances when the command is
+     * executed by several threads at the same time.
+     */
     void addCommand(Class<? extends Command> command) throws CommandRegistryException;
 
     void addAllCommands(List<Command> commands) throws CommandRegistryException;
@@ -42,4 +50,23 @@ public interface MutableCommandRegistry<CI extends CommandInvocation> extends Co
     void addAllCommandContainers(List<CommandContainer<CI>> commands);
 
     void removeCommand(String name);
+
+    /**
+     * Make several changes to the registry. Implementations that support it make all
+     * changes visible at once, eg when a plugin with many commands is reloaded.
+     *
+     * @param update adds and removes commands using the given registry
+     * @throws CommandRegistryException if a command could not be added
+     */
+    default void update(RegistryUpdate<CI> update) throws CommandRegistryException {
+        update.apply(this);
+    }
+
+    /**
+     * Changes made to a registry with {@link #update(RegistryUpdate)}.
+     */
+    @FunctionalInterface
+    interface RegistryUpdate<CI extends CommandInvocation> {
+        void apply(MutableCommandRegistry<CI> registry) throws CommandRegistryException;
+    }
 }
@@ -36,6 +36,7 @@ import org.aesh.command.invocation.InvocationProviders;
 import org.aesh.command.registry.CommandRegistry;
 import org.aesh.command.validator.ValidatorInvocationProvider;
 import org.aesh.console.AeshContext;
+import org.aesh.console.ExecutionStrategy;
 import org.aesh.io.Resource;
 import org.aesh.readline.alias.AliasManager;
 import org.aesh.readline.editing.EditMode;
@@ -144,6 +145,12 @@ public interface Settings<CI extends CommandInvocation>
      */
     boolean aliasEnabled();
 
+    /**
+     * Are the job control commands (jobs, fg, bg and wait) added to the console,
+     * commands with the same names in the registry are not replaced. Default is false.
+     */
+    boolean jobControlEnabled();
+
     /**
      * Is alias persisted
      */
@@ -299,10 +306,53 @@ public interface Settings<CI extends CommandInvocation>
 
     String[] getScanForCommandPackages();
 
+    /**
+     * File where the classes with a command annotation found in jar files are cached when
+     * scanning for commands, see {@link #setScanForCommandPackages(String...)}.
+     * Jars that have not changed since the last scan are not scanned again.
+     *
+     * @param file cache file, null to not cache the scan
+     */
+    void setScanCacheFile(File file);
+
+    File scanCacheFile();
+
     void setEnableSearchInPaging(boolean enable);
 
     boolean enableSearchInPaging();
 
+    /**
+     * Size in bytes of the buffer between two piped commands.
+     * When set, piped commands run at the same time and the output is streamed to the next
+     * command through a buffer of this size. Default is 0, the output of a command is
+     * collected before the next command is executed.
+     *
+     * @param size buffer size, 0 to disable streaming
+     */
+    void setPipeBufferSize(int size);
+
+    int pipeBufferSize();
+
+    /**
+     * Size in bytes of the buffer used when the output of a command is redirected to a file.
+     * The output is written to the file when the buffer is full and when the command is done.
+     *
+     * @param size buffer size, 0 to use the default size (64KB)
+     */
+    void setRedirectionBufferSize(int size);
+
+    int redirectionBufferSize();
+
+    /**
+     * Set how the console executes commands, see {@link ExecutionStrategy}.
+     * Default is a new platform thread for every command.
+     *
+     * @param strategy execution strategy
+     */
+    void setExecutionStrategy(ExecutionStrategy strategy);
+
+    ExecutionStrategy executionStrategy();
+
     /**
      * Get sub-command mode settings.
      *
@@ -37,6 +37,7 @@ import org.aesh.command.invocation.InvocationProviders;
 import org.aesh.command.registry.CommandRegistry;
 import org.aesh.command.validator.ValidatorInvocationProvider;
 import org.aesh.console.AeshContext;
+import org.aesh.console.ExecutionStrategy;
 import org.aesh.io.Resource;
 import org.aesh.readline.alias.AliasManager;
 import org.aesh.readline.editing.EditMode;
@@ -135,6 +136,10 @@ public class SettingsBuilder<CI extends CommandInvocation> {
         return apply(c -> c.settings.setAliasEnabled(enableAlias));
     }
 
+    public SettingsBuilder<CI> enableJobControl(boolean enableJobControl) {
+        return apply(c -> c.settings.setJobControlEnabled(enableJobControl));
+    }
+
     public SettingsBuilder<CI> persistAlias(boolean persistAlias) {
         return apply(c -> c.settings.setPersistAlias(persistAlias));
     }
@@ -265,10 +270,26 @@ public class SettingsBuilder<CI extends CommandInvocation> {
         return apply(c -> c.settings.setScanForCommandPackages(packages));
     }
 
+    public SettingsBuilder<CI> scanCacheFile(File file) {
+        return apply(c -> c.settings.setScanCacheFile(file));
+    }
+
     public SettingsBuilder<CI> enableSearchInPaging(boolean enable) {
         return apply(c -> c.settings.setEnableSearchInPaging(enable));
     }
 
+    public SettingsBuilder<CI> pipeBufferSize(int size) {
+        return apply(c -> c.settings.setPipeBufferSize(size));
+    }
+
+    public SettingsBuilder<CI> redirectionBufferSize(int size) {
+        return apply(c -> c.settings.setRedirectionBufferSize(size));
+    }
+
+    public SettingsBuilder<CI> executionStrategy(ExecutionStrategy strategy) {
+        return apply(c -> c.settings.setExecutionStrategy(strategy));
+    }
+
     public SettingsBuilder<CI> subCommandModeSettings(SubCommandModeSettings subCommandModeSettings) {
         return apply(c -> c.settings.setSubCommandModeSettings(subCommandModeSettings));
     }
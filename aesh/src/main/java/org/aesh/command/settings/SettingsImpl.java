@@ -39,6 +39,7 @@ import org.aesh.command.registry.CommandRegistry;
 import org.aesh.command.validator.ValidatorInvocationProvider;
 import org.aesh.console.AeshContext;
 import org.aesh.console.DefaultAeshContext;
+import org.aesh.console.ExecutionStrategy;
 import org.aesh.io.FileResource;
 import org.aesh.io.Resource;
 import org.aesh.readline.alias.AliasManager;
@@ -73,6 +74,7 @@ public class SettingsImpl<CI extends CommandInvocation>
     private QuitHandler quitHandler;
     private File aliasFile;
     private boolean aliasEnabled = true;
+    private boolean jobControlEnabled;
     private boolean persistAlias = true;
     private boolean enableOperatorParser = true;
     private boolean manEnabled = true;
@@ -100,7 +102,11 @@ public class SettingsImpl<CI extends CommandInvocation>
     private boolean echoCtrl = true;
     private Consumer<Void> interruptHandler;
     private String[] scanPackages;
+    private File scanCacheFile;
     private boolean enableSearchPaging;
+    private int pipeBufferSize;
+    private int redirectionBufferSize;
+    private ExecutionStrategy executionStrategy;
     private AliasManager aliasManager;
     private Consumer<Void> connectionClosedHandler;
     private SubCommandModeSettings subCommandModeSettings;
@@ -126,6 +132,7 @@ public class SettingsImpl<CI extends CommandInvocation>
         setHistoryPersistent(baseSettings.historyPersistent());
         setAliasFile(baseSettings.aliasFile());
         setAliasEnabled(baseSettings.aliasEnabled());
+        setJobControlEnabled(baseSettings.jobControlEnabled());
         setPersistAlias(baseSettings.persistAlias());
         setQuitHandler(baseSettings.quitHandler());
         enableOperatorParser(baseSettings.operatorParserEnabled());
@@ -153,7 +160,11 @@ public class SettingsImpl<CI extends CommandInvocation>
         redrawPromptOnInterrupt(baseSettings.isRedrawPromptOnInterrupt());
         setInterruptHandler(baseSettings.getInterruptHandler());
         setScanForCommandPackages(baseSettings.getScanForCommandPackages());
+        setScanCacheFile(baseSettings.scanCacheFile());
         setEnableSearchInPaging(baseSettings.enableSearchInPaging());
+        setPipeBufferSize(baseSettings.pipeBufferSize());
+        setRedirectionBufferSize(baseSettings.redirectionBufferSize());
+        setExecutionStrategy(baseSettings.executionStrategy());
         setAliasManager(baseSettings.aliasManager());
         setConnectionClosedHandler(baseSettings.connectionClosedHandler());
         setSubCommandModeSettings(baseSettings.subCommandModeSettings());
@@ -510,6 +521,15 @@ public class SettingsImpl<CI extends CommandInvocation>
         aliasEnabled = enabled;
     }
 
+    @Override
+    public boolean jobControlEnabled() {
+        return jobControlEnabled;
+    }
+
+    public void setJobControlEnabled(boolean enabled) {
+        jobControlEnabled = enabled;
+    }
+
     public void setPersistAlias(boolean persist) {
         persistAlias = persist;
     }
@@ -810,6 +830,16 @@ public class SettingsImpl<CI extends CommandInvocation>
         return scanPackages;
     }
 
+    @Override
+    public void setScanCacheFile(File file) {
+        scanCacheFile = file;
+    }
+
+    @Override
+    public File scanCacheFile() {
+        return scanCacheFile;
+    }
+
     @Override
     public void setEnableSearchInPaging(boolean enable) {
         enableSearchPaging = enable;
@@ -820,6 +850,38 @@ public class SettingsImpl<CI extends CommandInvocation>
         return enableSearchPaging;
     }
 
+    @Override
+    public void setPipeBufferSize(int size) {
+        pipeBufferSize = size;
+    }
+
+    @Override
+    public int pipeBufferSize() {
+        return pipeBufferSize;
+    }
+
+    @Override
+    public void setRedirectionBufferSize(int size) {
+        redirectionBufferSize = size;
+    }
+
+    @Override
+    public int redirectionBufferSize() {
+        return redirectionBufferSize;
+    }
+
+    @Override
+    public void setExecutionStrategy(ExecutionStrategy strategy) {
+        executionStrategy = strategy;
+    }
+
+    @Override
+    public ExecutionStrategy executionStrategy() {
+        if (executionStrategy == null)
+            executionStrategy = ExecutionStrategy.threadPerProcess();
+        return executionStrategy;
+    }
+
     @Override
     public SubCommandModeSettings subCommandModeSettings() {
         if (subCommandModeSettings == null) {
@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.console;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides which thread a command {@link Process} is executed in.
+ *
+ * A Ctrl-C interrupts the thread that runs the process, so a strategy must run every
+ * process in a thread that is not used for anything else while the process is running.
+ *
+ * @author Aesh team
+ */
+@FunctionalInterface
+public interface ExecutionStrategy {
+
+    /**
+     * Run the process in another thread and return without waiting for it.
+     *
+     * @param process process
+     */
+    void execute(Runnable process);
+
+    /**
+     * A new platform thread for every process, this is the default.
+     */
+    static ExecutionStrategy threadPerProcess() {
+        return process -> new Thread(process, "aesh-process").start();
+    }
+
+    /**
+     * A pool of at most maxThreads daemon threads, processes are queued when all threads are busy.
+     * Idle threads are stopped after a minute.
+     *
+     * @param maxThreads max number of threads
+     */
+    static ExecutionStrategy boundedPool(int maxThreads) {
+        if (maxThreads < 1)
+            throw new IllegalArgumentException("The pool needs at least one thread: " + maxThreads);
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = process -> {
+            Thread thread = new Thread(process, "aesh-process-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads, maxThreads,
+                1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), factory);
+        pool.allowCoreThreadTimeOut(true);
+        return pool::execute;
+    }
+
+    /**
+     * A new virtual thread for every process. Virtual threads are only available on JDK 21+,
+     * on older versions this is the same as {@link #boundedPool(int)} with fallbackThreads.
+     *
+     * @param fallbackThreads max number of threads when virtual threads are not available
+     */
+    static ExecutionStrategy virtualThreads(int fallbackThreads) {
+        ExecutorService executor = VirtualThreads.executor();
+        if (executor == null)
+            return boundedPool(fallbackThreads);
+        return executor::execute;
+    }
+
+    /**
+     * @return true if {@link #virtualThreads(int)} will use virtual threads
+     */
+    static boolean virtualThreadsAvailable() {
+        return VirtualThreads.executor() != null;
+    }
+}
@@ -19,6 +19,8 @@
  */
 package org.aesh.console;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -36,14 +38,22 @@ import org.aesh.terminal.utils.Config;
 import org.aesh.terminal.utils.LoggerUtil;
 
 /**
+ * Executes a command and forwards Ctrl-C to it as a thread interrupt.
+ * The thread it runs in is chosen by the {@link ExecutionStrategy} of the {@link ProcessManager}.
+ *
+ * A Process used to be a {@link Thread}, the thread methods that callers used are kept as
+ * deprecated methods that act on the thread currently running the process.
+ *
  * @author Aesh team
  */
-public class Process extends Thread implements Consumer<Signal> {
+public class Process implements Runnable, Consumer<Signal> {
 
     private final Connection conn;
     private final Execution<? extends CommandInvocation> execution;
     private final ProcessManager manager;
-    private volatile boolean running;
+    private boolean running;
+    private Thread thread;
+    private final CountDownLatch done = new CountDownLatch(1);
 
     private static final Logger LOGGER = LoggerUtil.getLogger(Process.class.getName());
     private int pid;
@@ -59,11 +69,16 @@ public class Process extends Thread implements Consumer<Signal> {
     public void accept(Signal signal) {
         switch (signal) {
             case INT:
-                if (running) {
-                    // Ctrl-C interrupt : we use Thread interrupts to signal the command to stop
-                    LOGGER.info("got interrupted in Task");
-                    interrupt();
-                }
+                // Ctrl-C interrupt : we use Thread interrupts to signal the command to stop
+                interruptRunning();
+        }
+    }
+
+    //only interrupt the thread while it is running this process, it might be pooled
+    private synchronized void interruptRunning() {
+        if (running) {
+            LOGGER.info("got interrupted in Task");
+            thread.interrupt();
         }
     }
 
@@ -73,8 +88,11 @@ public class Process extends Thread implements Consumer<Signal> {
         Consumer<Signal> prev = conn.signalHandler();
         Consumer<int[]> prevIn = conn.stdinHandler();
         conn.setSignalHandler(this);
-        running = true;
-        pid = (int) Thread.currentThread().getId();
+        synchronized (this) {
+            thread = Thread.currentThread();
+            running = true;
+        }
+        pid = (int) thread.getId();
 
         try {
             execution.execute();
@@ -89,9 +107,14 @@ public class Process extends Thread implements Consumer<Signal> {
             conn.write(e.getMessage() + Config.getLineSeparator());
             LOGGER.log(Level.WARNING, "Uncaught exception when executing the command: " + execution.getCommand().toString(), e);
         } finally {
-            running = false;
+            synchronized (this) {
+                running = false;
+            }
+            //do not leave an interrupt behind for the next task of a pooled thread
+            Thread.interrupted();
             conn.setSignalHandler(prev);
             conn.setStdinHandler(prevIn);
+            done.countDown();
             manager.processFinished(this);
         }
     }
@@ -103,4 +126,74 @@ public class Process extends Thread implements Consumer<Signal> {
     public int pid() {
         return pid;
     }
+
+    /**
+     * Run the process in a new thread.
+     *
+     * @deprecated processes are started by the {@link ProcessManager} with its {@link ExecutionStrategy}
+     */
+    @Deprecated
+    public void start() {
+        new Thread(this).start();
+    }
+
+    /**
+     * Interrupt the command, if the process is running.
+     *
+     * @deprecated send {@link Signal#INT} to the process instead
+     */
+    @Deprecated
+    public void interrupt() {
+        interruptRunning();
+    }
+
+    /**
+     * @deprecated use {@link #pid()}
+     * @return the id of the thread that runs, or ran, the process, -1 if it has not started
+     */
+    @Deprecated
+    public synchronized long getId() {
+        return thread != null ? thread.getId() : -1;
+    }
+
+    /**
+     * @deprecated the thread is owned by the {@link ExecutionStrategy}
+     * @return the name of the thread that runs, or ran, the process, null if it has not started
+     */
+    @Deprecated
+    public synchronized String getName() {
+        return thread != null ? thread.getName() : null;
+    }
+
+    /**
+     * @deprecated the thread is owned by the {@link ExecutionStrategy}
+     * @return true while the command is executed
+     */
+    @Deprecated
+    public synchronized boolean isAlive() {
+        return running;
+    }
+
+    /**
+     * Wait until the process has been executed.
+     *
+     * @deprecated the thread is owned by the {@link ExecutionStrategy}
+     */
+    @Deprecated
+    public void join() throws InterruptedException {
+        done.await();
+    }
+
+    /**
+     * Wait at most millis milliseconds for the process to be executed, forever if millis is 0.
+     *
+     * @deprecated the thread is owned by the {@link ExecutionStrategy}
+     */
+    @Deprecated
+    public void join(long millis) throws InterruptedException {
+        if (millis == 0)
+            done.await();
+        else
+            done.await(millis, TimeUnit.MILLISECONDS);
+    }
 }
@@ -31,9 +31,15 @@ public class ProcessManager {
     private Connection conn;
     private final Console console;
     private Executor<? extends CommandInvocation> executor;
+    private final ExecutionStrategy strategy;
 
     public ProcessManager(Console console) {
+        this(console, ExecutionStrategy.threadPerProcess());
+    }
+
+    public ProcessManager(Console console, ExecutionStrategy strategy) {
         this.console = console;
+        this.strategy = strategy != null ? strategy : ExecutionStrategy.threadPerProcess();
     }
 
     public void execute(Executor<? extends CommandInvocation> executor, Connection conn) {
@@ -62,7 +68,7 @@ public class ProcessManager {
 
     public void executeNext() {
         if (hasNext()) {
-            new Process(this, conn, executor.getNextExecution()).start();
+            strategy.execute(new Process(this, conn, executor.getNextExecution()));
         }
     }
 }
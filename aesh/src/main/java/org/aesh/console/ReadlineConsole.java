@@ -50,6 +50,12 @@ import org.aesh.command.impl.context.CommandContext;
 import org.aesh.command.impl.invocation.AeshCommandInvocationBuilder;
 import org.aesh.command.impl.registry.MutableCommandRegistryImpl;
 import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.job.BgCommand;
+import org.aesh.command.job.FgCommand;
+import org.aesh.command.job.Job;
+import org.aesh.command.job.JobTable;
+import org.aesh.command.job.JobsCommand;
+import org.aesh.command.job.WaitCommand;
 import org.aesh.command.operator.OperatorType;
 import org.aesh.command.parser.CommandLineParserException;
 import org.aesh.command.registry.CommandRegistry;
@@ -99,6 +105,7 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
     private CommandRuntime<? extends CommandInvocation> runtime;
     private ProcessManager processManager;
     private ExportManager exportManager;
+    private final JobTable jobTable = new JobTable();
     private static List<Function<String, Optional<String>>> preProcessors = new ArrayList<>();
 
     private static final Logger LOGGER = LoggerUtil.getLogger(ReadlineConsole.class.getName());
@@ -165,6 +172,20 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
             }
         }
 
+        if (this.settings.jobControlEnabled() && this.settings.operatorParserEnabled() &&
+                commandResolver.getRegistry() instanceof MutableCommandRegistry) {
+            MutableCommandRegistry registry = (MutableCommandRegistry) commandResolver.getRegistry();
+            try {
+                //commands in the registry with the same names are kept
+                registry.addCommand(new JobsCommand(jobTable));
+                registry.addCommand(new FgCommand(jobTable));
+                registry.addCommand(new BgCommand(jobTable));
+                registry.addCommand(new WaitCommand(jobTable));
+            } catch (CommandRegistryException e) {
+                LOGGER.log(Level.WARNING, "Failed to register job control commands", e);
+            }
+        }
+
         if (!this.settings.isRedrawPromptOnInterrupt()) {
             readlineFlags.put(ReadlineFlag.NO_PROMPT_REDRAW_ON_INTR, Integer.MAX_VALUE);
         }
@@ -253,7 +274,7 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
 
         this.runtime = generateRuntime();
         read(this.connection, readline);
-        processManager = new ProcessManager(this);
+        processManager = new ProcessManager(this, settings.executionStrategy());
         this.connection.openBlocking();
     }
 
@@ -300,6 +321,9 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
     public void read(final Connection conn, final Readline readline) {
         // In case there is some collected ouput from previous command execution
         shell.printCollectedOutput();
+        //report the background jobs that are done since the last prompt
+        for (Job job : jobTable.removeDone())
+            conn.write(job.toString() + Config.getLineSeparator());
 
         if (running) {
             readline.readline(conn, prompt, line -> {
@@ -438,7 +462,9 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
     public String helpInfo(String commandName) {
         try (CommandContainer commandContainer = commandResolver.resolveCommand(commandName)) {
             if (commandContainer != null) {
-                return commandContainer.printHelp(commandName);
+                if (shell == null)
+                    return commandContainer.printHelp(commandName);
+                return commandContainer.printHelp(commandName, shell.size().getWidth(), shell.supportsHyperlinks());
             }
         } catch (Exception e) { // ignored
         }
@@ -476,7 +502,9 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
         MutableCommandRegistry<CommandInvocation> registry = new MutableCommandRegistryImpl<>();
 
         CommandDefinitionReporter reporter = new CommandDefinitionReporter();
-        AnnotationDetector detector = new AnnotationDetector(reporter);
+        AnnotationDetector detector = new AnnotationDetector(reporter)
+                .parallel(true)
+                .scanCache(settings.scanCacheFile());
         try {
             detector.detect(settings.getScanForCommandPackages());
             for (String command : reporter.getCommands()) {
@@ -538,6 +566,7 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
                 .settings(settings)
                 .commandInvocationBuilder(new AeshCommandInvocationBuilder(shell, this))
                 .aeshContext(context)
+                .jobTable(jobTable)
                 .operators(EnumSet.allOf(OperatorType.class))
                 .build();
     }
@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.console;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.aesh.terminal.utils.LoggerUtil;
+
+/**
+ * Looks up the virtual thread executor once with reflection, aesh is compiled for Java 8.
+ *
+ * @author Aesh team
+ */
+final class VirtualThreads {
+
+    private static final ExecutorService EXECUTOR = create();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return an executor starting a virtual thread per task, or null if not supported by the JVM
+     */
+    static ExecutorService executor() {
+        return EXECUTOR;
+    }
+
+    private static ExecutorService create() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            //eg preview feature not enabled on JDK 19/20
+            Logger logger = LoggerUtil.getLogger(VirtualThreads.class.getName());
+            logger.log(Level.FINE, "Virtual threads are not available", e);
+            return null;
+        }
+    }
+}
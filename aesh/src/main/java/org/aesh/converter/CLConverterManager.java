@@ -25,6 +25,7 @@ import java.net.URL;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -46,6 +47,7 @@ public class CLConverterManager {
 
     private final Map<Class, Supplier<Converter>> factories;
     private final ConcurrentMap<Class, Converter> cache = new ConcurrentHashMap<>();
+    private final Set<Converter> defaults = Collections.newSetFromMap(new IdentityHashMap<>());
 
     private static class CLConvertManagerHolder {
         static final CLConverterManager INSTANCE = new CLConverterManager();
@@ -76,6 +78,7 @@ public class CLConverterManager {
         for (Map.Entry<Class, Supplier<Converter>> entry : factories.entrySet()) {
             cache.put(entry.getKey(), entry.getValue().get());
         }
+        defaults.addAll(cache.values());
     }
 
     private void addFactory(Class<?> boxed, Class<?> primitive, Supplier<Converter> factory) {
@@ -97,6 +100,13 @@ public class CLConverterManager {
         return cache.computeIfAbsent(clazz, k -> factory.get());
     }
 
+    /**
+     * @return true if the converter is one of the built-in converters
+     */
+    public boolean isDefaultConverter(Converter converter) {
+        return defaults.contains(converter);
+    }
+
     public void setConverter(Class<?> clazz, Converter converter) {
         cache.put(clazz, converter);
     }
@@ -0,0 +1,305 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.io;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Input redirected from a file, eg: command &lt; file.
+ *
+ * The file is read through read only memory mapped regions instead of a buffered stream,
+ * so the data is not copied to the heap. Files larger than a region (1GB) are mapped one
+ * region at a time. The file is mapped when it is read, not when the resource is created.
+ *
+ * Commands that write the data somewhere else can use {@link #transferTo(WritableByteChannel)}
+ * which lets the operating system copy the file, and commands that handle one line or
+ * record at a time can iterate over them with {@link #lines()} and {@link #records(byte)}.
+ *
+ * Like other piped input the resource is read only, changing it is a no op.
+ *
+ * @author Aesh team
+ */
+public class MappedFileResource extends PipelineResource {
+
+    static final int DEFAULT_REGION_SIZE = 1 << 30;
+
+    private final File file;
+    private final int regionSize;
+
+    public MappedFileResource(File file) {
+        this(file, DEFAULT_REGION_SIZE);
+    }
+
+    MappedFileResource(File file, int regionSize) {
+        this.file = file;
+        this.regionSize = regionSize;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public String getName() {
+        return file.getName();
+    }
+
+    @Override
+    public String getAbsolutePath() {
+        return file.getAbsolutePath();
+    }
+
+    @Override
+    public boolean exists() {
+        return file.isFile();
+    }
+
+    /**
+     * @return size of the file in bytes
+     */
+    public long size() {
+        return file.length();
+    }
+
+    @Override
+    public InputStream read() {
+        return new MappedInputStream();
+    }
+
+    /**
+     * Write the content of the file to the target channel, the operating system copies the
+     * data directly when possible.
+     *
+     * @return number of bytes written
+     */
+    public long transferTo(WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long count = channel.transferTo(position, size - position, target);
+                if (count <= 0)
+                    break;
+                position += count;
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Write the content of the file to the stream, see {@link #transferTo(WritableByteChannel)}.
+     * The stream is not closed.
+     *
+     * @return number of bytes written
+     */
+    public long transferTo(OutputStream out) throws IOException {
+        if (out instanceof FileOutputStream)
+            return transferTo(((FileOutputStream) out).getChannel());
+        out.flush();
+        return transferTo(Channels.newChannel(out));
+    }
+
+    @Override
+    public Resource copy(Resource destination) throws IOException {
+        if (destination instanceof FileResource) {
+            try (FileChannel target = FileChannel.open(((FileResource) destination).getFile().toPath(),
+                    StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                transferTo(target);
+            }
+        }
+        return destination;
+    }
+
+    /**
+     * Iterate over the records in the file separated by the delimiter, the delimiter is not
+     * included in the records. The records are read only views of the mapped file, a record
+     * is only valid until the next record is read.
+     * A delimiter at the end of the file does not start a new record.
+     */
+    public Iterator<ByteBuffer> records(byte delimiter) {
+        return new RecordIterator(delimiter);
+    }
+
+    /**
+     * Iterate over the lines in the file, decoded as UTF-8. Lines can be terminated by
+     * \n or \r\n, the terminator is not included.
+     */
+    public Iterator<String> lines() {
+        Iterator<ByteBuffer> records = records((byte) '\n');
+        return new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return records.hasNext();
+            }
+
+            @Override
+            public String next() {
+                ByteBuffer record = records.next();
+                int length = record.remaining();
+                if (length > 0 && record.get(record.limit() - 1) == '\r')
+                    ((Buffer) record).limit(record.limit() - 1);
+                return StandardCharsets.UTF_8.decode(record).toString();
+            }
+        };
+    }
+
+    @Override
+    public <A extends BasicFileAttributes> A readAttributes(Class<A> type, LinkOption... options) throws IOException {
+        return Files.readAttributes(file.toPath(), type, options);
+    }
+
+    @Override
+    public long lastModified() {
+        return file.lastModified();
+    }
+
+    private MappedByteBuffer map(long position, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            //the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size, channel.size() - position));
+        }
+    }
+
+    private class MappedInputStream extends InputStream {
+        private final long size = file.length();
+        private long position;
+        private ByteBuffer region;
+
+        private boolean nextRegion() throws IOException {
+            if (region != null && region.hasRemaining())
+                return true;
+            if (position >= size)
+                return false;
+            region = map(position, Math.min(regionSize, size - position));
+            return region.hasRemaining();
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextRegion())
+                return -1;
+            position++;
+            return region.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            if (!nextRegion())
+                return -1;
+            int n = Math.min(len, region.remaining());
+            region.get(b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, size - position));
+            position += skipped;
+            //map the region again from the new position on the next read
+            region = null;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, size - position);
+        }
+    }
+
+    private class RecordIterator implements Iterator<ByteBuffer> {
+        private final byte delimiter;
+        private final long size = file.length();
+        //absolute position of the next record
+        private long position;
+        private long regionStart;
+        private ByteBuffer region;
+
+        private RecordIterator(byte delimiter) {
+            this.delimiter = delimiter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < size;
+        }
+
+        @Override
+        public ByteBuffer next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            try {
+                if (region == null)
+                    mapFrom(position);
+                while (true) {
+                    int start = (int) (position - regionStart);
+                    for (int i = start; i < region.limit(); i++) {
+                        if (region.get(i) == delimiter) {
+                            position = regionStart + i + 1;
+                            return slice(start, i);
+                        }
+                    }
+                    //the last record does not need a delimiter
+                    if (regionStart + region.limit() == size) {
+                        position = size;
+                        return slice(start, region.limit());
+                    }
+                    if (start == 0)
+                        throw new IllegalStateException("Record in " + file + " is larger than " + regionSize + " bytes");
+                    //the record continues in the next region, map it from the start of the record
+                    mapFrom(position);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read " + file, e);
+            }
+        }
+
+        private void mapFrom(long start) throws IOException {
+            regionStart = start;
+            region = map(start, Math.min(regionSize, size - start));
+        }
+
+        private ByteBuffer slice(int from, int to) {
+            ByteBuffer record = region.duplicate();
+            ((Buffer) record).position(from);
+            ((Buffer) record).limit(to);
+            return record.slice();
+        }
+    }
+}
@@ -43,6 +43,13 @@ public class PipelineResource implements Resource {
         this.inputStream = inputStream;
     }
 
+    /**
+     * For subclasses that provide their own input.
+     */
+    protected PipelineResource() {
+        this(null);
+    }
+
     @Override
     public String getName() {
         return "";
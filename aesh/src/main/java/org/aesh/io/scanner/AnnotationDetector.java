@@ -24,18 +24,26 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.net.JarURLConnection;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.ZipFile;
 
 /**
  * {@code AnnotationDetector} reads Java Class File (".class") files and reports the
@@ -185,8 +193,6 @@ public final class AnnotationDetector {
     private static final int ANNOTATION = '@';
     private static final int ARRAY = '[';
 
-    // The buffer is reused during the life cycle of this AnnotationDetector instance
-    private final ClassFileBuffer cpBuffer = new ClassFileBuffer();
     // the annotation types to report, see {@link #annotations()}
     private final Map<String, Class<? extends Annotation>> annotations;
 
@@ -194,11 +200,9 @@ public final class AnnotationDetector {
     private FieldReporter fieldReporter;
     private MethodReporter methodReporter;
 
-    // the 'raw' name of this interface or class (using '/' instead of '.' in package name)
-    private String typeName;
-    // Reusing the constantPool is not needed for better performance
-    private Object[] constantPool;
-    private String memberName;
+    // scan jars and directories in parallel on this pool, null to scan on the calling thread
+    private ForkJoinPool pool;
+    private File scanCacheFile;
 
     /**
      * Create a new {@code AnnotationDetector}, reporting the detected annotations
@@ -225,18 +229,50 @@ public final class AnnotationDetector {
         }
     }
 
+    /**
+     * Scan jar files and directory trees in parallel on the common {@link ForkJoinPool}.
+     * The annotations are still reported on the calling thread, in the same order as
+     * when scanning sequentially.
+     */
+    public AnnotationDetector parallel(final boolean parallel) {
+        return parallel(parallel ? ForkJoinPool.commonPool() : null);
+    }
+
+    /**
+     * Scan jar files and directory trees in parallel on the given pool, null to scan on the
+     * calling thread.
+     */
+    public AnnotationDetector parallel(final ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Remember the classes with type annotations found in jar files in the given file, jars
+     * that have the same path, size and modification time are not scanned again.
+     * Only used when the reporter is a {@link TypeReporter} and nothing else.
+     */
+    public AnnotationDetector scanCache(final File file) {
+        this.scanCacheFile = file;
+        return this;
+    }
+
     /**
      * Report all Java ClassFile files available on the class path.
      *
      * @see #detect(File...)
      */
     public void detect() throws IOException {
-        detect(new ClassFileIterator());
+        scan(ClassFileIterator.classPath(), null);
     }
 
     /**
      * Report all Java ClassFile files available on the class path within
      * the specified packages and sub packages.
+     * <p>
+     * Jars and class directories with a {@link CommandIndex} are not scanned, the
+     * classes listed in the index are reported instead. This is only done when the
+     * reporter is a {@link TypeReporter} and nothing else.
      *
      * @see #detect(File...)
      */
@@ -249,6 +285,9 @@ public final class AnnotationDetector {
             }
         }
         final Set<File> files = new HashSet<>();
+        // classpath roots, mapped to their index or null
+        final Map<File, CommandIndex> indexes = new LinkedHashMap<>();
+        final boolean useIndex = reportsTypesOnly();
         final ClassLoader loader = Thread.currentThread().getContextClassLoader();
         for (final String packageName : pkgNameFilter) {
             final Enumeration<URL> resourceEnum = loader.getResources(packageName);
@@ -257,26 +296,31 @@ public final class AnnotationDetector {
                 if ("file".equals(url.getProtocol())) {
                     final File dir = toFile(url);
                     if (dir.isDirectory()) {
-                        files.add(dir);
+                        if (!useIndex || !hasIndex(packageRoot(dir, packageName), indexes)) {
+                            files.add(dir);
+                        }
                     } else {
                         throw new AssertionError("Not a recognized file URL: " + url);
                     }
                 } else {
                     final File jarFile = toFile(openJarURLConnection(url).getJarFileURL());
                     if (jarFile.isFile()) {
-                        files.add(jarFile);
+                        if (!useIndex || !hasIndex(jarFile, indexes)) {
+                            files.add(jarFile);
+                        }
                     } else {
                         throw new AssertionError("Not a File: " + jarFile);
                     }
                 }
             }
         }
+        reportIndexed(indexes, packageNames);
         if (DEBUG) {
             print("Files to scan: %s", files);
         }
         if (!files.isEmpty()) {
             // see http://shipilev.net/blog/2016/arrays-wisdom-ancients/#_conclusion
-            detect(new ClassFileIterator(files.toArray(new File[0]), pkgNameFilter));
+            scan(files.toArray(new File[0]), pkgNameFilter);
         }
     }
 
@@ -299,11 +343,144 @@ public final class AnnotationDetector {
         if (DEBUG) {
             print("detectFilesOrDirectories: %s", (Object) filesOrDirectories);
         }
-        detect(new ClassFileIterator(filesOrDirectories, null));
+        scan(filesOrDirectories, null);
     }
 
     // private
 
+    private boolean reportsTypesOnly() {
+        return typeReporter != null && fieldReporter == null && methodReporter == null;
+    }
+
+    private void scan(final File[] roots, final String[] pkgNameFilter) throws IOException {
+        if (pool == null && scanCacheFile == null) {
+            detect(new ClassFileIterator(roots, pkgNameFilter));
+            return;
+        }
+        final ScanCache cache = scanCacheFile != null && reportsTypesOnly() ? ScanCache.load(scanCacheFile) : null;
+        final String cacheKey = cacheKey(pkgNameFilter);
+        final List<ScanTask> tasks = new ArrayList<>(roots.length);
+        for (final File root : roots) {
+            if (root.isDirectory()) {
+                tasks.add(new DirectoryTask(root));
+            } else if (root.isFile()) {
+                final String name = root.getName();
+                if (name.endsWith(".class")) {
+                    tasks.add(new ClassTask(root));
+                } else if (ClassFileIterator.endsWithIgnoreCase(name, ".jar") || ClassFileIterator.isZipFile(root)) {
+                    final List<String> cached = cache != null ? cache.get(root, cacheKey) : null;
+                    tasks.add(cached != null ? new CachedTask(cached) : new JarTask(root, pkgNameFilter));
+                } // else just ignore
+            }
+        }
+        try {
+            if (pool != null) {
+                pool.invoke(new ScanTask() {
+                    @Override
+                    protected List<Hit> compute() {
+                        invokeAll(tasks);
+                        return null;
+                    }
+                });
+            } else {
+                for (final ScanTask task : tasks) {
+                    task.invoke();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (final ScanTask task : tasks) {
+            final List<Hit> hits = task.join();
+            if (cache != null && task instanceof JarTask) {
+                final List<String> lines = new ArrayList<>(hits.size());
+                for (final Hit hit : hits) {
+                    lines.add(hit.annotation.getName() + ' ' + hit.className);
+                }
+                cache.put(((JarTask) task).jar, cacheKey, lines);
+            }
+            for (final Hit hit : hits) {
+                report(hit);
+            }
+        }
+        if (cache != null) {
+            try {
+                cache.store();
+            } catch (IOException e) {
+                // the cache is only used to speed up the next scan
+                if (DEBUG) {
+                    print("Could not store scan cache: %s", e);
+                }
+            }
+        }
+    }
+
+    private String cacheKey(final String[] pkgNameFilter) {
+        final List<String> names = new ArrayList<>();
+        for (final Class<? extends Annotation> annotation : annotations.values()) {
+            names.add(annotation.getName());
+        }
+        Collections.sort(names);
+        return String.join(",", names) + ';' + (pkgNameFilter == null ? "" : String.join(",", pkgNameFilter));
+    }
+
+    private void report(final Hit hit) {
+        switch (hit.reporterType) {
+            case 'T':
+                typeReporter.reportTypeAnnotation(hit.annotation, hit.className);
+                break;
+            case 'F':
+                fieldReporter.reportFieldAnnotation(hit.annotation, hit.className, hit.memberName);
+                break;
+            case 'M':
+                methodReporter.reportMethodAnnotation(hit.annotation, hit.className, hit.memberName);
+                break;
+            default:
+                throw new AssertionError("reporterType=" + hit.reporterType);
+        }
+    }
+
+    private static File packageRoot(File dir, final String packageName) {
+        // packageName is the path of the package, ending with '/'
+        for (int i = 0; i < packageName.length() && dir != null; ++i) {
+            if (packageName.charAt(i) == '/') {
+                dir = dir.getParentFile();
+            }
+        }
+        return dir;
+    }
+
+    private static boolean hasIndex(final File root, final Map<File, CommandIndex> indexes) throws IOException {
+        if (root == null) {
+            return false;
+        }
+        if (!indexes.containsKey(root)) {
+            indexes.put(root, CommandIndex.find(root));
+        }
+        return indexes.get(root) != null;
+    }
+
+    private void reportIndexed(final Map<File, CommandIndex> indexes, final String... packageNames) {
+        final Set<String> reported = new HashSet<>();
+        for (final CommandIndex index : indexes.values()) {
+            if (index == null) {
+                continue;
+            }
+            for (final Class<? extends Annotation> annotation : annotations.values()) {
+                for (final String packageName : packageNames) {
+                    for (final String className : index.classes(annotation.getName(), packageName)) {
+                        if (reported.add(annotation.getName() + ' ' + className)) {
+                            if (DEBUG) {
+                                print("Indexed: %s %s", annotation.getName(), className);
+                            }
+                            typeReporter.reportTypeAnnotation(annotation, className);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     private File toFile(final URL url) {
         // only correct way to convert the URL to a File object, also see issue #16
         // Do not use URLDecoder
@@ -354,12 +531,13 @@ public final class AnnotationDetector {
 
     @SuppressWarnings("illegalcatch")
     private void detect(final ResourceIterator iterator) throws IOException {
+        final ClassParser parser = new ClassParser(null);
         InputStream stream;
         while ((stream = iterator.next()) != null) {
             try {
-                cpBuffer.readFrom(stream);
-                if (hasCafebabe(cpBuffer)) {
-                    detect(cpBuffer);
+                parser.cpBuffer.readFrom(stream);
+                if (parser.hasCafebabe(parser.cpBuffer)) {
+                    parser.parse(parser.cpBuffer);
                 } // else ignore
             } catch (Throwable t) {
                 // catch all errors
@@ -376,271 +554,444 @@ public final class AnnotationDetector {
         }
     }
 
-    private boolean hasCafebabe(final ClassFileBuffer buffer) throws IOException {
-        return buffer.size() > 4 && buffer.readInt() == 0xCAFEBABE;
+    /**
+     * An annotation found while scanning.
+     */
+    private static final class Hit {
+        private final char reporterType;
+        private final Class<? extends Annotation> annotation;
+        private final String className;
+        private final String memberName;
+
+        private Hit(final char reporterType, final Class<? extends Annotation> annotation,
+                final String className, final String memberName) {
+            this.reporterType = reporterType;
+            this.annotation = annotation;
+            this.className = className;
+            this.memberName = memberName;
+        }
     }
 
     /**
-     * Inspect the given (Java) class file in streaming mode.
+     * Scans one classpath root, or part of it, and returns the annotations found in order.
      */
-    private void detect(final DataInput di) throws IOException {
-        readVersion(di);
-        readConstantPoolEntries(di);
-        readAccessFlags(di);
-        readThisClass(di);
-        readSuperClass(di);
-        readInterfaces(di);
-        readFields(di);
-        readMethods(di);
-        readAttributes(di, 'T', typeReporter == null);
+    private abstract static class ScanTask extends RecursiveTask<List<Hit>> {
     }
 
-    private void readVersion(final DataInput di) throws IOException {
-        // sequence: minor version, major version (argument_index is 1-based)
-        if (DEBUG) {
-            print("Java Class version %2$d.%1$d",
-                    di.readUnsignedShort(), di.readUnsignedShort());
-        } else {
-            di.skipBytes(4);
+    private final class JarTask extends ScanTask {
+        private final File jar;
+        private final String[] pkgNameFilter;
+
+        private JarTask(final File jar, final String[] pkgNameFilter) {
+            this.jar = jar;
+            this.pkgNameFilter = pkgNameFilter;
         }
-    }
 
-    private void readConstantPoolEntries(final DataInput di) throws IOException {
-        final int count = di.readUnsignedShort();
-        constantPool = new Object[count];
-        for (int i = 1; i < count; ++i) {
-            if (readConstantPoolEntry(di, i)) {
-                // double slot
-                ++i;
+        @Override
+        protected List<Hit> compute() {
+            final List<Hit> hits = new ArrayList<>();
+            final ClassParser parser = new ClassParser(hits);
+            try (ZipFile zipFile = new ZipFile(jar)) {
+                final ZipFileIterator iterator = new ZipFileIterator(zipFile, pkgNameFilter);
+                InputStream stream;
+                while ((stream = iterator.next()) != null) {
+                    try {
+                        parser.detect(stream);
+                    } finally {
+                        stream.close();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
+            return hits;
         }
     }
 
     /**
-     * Return {@code true} if a double slot is read (in case of Double or Long constant).
+     * Scans the class files of a directory, sub directories are scanned by their own tasks.
      */
-    private boolean readConstantPoolEntry(final DataInput di, final int index)
-            throws IOException {
-
-        final int tag = di.readUnsignedByte();
-        switch (tag) {
-            case CP_METHOD_TYPE:
-                di.skipBytes(2); // readUnsignedShort()
-                return false;
-            case CP_METHOD_HANDLE:
-                di.skipBytes(3);
-                return false;
-            case CP_INTEGER:
-            case CP_FLOAT:
-            case CP_REF_FIELD:
-            case CP_REF_METHOD:
-            case CP_REF_INTERFACE:
-            case CP_NAME_AND_TYPE:
-            case CP_INVOKE_DYNAMIC:
-                di.skipBytes(4); // readInt() / readFloat() / readUnsignedShort() * 2
-                return false;
-            case CP_LONG:
-            case CP_DOUBLE:
-                di.skipBytes(8); // readLong() / readDouble()
-                return true;
-            case CP_UTF8:
-                constantPool[index] = di.readUTF();
-                return false;
-            case CP_CLASS:
-            case CP_STRING:
-                // reference to CP_UTF8 entry. The referenced index can have a higher number!
-                constantPool[index] = di.readUnsignedShort();
-                return false;
-            default:
-                throw new ClassFormatError(
-                        "Unkown tag value for constant pool entry: " + tag);
+    private final class DirectoryTask extends ScanTask {
+        private final File directory;
+
+        private DirectoryTask(final File directory) {
+            this.directory = directory;
         }
-    }
 
-    private void readAccessFlags(final DataInput di) throws IOException {
-        di.skipBytes(2); // u2
+        @Override
+        protected List<Hit> compute() {
+            final File[] files = directory.listFiles();
+            if (files == null) {
+                return Collections.emptyList();
+            }
+            final Map<File, DirectoryTask> subTasks = new HashMap<>();
+            for (final File file : files) {
+                if (file.isDirectory()) {
+                    final DirectoryTask task = new DirectoryTask(file);
+                    if (pool != null) {
+                        task.fork();
+                    }
+                    subTasks.put(file, task);
+                }
+            }
+            // keep the depth first order of a sequential scan
+            final List<Hit> hits = new ArrayList<>();
+            ClassParser parser = null;
+            for (final File file : files) {
+                final DirectoryTask task = subTasks.get(file);
+                if (task != null) {
+                    hits.addAll(pool != null ? task.join() : task.invoke());
+                } else if (file.getName().endsWith(".class") && file.isFile()) {
+                    if (parser == null) {
+                        parser = new ClassParser(hits);
+                    }
+                    parser.detect(file);
+                }
+            }
+            return hits;
+        }
     }
 
-    private void readThisClass(final DataInput di) throws IOException {
-        typeName = resolveUtf8(di);
-        if (DEBUG) {
-            print("read type '%s'", typeName);
+    private final class ClassTask extends ScanTask {
+        private final File file;
+
+        private ClassTask(final File file) {
+            this.file = file;
         }
-    }
 
-    private void readSuperClass(final DataInput di) throws IOException {
-        di.skipBytes(2); // u2
+        @Override
+        protected List<Hit> compute() {
+            final List<Hit> hits = new ArrayList<>();
+            new ClassParser(hits).detect(file);
+            return hits;
+        }
     }
 
-    private void readInterfaces(final DataInput di) throws IOException {
-        final int count = di.readUnsignedShort();
-        di.skipBytes(count * 2); // count * u2
-    }
+    private final class CachedTask extends ScanTask {
+        private final List<String> classes;
 
-    private void readFields(final DataInput di) throws IOException {
-        final int count = di.readUnsignedShort();
-        if (DEBUG) {
-            print("field count = %d", count);
+        private CachedTask(final List<String> classes) {
+            this.classes = classes;
         }
-        for (int i = 0; i < count; ++i) {
-            readAccessFlags(di);
-            memberName = resolveUtf8(di);
-            final String descriptor = resolveUtf8(di);
-            readAttributes(di, 'F', fieldReporter == null);
-            if (DEBUG) {
-                print("Field: %s, descriptor: %s", memberName, descriptor);
+
+        @Override
+        protected List<Hit> compute() {
+            final List<Hit> hits = new ArrayList<>(classes.size());
+            for (final String line : classes) {
+                final int space = line.indexOf(' ');
+                for (final Class<? extends Annotation> annotation : annotations.values()) {
+                    if (line.regionMatches(0, annotation.getName(), 0, space)
+                            && annotation.getName().length() == space) {
+                        hits.add(new Hit('T', annotation, line.substring(space + 1), null));
+                    }
+                }
             }
+            return hits;
         }
     }
 
-    private void readMethods(final DataInput di) throws IOException {
-        final int count = di.readUnsignedShort();
-        if (DEBUG) {
-            print("method count = %d", count);
+    /**
+     * Parses class files and reports their annotations. Holds the parse state, so every
+     * thread scanning class files uses its own parser.
+     */
+    private final class ClassParser {
+
+        // The buffer is reused for all class files read by this parser
+        private final ClassFileBuffer cpBuffer = new ClassFileBuffer();
+        // collects the hits when scanning in parallel, null to report them right away
+        private final List<Hit> hits;
+
+        // the 'raw' name of this interface or class (using '/' instead of '.' in package name)
+        private String typeName;
+        // Reusing the constantPool is not needed for better performance
+        private Object[] constantPool;
+        private String memberName;
+
+        private ClassParser(final List<Hit> hits) {
+            this.hits = hits;
         }
-        for (int i = 0; i < count; ++i) {
-            readAccessFlags(di);
-            memberName = resolveUtf8(di);
-            final String descriptor = resolveUtf8(di);
-            readAttributes(di, 'M', methodReporter == null);
-            if (DEBUG) {
-                print("Method: %s, descriptor: %s", memberName, descriptor);
+
+        private void detect(final File file) {
+            try (InputStream stream = new FileInputStream(file)) {
+                detect(stream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
         }
-    }
 
-    private void readAttributes(final DataInput di, final char reporterType,
-            final boolean skipReporting) throws IOException {
+        /**
+         * Read and inspect one class file, errors are ignored like in {@link #detect(ResourceIterator)}.
+         */
+        @SuppressWarnings("illegalcatch")
+        private void detect(final InputStream stream) {
+            try {
+                cpBuffer.readFrom(stream);
+                if (hasCafebabe(cpBuffer)) {
+                    parse(cpBuffer);
+                } // else ignore
+            } catch (Throwable t) {
+                // catch all errors
+            }
+        }
 
-        final int count = di.readUnsignedShort();
-        if (DEBUG) {
-            print("attribute count (%s) = %d", reporterType, count);
-        }
-        for (int i = 0; i < count; ++i) {
-            final String name = resolveUtf8(di);
-            // in bytes, use this to skip the attribute info block
-            final int length = di.readInt();
-            if (!skipReporting &&
-                    ("RuntimeVisibleAnnotations".equals(name) ||
-                            "RuntimeInvisibleAnnotations".equals(name))) {
-                readAnnotations(di, reporterType);
+        private boolean hasCafebabe(final ClassFileBuffer buffer) throws IOException {
+            return buffer.size() > 4 && buffer.readInt() == 0xCAFEBABE;
+        }
+
+        /**
+         * Inspect the given (Java) class file in streaming mode.
+         */
+        private void parse(final DataInput di) throws IOException {
+            readVersion(di);
+            readConstantPoolEntries(di);
+            readAccessFlags(di);
+            readThisClass(di);
+            readSuperClass(di);
+            readInterfaces(di);
+            readFields(di);
+            readMethods(di);
+            readAttributes(di, 'T', typeReporter == null);
+        }
+
+        private void readVersion(final DataInput di) throws IOException {
+            // sequence: minor version, major version (argument_index is 1-based)
+            if (DEBUG) {
+                print("Java Class version %2$d.%1$d",
+                        di.readUnsignedShort(), di.readUnsignedShort());
             } else {
-                if (DEBUG) {
-                    print("skip attribute %s", name);
+                di.skipBytes(4);
+            }
+        }
+
+        private void readConstantPoolEntries(final DataInput di) throws IOException {
+            final int count = di.readUnsignedShort();
+            constantPool = new Object[count];
+            for (int i = 1; i < count; ++i) {
+                if (readConstantPoolEntry(di, i)) {
+                    // double slot
+                    ++i;
                 }
-                di.skipBytes(length);
             }
         }
-    }
 
-    private void readAnnotations(final DataInput di, final char reporterType)
-            throws IOException {
+        /**
+         * Return {@code true} if a double slot is read (in case of Double or Long constant).
+         */
+        private boolean readConstantPoolEntry(final DataInput di, final int index)
+                throws IOException {
+
+            final int tag = di.readUnsignedByte();
+            switch (tag) {
+                case CP_METHOD_TYPE:
+                    di.skipBytes(2); // readUnsignedShort()
+                    return false;
+                case CP_METHOD_HANDLE:
+                    di.skipBytes(3);
+                    return false;
+                case CP_INTEGER:
+                case CP_FLOAT:
+                case CP_REF_FIELD:
+                case CP_REF_METHOD:
+                case CP_REF_INTERFACE:
+                case CP_NAME_AND_TYPE:
+                case CP_INVOKE_DYNAMIC:
+                    di.skipBytes(4); // readInt() / readFloat() / readUnsignedShort() * 2
+                    return false;
+                case CP_LONG:
+                case CP_DOUBLE:
+                    di.skipBytes(8); // readLong() / readDouble()
+                    return true;
+                case CP_UTF8:
+                    constantPool[index] = di.readUTF();
+                    return false;
+                case CP_CLASS:
+                case CP_STRING:
+                    // reference to CP_UTF8 entry. The referenced index can have a higher number!
+                    constantPool[index] = di.readUnsignedShort();
+                    return false;
+                default:
+                    throw new ClassFormatError(
+                            "Unkown tag value for constant pool entry: " + tag);
+            }
+        }
 
-        // the number of Runtime(In)VisibleAnnotations
-        final int count = di.readUnsignedShort();
-        if (DEBUG) {
-            print("annotation count (%s) = %d", reporterType, count);
+        private void readAccessFlags(final DataInput di) throws IOException {
+            di.skipBytes(2); // u2
         }
-        for (int i = 0; i < count; ++i) {
-            final String rawTypeName = readAnnotation(di);
-            final Class<? extends Annotation> type = annotations.get(rawTypeName);
-            if (type == null) {
-                continue;
+
+        private void readThisClass(final DataInput di) throws IOException {
+            typeName = resolveUtf8(di);
+            if (DEBUG) {
+                print("read type '%s'", typeName);
             }
-            final String externalTypeName = typeName.replace('/', '.');
-            switch (reporterType) {
-                case 'T':
-                    typeReporter.reportTypeAnnotation(type, externalTypeName);
-                    break;
-                case 'F':
-                    fieldReporter.reportFieldAnnotation(type, externalTypeName, memberName);
-                    break;
-                case 'M':
-                    methodReporter.reportMethodAnnotation(type, externalTypeName, memberName);
-                    break;
-                default:
-                    throw new AssertionError("reporterType=" + reporterType);
+        }
+
+        private void readSuperClass(final DataInput di) throws IOException {
+            di.skipBytes(2); // u2
+        }
+
+        private void readInterfaces(final DataInput di) throws IOException {
+            final int count = di.readUnsignedShort();
+            di.skipBytes(count * 2); // count * u2
+        }
+
+        private void readFields(final DataInput di) throws IOException {
+            final int count = di.readUnsignedShort();
+            if (DEBUG) {
+                print("field count = %d", count);
+            }
+            for (int i = 0; i < count; ++i) {
+                readAccessFlags(di);
+                memberName = resolveUtf8(di);
+                final String descriptor = resolveUtf8(di);
+                readAttributes(di, 'F', fieldReporter == null);
+                if (DEBUG) {
+                    print("Field: %s, descriptor: %s", memberName, descriptor);
+                }
             }
         }
-    }
 
-    private String readAnnotation(final DataInput di) throws IOException {
-        final String rawTypeName = resolveUtf8(di);
-        // num_element_value_pairs
-        final int count = di.readUnsignedShort();
-        if (DEBUG) {
-            print("annotation elements count: %d", count);
+        private void readMethods(final DataInput di) throws IOException {
+            final int count = di.readUnsignedShort();
+            if (DEBUG) {
+                print("method count = %d", count);
+            }
+            for (int i = 0; i < count; ++i) {
+                readAccessFlags(di);
+                memberName = resolveUtf8(di);
+                final String descriptor = resolveUtf8(di);
+                readAttributes(di, 'M', methodReporter == null);
+                if (DEBUG) {
+                    print("Method: %s, descriptor: %s", memberName, descriptor);
+                }
+            }
         }
-        for (int i = 0; i < count; ++i) {
+
+        private void readAttributes(final DataInput di, final char reporterType,
+                final boolean skipReporting) throws IOException {
+
+            final int count = di.readUnsignedShort();
             if (DEBUG) {
-                print("element '%s'", resolveUtf8(di));
-            } else {
-                di.skipBytes(2);
+                print("attribute count (%s) = %d", reporterType, count);
+            }
+            for (int i = 0; i < count; ++i) {
+                final String name = resolveUtf8(di);
+                // in bytes, use this to skip the attribute info block
+                final int length = di.readInt();
+                if (!skipReporting &&
+                        ("RuntimeVisibleAnnotations".equals(name) ||
+                                "RuntimeInvisibleAnnotations".equals(name))) {
+                    readAnnotations(di, reporterType);
+                } else {
+                    if (DEBUG) {
+                        print("skip attribute %s", name);
+                    }
+                    di.skipBytes(length);
+                }
             }
-            readAnnotationElementValue(di);
         }
-        return rawTypeName;
-    }
 
-    private void readAnnotationElementValue(final DataInput di) throws IOException {
-        final int tag = di.readUnsignedByte();
-        if (DEBUG) {
-            print("tag='%c'", (char) tag);
-        }
-        switch (tag) {
-            case BYTE:
-            case CHAR:
-            case DOUBLE:
-            case FLOAT:
-            case INT:
-            case LONG:
-            case SHORT:
-            case BOOLEAN:
-            case STRING:
-                di.skipBytes(2);
-                break;
-            case ENUM:
-                di.skipBytes(4); // 2 * u2
-                break;
-            case CLASS:
-                di.skipBytes(2);
-                break;
-            case ANNOTATION:
-                readAnnotation(di);
-                break;
-            case ARRAY:
-                final int count = di.readUnsignedShort();
-                for (int i = 0; i < count; ++i) {
-                    readAnnotationElementValue(di);
+        private void readAnnotations(final DataInput di, final char reporterType)
+                throws IOException {
+
+            // the number of Runtime(In)VisibleAnnotations
+            final int count = di.readUnsignedShort();
+            if (DEBUG) {
+                print("annotation count (%s) = %d", reporterType, count);
+            }
+            for (int i = 0; i < count; ++i) {
+                final String rawTypeName = readAnnotation(di);
+                final Class<? extends Annotation> type = annotations.get(rawTypeName);
+                if (type == null) {
+                    continue;
                 }
-                break;
-            default:
-                throw new ClassFormatError("Not a valid annotation element type tag: 0x" +
-                        Integer.toHexString(tag));
+                final Hit hit = new Hit(reporterType, type, typeName.replace('/', '.'), memberName);
+                if (hits != null) {
+                    hits.add(hit);
+                } else {
+                    report(hit);
+                }
+            }
         }
-    }
 
-    /**
-     * Look up the String value, identified by the u2 index value from constant pool
-     * (direct or indirect).
-     */
-    private String resolveUtf8(final DataInput di) throws IOException {
-        final int index = di.readUnsignedShort();
-        final Object value = constantPool[index];
-        final String s;
-        if (value instanceof Integer) {
-            s = (String) constantPool[(Integer) value];
+        private String readAnnotation(final DataInput di) throws IOException {
+            final String rawTypeName = resolveUtf8(di);
+            // num_element_value_pairs
+            final int count = di.readUnsignedShort();
             if (DEBUG) {
-                print("resolveUtf8(%d): %d --> %s", index, value, s);
+                print("annotation elements count: %d", count);
             }
-        } else {
-            s = (String) value;
+            for (int i = 0; i < count; ++i) {
+                if (DEBUG) {
+                    print("element '%s'", resolveUtf8(di));
+                } else {
+                    di.skipBytes(2);
+                }
+                readAnnotationElementValue(di);
+            }
+            return rawTypeName;
+        }
+
+        private void readAnnotationElementValue(final DataInput di) throws IOException {
+            final int tag = di.readUnsignedByte();
             if (DEBUG) {
-                print("resolveUtf8(%d): %s", index, s);
+                print("tag='%c'", (char) tag);
+            }
+            switch (tag) {
+                case BYTE:
+                case CHAR:
+                case DOUBLE:
+                case FLOAT:
+                case INT:
+                case LONG:
+                case SHORT:
+                case BOOLEAN:
+                case STRING:
+                    di.skipBytes(2);
+                    break;
+                case ENUM:
+                    di.skipBytes(4); // 2 * u2
+                    break;
+                case CLASS:
+                    di.skipBytes(2);
+                    break;
+                case ANNOTATION:
+                    readAnnotation(di);
+                    break;
+                case ARRAY:
+                    final int count = di.readUnsignedShort();
+                    for (int i = 0; i < count; ++i) {
+                        readAnnotationElementValue(di);
+                    }
+                    break;
+                default:
+                    throw new ClassFormatError("Not a valid annotation element type tag: 0x" +
+                            Integer.toHexString(tag));
             }
         }
 
-        return s;
+        /**
+         * Look up the String value, identified by the u2 index value from constant pool
+         * (direct or indirect).
+         */
+        private String resolveUtf8(final DataInput di) throws IOException {
+            final int index = di.readUnsignedShort();
+            final Object value = constantPool[index];
+            final String s;
+            if (value instanceof Integer) {
+                s = (String) constantPool[(Integer) value];
+                if (DEBUG) {
+                    print("resolveUtf8(%d): %d --> %s", index, value, s);
+                }
+            } else {
+                s = (String) value;
+                if (DEBUG) {
+                    print("resolveUtf8(%d): %s", index, s);
+                }
+            }
+
+            return s;
+        }
     }
 
     /**
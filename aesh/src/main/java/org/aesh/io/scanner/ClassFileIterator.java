@@ -101,7 +101,7 @@ public final class ClassFileIterator extends ResourceIterator {
 
     // private
 
-    private boolean isZipFile(final File file) {
+    static boolean isZipFile(final File file) {
         DataInputStream in = null;
         try {
             in = new DataInputStream(new FileInputStream(file));
@@ -124,7 +124,7 @@ public final class ClassFileIterator extends ResourceIterator {
     /**
      * Returns the class path of the current JVM instance as an array of {@link File} objects.
      */
-    private static File[] classPath() {
+    static File[] classPath() {
         final String[] fileNames = System.getProperty("java.class.path").split(File.pathSeparator);
         final File[] files = new File[fileNames.length];
         for (int i = 0; i < files.length; ++i) {
@@ -133,7 +133,7 @@ public final class ClassFileIterator extends ResourceIterator {
         return files;
     }
 
-    private static boolean endsWithIgnoreCase(final String value, final String suffix) {
+    static boolean endsWithIgnoreCase(final String value, final String suffix) {
         final int n = suffix.length();
         return value.regionMatches(true, value.length() - n, suffix, 0, n);
     }
@@ -0,0 +1,126 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2017 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.io.scanner;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Index of the annotated command classes of a jar or class directory, written at build time
+ * by the aesh annotation processor to {@value #LOCATION}.
+ *
+ * Every line holds the name of the annotation and the binary name of the class, separated by a
+ * space. Lines are sorted by class name, so classes of the same package are listed together.
+ * Empty lines and lines starting with '#' are ignored.
+ *
+ * When a classpath root has an index, {@link AnnotationDetector} reads it instead of parsing
+ * every class file.
+ *
+ * @author Aesh team
+ */
+public final class CommandIndex {
+
+    public static final String LOCATION = "META-INF/aesh/commands.idx";
+
+    private final List<String[]> entries;
+
+    private CommandIndex(List<String[]> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Read the index of a jar file or a class directory.
+     *
+     * @param root jar file or the root directory of the classes
+     * @return the index or null if the root do not have one
+     * @throws IOException if the index could not be read
+     */
+    public static CommandIndex find(File root) throws IOException {
+        if (root.isDirectory()) {
+            File index = new File(root, LOCATION);
+            if (!index.isFile())
+                return null;
+            try (InputStream in = new FileInputStream(index)) {
+                return read(in);
+            }
+        }
+        if (root.isFile()) {
+            try (ZipFile zip = new ZipFile(root)) {
+                ZipEntry entry = zip.getEntry(LOCATION);
+                if (entry == null)
+                    return null;
+                try (InputStream in = zip.getInputStream(entry)) {
+                    return read(in);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param in index content
+     * @return the parsed index
+     * @throws IOException if the index could not be read
+     */
+    public static CommandIndex read(InputStream in) throws IOException {
+        List<String[]> entries = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.charAt(0) == '#')
+                continue;
+            int space = line.indexOf(' ');
+            if (space < 1)
+                throw new IOException("Invalid line in " + LOCATION + ": " + line);
+            entries.add(new String[] { line.substring(0, space), line.substring(space + 1).trim() });
+        }
+        return new CommandIndex(entries);
+    }
+
+    /**
+     * @param annotation annotation class name
+     * @param packageName package name, sub packages are included. Null or empty for all
+     * @return binary names of the classes annotated with annotation in the package
+     */
+    public List<String> classes(String annotation, String packageName) {
+        String prefix = packageName == null || packageName.isEmpty() ? ""
+                : (packageName.endsWith(".") ? packageName : packageName + ".");
+        List<String> classes = null;
+        for (String[] entry : entries) {
+            if (entry[0].equals(annotation) && entry[1].startsWith(prefix)) {
+                if (classes == null)
+                    classes = new ArrayList<>();
+                classes.add(entry[1]);
+            }
+        }
+        return classes != null ? classes : Collections.emptyList();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.io.scanner;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent cache of the annotated classes found in jar files, used by {@link AnnotationDetector}
+ * to skip jars that have not changed since they were scanned.
+ *
+ * A jar is identified by its absolute path, size and modification time, and by a key that
+ * describes what was scanned for (annotations and package filter).
+ * Every jar starts with a line {@code @size<TAB>mtime<TAB>key<TAB>path}, followed by one line
+ * per annotated class with the name of the annotation and the binary name of the class,
+ * separated by a space, in the same format as the {@link CommandIndex}.
+ *
+ * A cache that can not be read is ignored and written again.
+ *
+ * @author Aesh team
+ */
+final class ScanCache {
+
+    private static final String HEADER = "# aesh scan cache, version 1";
+
+    private final File file;
+    private final Map<String, Entry> entries;
+    private boolean changed;
+
+    private ScanCache(File file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    static ScanCache load(File file) {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        if (file.isFile()) {
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                if (!HEADER.equals(reader.readLine()))
+                    return new ScanCache(file, new LinkedHashMap<>());
+                Entry entry = null;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("@")) {
+                        String[] parts = line.substring(1).split("\t", 4);
+                        entry = new Entry(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2]);
+                        entries.put(parts[3], entry);
+                    } else if (!line.isEmpty() && entry != null) {
+                        entry.classes.add(line);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                //a broken cache is just scanned again
+                entries.clear();
+            }
+        }
+        return new ScanCache(file, entries);
+    }
+
+    /**
+     * @return the annotated classes of the jar as "annotation className" lines,
+     *         or null if the jar have changed or is not cached
+     */
+    List<String> get(File jar, String key) {
+        Entry entry = entries.get(jar.getAbsolutePath());
+        if (entry == null || entry.size != jar.length() || entry.lastModified != jar.lastModified()
+                || !entry.key.equals(key))
+            return null;
+        return Collections.unmodifiableList(entry.classes);
+    }
+
+    void put(File jar, String key, List<String> classes) {
+        Entry entry = new Entry(jar.length(), jar.lastModified(), key);
+        entry.classes.addAll(classes);
+        entries.put(jar.getAbsolutePath(), entry);
+        changed = true;
+    }
+
+    /**
+     * Write the cache if anything was added, the file is replaced atomically where supported.
+     */
+    void store() throws IOException {
+        if (!changed)
+            return;
+        Path target = file.toPath().toAbsolutePath();
+        if (target.getParent() != null)
+            Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), file.getName(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                    Entry entry = e.getValue();
+                    writer.write("@" + entry.size + '\t' + entry.lastModified + '\t' + entry.key + '\t' + e.getKey());
+                    writer.newLine();
+                    for (String line : entry.classes) {
+                        writer.write(line);
+                        writer.newLine();
+                    }
+                }
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        changed = false;
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long lastModified;
+        private final String key;
+        private final List<String> classes = new ArrayList<>();
+
+        private Entry(long size, long lastModified, String key) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.key = key;
+        }
+    }
+}
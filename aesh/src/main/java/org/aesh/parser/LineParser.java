@@ -28,6 +28,15 @@ import java.util.Set;
 import org.aesh.command.operator.OperatorType;
 
 /**
+ * Splits a line into words, handling escapes, quotes, brackets and operators.
+ *
+ * Words that are a verbatim part of the input are only tracked as offsets, the
+ * String of such a word is created when it is asked for. Besides the ParsedLine based
+ * methods the parser has a tokenizer mode, {@link #tokenize(String, LineTokens)}, that
+ * records the words into a reusable {@link LineTokens} instead.
+ *
+ * A LineParser instance can be reused, but it is not thread safe.
+ *
  * @author Aesh team
  */
 public class LineParser {
@@ -49,7 +58,15 @@ public class LineParser {
     private boolean ternaryQuote = false;
     private boolean haveCurlyBracket = false;
     private boolean haveSquareBracket = false;
-    private StringBuilder builder = new StringBuilder();
+    //the current word is the region [wordStart, wordEnd) of the input until it differs
+    //from the input, then it is copied into builder
+    private final StringBuilder builder = new StringBuilder();
+    private String source;
+    private int wordStart = -1;
+    private int wordEnd = -1;
+    private boolean copied = false;
+    //when set we are in tokenizer mode and words are added to tokens instead of textList
+    private LineTokens tokens;
     private char prev = NULL_CHAR;
     private int index = 0;
     private int cursorWord = -1;
@@ -112,29 +129,71 @@ public class LineParser {
 
     public ParsedLine parseLine(String text, int cursor, boolean parseCurlyAndSquareBrackets) {
         //first reset all values
-        reset();
+        reset(text, null);
         if (cursor > text.length())
             cursor = text.length();
         return doParseLine(text, cursor, parseCurlyAndSquareBrackets);
     }
 
+    /**
+     * Tokenizer mode, split up the text into words without creating any ParsedLine/ParsedWord objects.
+     * Curly brackets are not parsed and operators are ignored.
+     *
+     * @param text input
+     * @param tokens reusable result, it is cleared before the text is parsed
+     * @return tokens
+     */
+    public LineTokens tokenize(String text, LineTokens tokens) {
+        return tokenize(text, false, null, tokens);
+    }
+
+    /**
+     * Tokenizer mode, split up the text into words without creating any ParsedLine/ParsedWord objects.
+     * If operators are given, the text is split into lines in the same way as
+     * {@link #parseLine(String, int, boolean, Set)}.
+     *
+     * @param text input
+     * @param parseCurlyAndSquareBrackets parse brackets
+     * @param operators operators, can be null
+     * @param tokens reusable result, it is cleared before the text is parsed
+     * @return tokens
+     */
+    public LineTokens tokenize(String text, boolean parseCurlyAndSquareBrackets, Set<OperatorType> operators,
+            LineTokens tokens) {
+        tokens.reset(text);
+        reset(text, tokens);
+        try {
+            if (operators == null || operators.size() == 0)
+                doParseLine(text, -1, parseCurlyAndSquareBrackets);
+            else {
+                currentOperator = null;
+                startIndex = 0;
+                doParseLine(text, -1, parseCurlyAndSquareBrackets, operators);
+            }
+        } finally {
+            this.tokens = null;
+            this.source = null;
+        }
+        return tokens;
+    }
+
     private ParsedLine doParseLine(String text, int cursor, boolean parseCurlyAndSquareBrackets) {
         char c;
         for (index = 0; index < text.length();) {
             c = text.charAt(index);
             //if the previous char was a space, there is no word "connected" to cursor
             if (cursor == index && (prev != SPACE_CHAR || haveEscape)) {
-                cursorWord = textList.size();
+                cursorWord = wordCount();
                 if (haveEscape) //if we have escape the builder is shorter than cursor
-                    wordCursor = builder.length() + 1;
+                    wordCursor = wordLength() + 1;
                 else
-                    wordCursor = builder.length();
+                    wordCursor = wordLength();
             }
             if (c == SPACE_CHAR) {
                 c = handleSpace(c);
             } else if (c == BACK_SLASH) {
                 if (haveEscape || ternaryQuote || haveDoubleQuote || haveSingleQuote) {
-                    builder.append(c);
+                    append(c);
                     haveEscape = false;
                 } else
                     haveEscape = true;
@@ -149,11 +208,11 @@ public class LineParser {
             } else if (haveEscape) {
                 handleEscape(c);
             } else
-                builder.append(c);
+                append(c);
             prev = c;
             index++;
         }
-        return endOfLineProcessing(text, cursor, 0, text.length());
+        return endOfLineProcessing(cursor, 0, text.length());
     }
 
     public List<ParsedLine> parseLine(String text, int cursor, boolean parseCurlyAndSquareBrackets,
@@ -164,7 +223,7 @@ public class LineParser {
             return lines;
         } else {
             //first reset all values
-            reset();
+            reset(text, null);
             currentOperator = null;
             startIndex = 0;
             return doParseLine(text, cursor, parseCurlyAndSquareBrackets, operators);
@@ -173,20 +232,20 @@ public class LineParser {
 
     private List<ParsedLine> doParseLine(String text, int cursor, boolean parseCurlyAndSquareBrackets,
             Set<OperatorType> operators) {
-        List<ParsedLine> lines = new ArrayList<>();
+        List<ParsedLine> lines = tokens == null ? new ArrayList<>() : null;
         char c;
         for (index = 0; index < text.length();) {
             c = text.charAt(index);
             //if the previous char was a space, there is no word "connected" to cursor
             if (cursor == index && (prev != SPACE_CHAR || haveEscape)) {
-                cursorWord = textList.size();
-                wordCursor = builder.length();
+                cursorWord = wordCount();
+                wordCursor = wordLength();
             }
             if (c == SPACE_CHAR) {
                 c = handleSpace(c);
             } else if (c == BACK_SLASH) {
                 if (haveEscape || ternaryQuote || haveDoubleQuote || haveSingleQuote) {
-                    builder.append(c);
+                    append(c);
                     haveEscape = false;
                 } else
                     haveEscape = true;
@@ -204,16 +263,17 @@ public class LineParser {
                         && (currentOperator = matchesOperators(operators, text, index)) != OperatorType.NONE) {
                     // Do not add the \ that was a way to escape an operator.
                 } else {
-                    builder.append(BACK_SLASH);
+                    append(BACK_SLASH, index - 1);
                 }
-                builder.append(c);
+                append(c);
                 haveEscape = false;
             } else if (!haveEscape && !isQuoted() &&
                     (currentOperator = matchesOperators(operators, text, index)) != OperatorType.NONE) {
                 handleFoundOperator(lines, text, cursor);
 
                 //if we end on an operator and cursor == text.length, add another empty line
-                if (index + currentOperator.value().length() == text.length() && cursor == text.length()) {
+                if (tokens == null && index + currentOperator.value().length() == text.length()
+                        && cursor == text.length()) {
                     textList.add(new ParsedWord("", index));
                     lines.add(new ParsedLine(text, textList, 0,
                             0, 0, ParserStatus.OK, "", OperatorType.NONE));
@@ -222,7 +282,7 @@ public class LineParser {
                     return lines;
                 }
             } else
-                builder.append(c);
+                append(c);
 
             //if current operator is set, we need to handle index/prev specially
             if (currentOperator != null && currentOperator != OperatorType.NONE) {
@@ -236,8 +296,11 @@ public class LineParser {
             }
         }
 
-        if (builder.length() > 0 || !textList.isEmpty() || startIndex < index)
-            lines.add(endOfLineProcessing(text.substring(startIndex, index), cursor, startIndex, text.length()));
+        if (wordLength() > 0 || wordCount() > 0 || startIndex < index) {
+            ParsedLine line = endOfLineProcessing(cursor, startIndex, text.length());
+            if (lines != null)
+                lines.add(line);
+        }
 
         return lines;
     }
@@ -257,26 +320,25 @@ public class LineParser {
         return OperatorType.matches(operators, text, index);
     }
 
-    private ParsedLine endOfLineProcessing(String text, int cursor,
-            int startIndex, int totalTextLength) {
+    private ParsedLine endOfLineProcessing(int cursor, int startIndex, int totalTextLength) {
         // if the escape was the last char, add it to the builder
         if (haveEscape)
-            builder.append(BACK_SLASH);
+            append(BACK_SLASH, index - 1);
 
-        if (builder.length() > 0) {
+        if (wordLength() > 0) {
             if (haveDoubleQuote || haveSingleQuote)
-                textList.add(new ParsedWord(builder.toString(), index - builder.length(), ParsedWord.Status.OPEN_QUOTE));
+                addWord(ParsedWord.Status.OPEN_QUOTE);
             else if (haveSquareBracket || haveCurlyBracket)
-                textList.add(new ParsedWord(builder.toString(), index - builder.length(), ParsedWord.Status.OPEN_BRACKET));
+                addWord(ParsedWord.Status.OPEN_BRACKET);
             else
-                textList.add(new ParsedWord(builder.toString(), index - builder.length()));
+                addWord(ParsedWord.Status.OK);
         }
 
         if (cursor == totalTextLength &&
                 (prev != SPACE_CHAR || (haveEscape || isQuoted()))) {
-            cursorWord = textList.size() - 1;
+            cursorWord = wordCount() - 1;
             if (textList.size() > 0)
-                wordCursor = textList.get(textList.size() - 1).word().length();
+                wordCursor = textList.get(textList.size() - 1).length();
         }
 
         ParserStatus status = ParserStatus.OK;
@@ -285,6 +347,12 @@ public class LineParser {
         else if (haveSingleQuote || haveDoubleQuote || haveCurlyBracket)
             status = ParserStatus.UNCLOSED_QUOTE;
 
+        if (tokens != null) {
+            tokens.endLine(startIndex, index, OperatorType.NONE, status);
+            return null;
+        }
+
+        String text = startIndex == 0 && index == source.length() ? source : source.substring(startIndex, index);
         return new ParsedLine(text, textList,
                 startIndex <= cursor && cursor <= index ? cursor - startIndex : -1,
                 cursorWord, wordCursor, status, "", OperatorType.NONE);
@@ -296,7 +364,7 @@ public class LineParser {
         else {
             haveCurlyBracket = false;
         }
-        builder.append(c);
+        append(c);
     }
 
     private void handleCurlyStart(char c) {
@@ -305,52 +373,49 @@ public class LineParser {
         } else if (!haveSingleQuote && !haveDoubleQuote) {
             haveCurlyBracket = true;
         }
-        builder.append(c);
+        append(c);
     }
 
     private void handleDoubleQuote(char c) {
         //already quoted and prev is escape, just add the quote
         if (ternaryQuote || haveDoubleQuote || haveSingleQuote) {
             if (prev == BACK_SLASH) {
-                builder.append(c);
+                append(c);
                 return;
             }
         }
 
         if (haveEscape || (ternaryQuote && prev != DOUBLE_QUOTE)) {
-            builder.append(c);
+            append(c);
             haveEscape = false;
         } else if (haveDoubleQuote) {
             handleHaveDoubleQuote();
         } else if (haveSingleQuote || haveCurlyBracket)
-            builder.append(c);
+            append(c);
         else
             haveDoubleQuote = true;
     }
 
     private void handleHaveDoubleQuote() {
         if (!ternaryQuote && prev == DOUBLE_QUOTE) {
-            if (builder.length() > 0) {
+            if (wordLength() > 0) {
                 // "" is attached to existing content (e.g., --option="")
                 // Treat as closing an empty quoted string
-                textList.add(new ParsedWord(builder.toString(), index - builder.length()));
-                builder = new StringBuilder();
+                addWord(ParsedWord.Status.OK);
                 haveDoubleQuote = false;
             } else {
                 ternaryQuote = true;
             }
         } else if (ternaryQuote && prev == DOUBLE_QUOTE) {
-            if (builder.length() > 0) {
-                builder.deleteCharAt(builder.length() - 1);
-                textList.add(new ParsedWord(builder.toString(), index - builder.length()));
-                builder = new StringBuilder();
+            if (wordLength() > 0) {
+                deleteLastChar();
+                addWord(ParsedWord.Status.OK);
             }
             haveDoubleQuote = false;
             ternaryQuote = false;
         } else {
-            if (builder.length() > 0) {
-                textList.add(new ParsedWord(builder.toString(), index - builder.length()));
-                builder = new StringBuilder();
+            if (wordLength() > 0) {
+                addWord(ParsedWord.Status.OK);
             }
             haveDoubleQuote = false;
         }
@@ -360,38 +425,36 @@ public class LineParser {
         //already quoted and prev is escape, just add the quote
         if (ternaryQuote || haveDoubleQuote || haveSingleQuote) {
             if (prev == BACK_SLASH) {
-                builder.append(c);
+                append(c);
                 return;
             }
         }
         if (haveEscape || ternaryQuote) {
-            builder.append(c);
+            append(c);
             haveEscape = false;
         } else if (haveSingleQuote) {
-            if (builder.length() > 0) {
-                textList.add(new ParsedWord(builder.toString(), index - builder.length()));
-                builder = new StringBuilder();
+            if (wordLength() > 0) {
+                addWord(ParsedWord.Status.OK);
             }
             haveSingleQuote = false;
         } else if (haveDoubleQuote) {
-            builder.append(c);
+            append(c);
         } else if (haveCurlyBracket)
-            builder.append(c);
+            append(c);
         else
             haveSingleQuote = true;
     }
 
     private char handleSpace(char c) {
         if (haveEscape) {
-            builder.append(c);
+            append(c);
             haveEscape = false;
             //since we escape it, we need to set it to a different value other than space
             c = NULL_CHAR;
         } else if (haveSingleQuote || haveDoubleQuote || haveCurlyBracket) {
-            builder.append(c);
-        } else if (builder.length() > 0) {
-            textList.add(new ParsedWord(builder.toString(), index - builder.length()));
-            builder = new StringBuilder();
+            append(c);
+        } else if (wordLength() > 0) {
+            addWord(ParsedWord.Status.OK);
         }
 
         return c;
@@ -400,21 +463,26 @@ public class LineParser {
     private void handleFoundOperator(List<ParsedLine> lines, String text, int cursor) {
         ParserStatus parserStatus = ParserStatus.OK;
         String errorMessage = "";
-        if (builder.length() > 0) {
-            textList.add(new ParsedWord(builder.toString(), index - builder.length()));
-            builder = new StringBuilder();
+        if (wordLength() > 0) {
+            addWord(ParsedWord.Status.OK);
         }
         //if textList.size == 0, we have an empty line before the operator
-        else if (textList.size() == 0) {
+        else if (wordCount() == 0) {
             if (!currentOperator.equals(OperatorType.NONE))
                 parserStatus = ParserStatus.EMPTY_BEFORE_OPERATOR;
-            errorMessage = "aesh: syntax error near unexpected token \'" + currentOperator.value() + '\'';
+            if (tokens == null)
+                errorMessage = "aesh: syntax error near unexpected token \'" + currentOperator.value() + '\'';
+        }
+        if (tokens != null) {
+            tokens.endLine(startIndex, index, currentOperator, parserStatus);
+            startIndex = index + currentOperator.value().length();
+            return;
         }
         //we know we have an operator so we need to subtract one char
         if (cursor == text.length() - 1) {
             cursorWord = textList.size() - 1;
             if (textList.size() > 0)
-                wordCursor = textList.get(textList.size() - 1).word().length();
+                wordCursor = textList.get(textList.size() - 1).length();
         }
 
         lines.add(
@@ -429,20 +497,89 @@ public class LineParser {
     }
 
     private void handleEscape(char c) {
-        builder.append(BACK_SLASH);
-        builder.append(c);
+        append(BACK_SLASH, index - 1);
+        append(c);
         haveEscape = false;
     }
 
-    private void reset() {
-        textList = new ArrayList<>();
+    /**
+     * Add the char at the current index to the current word
+     */
+    private void append(char c) {
+        append(c, index);
+    }
+
+    /**
+     * Add a char to the current word. As long as the chars are added in the same order
+     * as they are in the input we only track the region, else the word is copied.
+     */
+    private void append(char c, int at) {
+        if (copied)
+            builder.append(c);
+        else if (wordStart < 0 && source.charAt(at) == c) {
+            wordStart = at;
+            wordEnd = at + 1;
+        } else if (wordEnd == at && source.charAt(at) == c)
+            wordEnd++;
+        else {
+            if (wordStart > -1)
+                builder.append(source, wordStart, wordEnd);
+            builder.append(c);
+            copied = true;
+        }
+    }
+
+    private void deleteLastChar() {
+        if (copied)
+            builder.setLength(builder.length() - 1);
+        else
+            wordEnd--;
+    }
+
+    private int wordLength() {
+        if (copied)
+            return builder.length();
+        return wordStart < 0 ? 0 : wordEnd - wordStart;
+    }
+
+    private int wordCount() {
+        return tokens != null ? tokens.currentLineSize() : textList.size();
+    }
+
+    private void addWord(ParsedWord.Status status) {
+        int lineIndex = index - wordLength();
+        if (tokens != null) {
+            if (copied)
+                tokens.addWord(builder, lineIndex, status);
+            else
+                tokens.addWord(wordStart, wordEnd, lineIndex, status);
+        } else if (copied)
+            textList.add(new ParsedWord(builder.toString(), lineIndex, status));
+        else
+            textList.add(new ParsedWord(source, wordStart, wordEnd, lineIndex, status));
+        clearWord();
+    }
+
+    private void clearWord() {
+        builder.setLength(0);
+        copied = false;
+        wordStart = -1;
+        wordEnd = -1;
+    }
+
+    private void reset(String text, LineTokens tokens) {
+        this.source = text;
+        this.tokens = tokens;
+        //textList is handed over to the ParsedLine, so we need a new one for every line
+        if (tokens == null)
+            textList = new ArrayList<>();
         haveEscape = false;
         haveSingleQuote = false;
         haveDoubleQuote = false;
         ternaryQuote = false;
         haveCurlyBracket = false;
         haveSquareBracket = false;
-        builder = new StringBuilder();
+        clearWord();
         prev = NULL_CHAR;
         index = 0;
         cursorWord = -1;
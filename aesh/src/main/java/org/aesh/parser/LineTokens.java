@@ -0,0 +1,317 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.aesh.command.operator.OperatorType;
+
+/**
+ * The result of {@link LineParser#tokenize(String, LineTokens)}.
+ *
+ * Words are stored as int offsets into the original input. Only words that differ
+ * from the input (escaped chars, quotes) are copied, into a shared char buffer.
+ * Strings and {@link ParsedWord}s are created on demand, and the same instance can be
+ * reused for every line, so tokenizing a typical line does not produce any garbage.
+ *
+ * If the line contains operators it is split into several lines, words are numbered
+ * over the whole input and {@link #lineStart(int)}/{@link #lineEnd(int)} give the
+ * words of each line.
+ *
+ * Instances are not thread safe.
+ *
+ * @author Aesh team
+ */
+public final class LineTokens {
+
+    private static final int INITIAL_WORDS = 16;
+    private static final int INITIAL_LINES = 4;
+    private static final ParsedWord.Status[] WORD_STATUS = ParsedWord.Status.values();
+    //set in flags when the word is stored in the unescaped buffer and not in the input
+    private static final byte UNESCAPED = 0x40;
+    private static final byte STATUS_MASK = 0x0f;
+
+    private String input;
+
+    private int size;
+    private int[] starts = new int[INITIAL_WORDS];
+    private int[] ends = new int[INITIAL_WORDS];
+    private int[] lineIndexes = new int[INITIAL_WORDS];
+    private byte[] flags = new byte[INITIAL_WORDS];
+    private final StringBuilder unescaped = new StringBuilder();
+
+    private int lines;
+    private int currentLineStart;
+    private int[] lineWordEnds = new int[INITIAL_LINES];
+    private int[] lineTextStarts = new int[INITIAL_LINES];
+    private int[] lineTextEnds = new int[INITIAL_LINES];
+    private OperatorType[] operators = new OperatorType[INITIAL_LINES];
+    private ParserStatus[] statuses = new ParserStatus[INITIAL_LINES];
+
+    void reset(String input) {
+        this.input = input;
+        size = 0;
+        lines = 0;
+        currentLineStart = 0;
+        unescaped.setLength(0);
+        //do not keep references to the previous operators/status around
+        Arrays.fill(operators, null);
+        Arrays.fill(statuses, null);
+    }
+
+    void addWord(int start, int end, int lineIndex, ParsedWord.Status status) {
+        ensureWordCapacity();
+        starts[size] = start;
+        ends[size] = end;
+        lineIndexes[size] = lineIndex;
+        flags[size] = (byte) status.ordinal();
+        size++;
+    }
+
+    void addWord(CharSequence word, int lineIndex, ParsedWord.Status status) {
+        ensureWordCapacity();
+        starts[size] = unescaped.length();
+        unescaped.append(word);
+        ends[size] = unescaped.length();
+        lineIndexes[size] = lineIndex;
+        flags[size] = (byte) (status.ordinal() | UNESCAPED);
+        size++;
+    }
+
+    void endLine(int textStart, int textEnd, OperatorType operator, ParserStatus status) {
+        if (lines == lineWordEnds.length) {
+            int capacity = lines * 2;
+            lineWordEnds = Arrays.copyOf(lineWordEnds, capacity);
+            lineTextStarts = Arrays.copyOf(lineTextStarts, capacity);
+            lineTextEnds = Arrays.copyOf(lineTextEnds, capacity);
+            operators = Arrays.copyOf(operators, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+        lineWordEnds[lines] = size;
+        lineTextStarts[lines] = textStart;
+        lineTextEnds[lines] = textEnd;
+        operators[lines] = operator;
+        statuses[lines] = status;
+        lines++;
+        currentLineStart = size;
+    }
+
+    /**
+     * @return number of words in the line that is currently being tokenized
+     */
+    int currentLineSize() {
+        return size - currentLineStart;
+    }
+
+    private void ensureWordCapacity() {
+        if (size == starts.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            lineIndexes = Arrays.copyOf(lineIndexes, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+    }
+
+    /**
+     * @return the tokenized input
+     */
+    public String input() {
+        return input;
+    }
+
+    /**
+     * @return number of words in the input, over all lines
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Creates the String of the given word
+     *
+     * @param word index
+     * @return word
+     */
+    public String word(int word) {
+        checkWord(word);
+        if (isUnescaped(word))
+            return unescaped.substring(starts[word], ends[word]);
+        else
+            return input.substring(starts[word], ends[word]);
+    }
+
+    public int wordLength(int word) {
+        checkWord(word);
+        return ends[word] - starts[word];
+    }
+
+    public char charAt(int word, int index) {
+        checkWord(word);
+        if (index < 0 || index >= ends[word] - starts[word])
+            throw new IndexOutOfBoundsException("Index: " + index + ", word length: " + (ends[word] - starts[word]));
+        return isUnescaped(word) ? unescaped.charAt(starts[word] + index) : input.charAt(starts[word] + index);
+    }
+
+    /**
+     * Compare a word with the given value without creating a String
+     */
+    public boolean wordEquals(int word, String value) {
+        return wordLength(word) == value.length() && regionMatches(word, value);
+    }
+
+    /**
+     * Check if a word starts with the given prefix without creating a String
+     */
+    public boolean wordStartsWith(int word, String prefix) {
+        return wordLength(word) >= prefix.length() && regionMatches(word, prefix);
+    }
+
+    private boolean regionMatches(int word, String value) {
+        if (!isUnescaped(word))
+            return input.regionMatches(starts[word], value, 0, value.length());
+        int offset = starts[word];
+        for (int i = 0; i < value.length(); i++) {
+            if (unescaped.charAt(offset + i) != value.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the index of the word relative to the complete input, same as {@link ParsedWord#lineIndex()}
+     */
+    public int lineIndex(int word) {
+        checkWord(word);
+        return lineIndexes[word];
+    }
+
+    public ParsedWord.Status status(int word) {
+        checkWord(word);
+        return WORD_STATUS[flags[word] & STATUS_MASK];
+    }
+
+    /**
+     * @return a ParsedWord for the given word, its String is still only created on demand
+     */
+    public ParsedWord parsedWord(int word) {
+        checkWord(word);
+        if (isUnescaped(word))
+            return new ParsedWord(word(word), lineIndexes[word], status(word));
+        return new ParsedWord(input, starts[word], ends[word], lineIndexes[word], status(word));
+    }
+
+    /**
+     * @return number of lines, more than one if the input contained operators
+     */
+    public int lineCount() {
+        return lines;
+    }
+
+    /**
+     * @return index of the first word of the given line
+     */
+    public int lineStart(int line) {
+        checkLine(line);
+        return line == 0 ? 0 : lineWordEnds[line - 1];
+    }
+
+    /**
+     * @return index after the last word of the given line
+     */
+    public int lineEnd(int line) {
+        checkLine(line);
+        return lineWordEnds[line];
+    }
+
+    /**
+     * @return the operator that ended the given line, {@link OperatorType#NONE} for the last line
+     */
+    public OperatorType operator(int line) {
+        checkLine(line);
+        return operators[line];
+    }
+
+    public ParserStatus lineStatus(int line) {
+        checkLine(line);
+        return statuses[line];
+    }
+
+    /**
+     * @return the input text of the given line
+     */
+    public String line(int line) {
+        checkLine(line);
+        return input.substring(lineTextStarts[line], lineTextEnds[line]);
+    }
+
+    /**
+     * @return the given line as a ParsedLine, equal to what {@link LineParser} returns without a cursor
+     */
+    public ParsedLine toParsedLine(int line) {
+        int start = lineStart(line);
+        int end = lineEnd(line);
+        List<ParsedWord> words = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++)
+            words.add(parsedWord(i));
+        String errorMessage = statuses[line] == ParserStatus.EMPTY_BEFORE_OPERATOR
+                ? "aesh: syntax error near unexpected token '" + operators[line].value() + '\''
+                : "";
+        return new ParsedLine(line(line), words, -1, -1, -1, statuses[line], errorMessage, operators[line]);
+    }
+
+    public List<ParsedLine> toParsedLines() {
+        List<ParsedLine> parsedLines = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++)
+            parsedLines.add(toParsedLine(i));
+        return parsedLines;
+    }
+
+    private boolean isUnescaped(int word) {
+        return (flags[word] & UNESCAPED) != 0;
+    }
+
+    private void checkWord(int word) {
+        if (word < 0 || word >= size)
+            throw new IndexOutOfBoundsException("Word: " + word + ", size: " + size);
+    }
+
+    private void checkLine(int line) {
+        if (line < 0 || line >= lines)
+            throw new IndexOutOfBoundsException("Line: " + line + ", lines: " + lines);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("LineTokens{");
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(word(i));
+        }
+        return sb.append('}').toString();
+    }
+}
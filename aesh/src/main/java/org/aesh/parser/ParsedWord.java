@@ -29,20 +29,37 @@ package org.aesh.parser;
  */
 public class ParsedWord {
 
-    private final String word;
+    private String word;
     private final int lineIndex;
     private final Status status;
+    //when the word is a verbatim part of the input, the string is only created on demand
+    private final String source;
+    private final int start;
+    private final int end;
 
     public ParsedWord(String word, int lineIndex) {
-        this.word = word;
-        this.lineIndex = lineIndex;
-        this.status = Status.OK;
+        this(word, lineIndex, Status.OK);
     }
 
     public ParsedWord(String word, int lineIndex, Status status) {
         this.word = word;
         this.lineIndex = lineIndex;
         this.status = status;
+        this.source = null;
+        this.start = 0;
+        this.end = word == null ? 0 : word.length();
+    }
+
+    /**
+     * A word that is the region [start, end) of source, the String is created
+     * the first time {@link #word()} is called.
+     */
+    ParsedWord(String source, int start, int end, int lineIndex, Status status) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.lineIndex = lineIndex;
+        this.status = status;
     }
 
     /**
@@ -55,9 +72,18 @@ public class ParsedWord {
     }
 
     public String word() {
+        if (word == null && source != null)
+            word = source.substring(start, end);
         return word;
     }
 
+    /**
+     * @return length of the word, without creating it
+     */
+    public int length() {
+        return end - start;
+    }
+
     public Status status() {
         return status;
     }
@@ -71,6 +97,6 @@ public class ParsedWord {
 
     @Override
     public String toString() {
-        return word;
+        return word();
     }
 }
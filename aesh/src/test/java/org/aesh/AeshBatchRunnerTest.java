@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Argument;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AeshBatchRunnerTest {
+
+    private static final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private static CyclicBarrier meeting;
+
+    @Before
+    public void setup() {
+        executed.clear();
+    }
+
+    @Test
+    public void testLinesAreExecutedInParallel() {
+        meeting = new CyclicBarrier(4);
+        List<AeshBatchRunner.Result> results = AeshBatchRunner.builder()
+                .command(MeetCommand.class)
+                .workers(4)
+                .build()
+                .execute("meet", "meet", "meet", "meet");
+        assertEquals(4, results.size());
+        //the lines only succeed if all four are running at the same time
+        for (AeshBatchRunner.Result result : results)
+            assertTrue(result.toString(), result.isSuccess());
+    }
+
+    @Test
+    public void testBarrierAndDependencies() throws IOException {
+        Path script = Files.createTempFile("aesh-batch", ".txt");
+        try {
+            Files.write(script, Arrays.asList(
+                    "# add some values",
+                    "add 1",
+                    "add 2",
+                    "",
+                    "#wait",
+                    "count 2",
+                    "add 3 &&",
+                    "  add 4",
+                    "fail &&",
+                    "  add 5",
+                    "fail || \\",
+                    "  add 6",
+                    "foo"), StandardCharsets.UTF_8);
+
+            List<AeshBatchRunner.Result> reported = new ArrayList<>();
+            List<AeshBatchRunner.Result> results = AeshBatchRunner.builder()
+                    .command(AddCommand.class).command(CountCommand.class).command(FailCommand.class)
+                    .workers(3)
+                    .onResult(reported::add)
+                    .build()
+                    .execute(script);
+
+            assertEquals(results, reported);
+            assertEquals(Arrays.asList(2, 3, 6, 7, 9, 11, 13),
+                    results.stream().map(AeshBatchRunner.Result::lineNumber).collect(Collectors.toList()));
+            assertEquals(Arrays.asList("add 1", "add 2", "count 2", "add 3 && add 4", "fail && add 5",
+                    "fail || add 6", "foo"),
+                    results.stream().map(AeshBatchRunner.Result::line).collect(Collectors.toList()));
+            assertTrue(results.get(2).isSuccess());
+            assertTrue(results.get(3).isSuccess());
+            assertFalse(results.get(4).isSuccess());
+            assertTrue(results.get(5).isSuccess());
+            assertEquals(CommandResult.FAILURE, results.get(6).result());
+            assertTrue(results.get(6).failure() instanceof org.aesh.command.CommandNotFoundException);
+
+            assertFalse(executed.contains("5"));
+            assertTrue(executed.containsAll(Arrays.asList("1", "2", "3", "4", "6")));
+        } finally {
+            Files.delete(script);
+        }
+    }
+
+    @CommandDefinition(name = "meet", description = "")
+    public static class MeetCommand implements Command<CommandInvocation> {
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws InterruptedException {
+            try {
+                meeting.await(10, TimeUnit.SECONDS);
+                return CommandResult.SUCCESS;
+            } catch (BrokenBarrierException | TimeoutException e) {
+                return CommandResult.FAILURE;
+            }
+        }
+    }
+
+    @CommandDefinition(name = "add", description = "")
+    public static class AddCommand implements Command<CommandInvocation> {
+        @Argument
+        private String value;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            executed.add(value);
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "count", description = "")
+    public static class CountCommand implements Command<CommandInvocation> {
+        @Argument
+        private int expected;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return executed.size() >= expected ? CommandResult.SUCCESS : CommandResult.FAILURE;
+        }
+    }
+
+    @CommandDefinition(name = "fail", description = "")
+    public static class FailCommand implements Command<CommandInvocation> {
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return CommandResult.FAILURE;
+        }
+    }
+}
@@ -1,17 +1,45 @@
 package org.aesh.command;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.aesh.command.activator.OptionActivator;
+import org.aesh.command.activator.OptionActivatorProvider;
+import org.aesh.command.container.CommandContainer;
+import org.aesh.command.container.CommandContainerBuilder;
+import org.aesh.command.impl.AeshCommandRuntime;
+import org.aesh.command.impl.container.AeshCommandContainerBuilder;
+import org.aesh.command.impl.internal.ParsedCommand;
 import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
+import org.aesh.command.impl.registry.MutableCommandRegistryImpl;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.option.Argument;
+import org.aesh.command.option.Option;
 import org.aesh.command.parser.CommandLineParserException;
 import org.aesh.command.registry.CommandRegistry;
 import org.aesh.command.registry.CommandRegistryException;
 import org.aesh.command.validator.CommandValidatorException;
 import org.aesh.command.validator.OptionValidatorException;
+import org.aesh.complete.AeshCompleteOperation;
+import org.aesh.terminal.utils.Config;
 import org.junit.Test;
 
 public class AeshCommandRuntimeTest {
@@ -30,6 +58,305 @@ public class AeshCommandRuntimeTest {
 
     }
 
+    @Test
+    public void executeCommandConcurrently() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder().command(CheckCommand.class).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder().commandRegistry(registry).build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CommandResult>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String line = "check --id=" + i + " " + i;
+                results.add(executor.submit((Callable<CommandResult>) () -> runtime.executeCommand(line)));
+            }
+            //every execution must see its own values
+            for (Future<CommandResult> result : results)
+                assertEquals(CommandResult.SUCCESS, result.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void executeCommandConcurrentlyWithContainerBuilder() throws Exception {
+        CountingContainerBuilder containerBuilder = new CountingContainerBuilder();
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .containerBuilder(containerBuilder).command(MeetCommand.class).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder().commandRegistry(registry).build();
+
+        MeetCommand.meeting = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<CommandResult> first = executor.submit((Callable<CommandResult>) () -> runtime.executeCommand("meet"));
+            Future<CommandResult> second = executor.submit((Callable<CommandResult>) () -> runtime.executeCommand("meet"));
+            assertEquals(CommandResult.SUCCESS, first.get(10, TimeUnit.SECONDS));
+            assertEquals(CommandResult.SUCCESS, second.get(10, TimeUnit.SECONDS));
+            //the copy used by the second execution is created by the configured builder
+            assertEquals(2, containerBuilder.created.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void completeCommandWhileExecuting() throws Exception {
+        CountingContainerBuilder containerBuilder = new CountingContainerBuilder();
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .containerBuilder(containerBuilder).command(MeetCommand.class).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder().commandRegistry(registry).build();
+
+        MeetCommand.meeting = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<CommandResult> meet = executor.submit((Callable<CommandResult>) () -> runtime.executeCommand("meet"));
+            while (MeetCommand.meeting.getNumberWaiting() == 0)
+                Thread.sleep(10);
+            //the execution uses the registered container, completion must parse into a copy
+            runtime.complete(new AeshCompleteOperation(runtime.getAeshContext(), "meet --", 7));
+            assertEquals(2, containerBuilder.created.get());
+            MeetCommand.meeting.await(10, TimeUnit.SECONDS);
+            assertEquals(CommandResult.SUCCESS, meet.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void executeCommandWithExecutorCache() throws Exception {
+        MutableCommandRegistryImpl<CommandInvocation> registry = (MutableCommandRegistryImpl<CommandInvocation>) AeshCommandRegistryBuilder
+                .builder().command(CheckCommand.class).create();
+        AeshCommandRuntime<CommandInvocation> runtime = (AeshCommandRuntime<CommandInvocation>) AeshCommandRuntimeBuilder
+                .builder().commandRegistry(registry).executorCacheSize(2).build();
+
+        assertEquals(CommandResult.SUCCESS, runtime.executeCommand("check --id=1 1"));
+        assertEquals(CommandResult.SUCCESS, runtime.executeCommand("check --id=1 1"));
+        assertEquals(CommandResult.FAILURE, runtime.executeCommand("check --id=1 2"));
+        assertEquals(CommandResult.FAILURE, runtime.executeCommand("check --id=1 2"));
+        assertEquals(2, runtime.executorCacheHits());
+        assertEquals(2, runtime.executorCacheMisses());
+
+        //the least recently used line is removed
+        runtime.executeCommand("check --id=2 2");
+        runtime.executeCommand("check --id=1 1");
+        assertEquals(2, runtime.executorCacheHits());
+        assertEquals(4, runtime.executorCacheMisses());
+
+        //a removed command must not be found in the cache
+        registry.removeCommand("check");
+        try {
+            runtime.executeCommand("check --id=1 1");
+            fail("check was removed");
+        } catch (CommandNotFoundException e) {
+            assertEquals(5, runtime.executorCacheMisses());
+        }
+    }
+
+    @Test
+    public void executeLazilyRegisteredCommand() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .lazyRegistration(true).command(CheckCommand.class).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder().commandRegistry(registry).build();
+        assertFalse(registry.isCommandCreated("check"));
+
+        assertEquals(CommandResult.SUCCESS, runtime.executeCommand("check --id=1 1"));
+        assertTrue(registry.isCommandCreated("check"));
+        assertEquals(CommandResult.FAILURE, runtime.executeCommand("check --id=1 2"));
+    }
+
+    @Test
+    public void executeLazilyRegisteredCommandConcurrently() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .lazyRegistration(true).command(ActivatedCommand.class).create();
+        //a slow provider, the other threads must wait until the command is initialized
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder().commandRegistry(registry)
+                .optionActivatorProvider(new OptionActivatorProvider() {
+                    @Override
+                    public OptionActivator enhanceOptionActivator(OptionActivator optionActivator) {
+                        try {
+                            Thread.sleep(100);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return parsedCommand -> true;
+                    }
+                }).build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<CommandResult>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String line = "activated -i " + i + " " + i;
+                results.add(executor.submit((Callable<CommandResult>) () -> {
+                    start.await();
+                    return runtime.executeCommand(line);
+                }));
+            }
+            start.countDown();
+            for (Future<CommandResult> result : results)
+                assertEquals(CommandResult.SUCCESS, result.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void commandInfoIsFormattedForWidth() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .command(DescribedCommand.class).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder().commandRegistry(registry).build();
+
+        assertTrue(runtime.commandInfo("described").contains("--level  the level used when nothing else is configured"));
+        assertTrue(runtime.commandInfo("described", 40, false).contains("--level  the level used when nothing"
+                + Config.getLineSeparator() + "           else is configured"));
+    }
+
+    @Test
+    public void executeCommandAsync() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .commands(CheckCommand.class, SleepCommand.class, MeetCommand.class).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder().commandRegistry(registry)
+                .operators(AeshCommandRuntimeBuilder.ALL_OPERATORS).build();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals(CommandResult.SUCCESS,
+                    runtime.executeCommandAsync("check --id=1 1 && check --id=2 2", executor).get(10, TimeUnit.SECONDS));
+            assertEquals(CommandResult.FAILURE,
+                    runtime.executeCommandAsync("check --id=1 2 || check --id=1 3", executor).get(10, TimeUnit.SECONDS));
+
+            try {
+                runtime.executeCommandAsync("foo", executor).get(10, TimeUnit.SECONDS);
+                fail("foo is not a command");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof CommandNotFoundException);
+            }
+
+            //completing the returned future does not stop the execution
+            MeetCommand.meeting = new CyclicBarrier(2);
+            CompletableFuture<CommandResult> meet = runtime.executeCommandAsync("meet; meet", executor);
+            assertTrue(meet.complete(CommandResult.FAILURE));
+            MeetCommand.meeting.await(10, TimeUnit.SECONDS);
+            MeetCommand.meeting.await(10, TimeUnit.SECONDS);
+
+            //a running command is interrupted when the future is cancelled
+            SleepCommand.started = new CountDownLatch(1);
+            SleepCommand.interrupted = new CountDownLatch(1);
+            CompletableFuture<CommandResult> sleep = runtime.executeCommandAsync("sleep; check --id=1 1", executor);
+            assertTrue(SleepCommand.started.await(10, TimeUnit.SECONDS));
+            assertTrue(sleep.cancel(true));
+            assertTrue(SleepCommand.interrupted.await(10, TimeUnit.SECONDS));
+            //the executor thread can be used again
+            assertEquals(CommandResult.SUCCESS,
+                    runtime.executeCommandAsync("check --id=1 1", executor).get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @CommandDefinition(name = "sleep", description = "")
+    public static class SleepCommand implements Command<CommandInvocation> {
+        private static CountDownLatch started;
+        private static CountDownLatch interrupted;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws InterruptedException {
+            started.countDown();
+            try {
+                Thread.sleep(60000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    private static class CountingContainerBuilder implements CommandContainerBuilder<CommandInvocation> {
+        private final AeshCommandContainerBuilder<CommandInvocation> delegate = new AeshCommandContainerBuilder<>();
+        private final AtomicInteger created = new AtomicInteger();
+
+        @Override
+        public CommandContainer<CommandInvocation> create(Command command) throws CommandLineParserException {
+            return delegate.create(command);
+        }
+
+        @Override
+        public CommandContainer<CommandInvocation> create(Class<? extends Command> command)
+                throws CommandLineParserException {
+            created.incrementAndGet();
+            return delegate.create(command);
+        }
+    }
+
+    @CommandDefinition(name = "meet", description = "")
+    public static class MeetCommand implements Command<CommandInvocation> {
+        private static CyclicBarrier meeting;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws InterruptedException {
+            try {
+                meeting.await(10, TimeUnit.SECONDS);
+                return CommandResult.SUCCESS;
+            } catch (BrokenBarrierException | TimeoutException e) {
+                return CommandResult.FAILURE;
+            }
+        }
+    }
+
+    @CommandDefinition(name = "check", description = "")
+    public static class CheckCommand implements Command<CommandInvocation> {
+
+        @Option
+        private String id;
+
+        @Argument
+        private String arg;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws InterruptedException {
+            String before = id;
+            Thread.sleep(1);
+            return before.equals(id) && id.equals(arg) ? CommandResult.SUCCESS : CommandResult.FAILURE;
+        }
+    }
+
+    public static class NotActivated implements OptionActivator {
+        @Override
+        public boolean isActivated(ParsedCommand parsedCommand) {
+            return false;
+        }
+    }
+
+    @CommandDefinition(name = "activated", description = "")
+    public static class ActivatedCommand implements Command<CommandInvocation> {
+
+        //only found when the runtime has enhanced the activator
+        @Option(shortName = 'i', activator = NotActivated.class)
+        private String id;
+
+        @Argument
+        private String arg;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return id != null && id.equals(arg) ? CommandResult.SUCCESS : CommandResult.FAILURE;
+        }
+    }
+
+    @CommandDefinition(name = "described", description = "")
+    public static class DescribedCommand implements Command<CommandInvocation> {
+
+        @Option(description = "the level used when nothing else is configured")
+        private String level;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
     @CommandDefinition(name = "test", description = "")
     public static class TestCommand implements Command<CommandInvocation> {
 
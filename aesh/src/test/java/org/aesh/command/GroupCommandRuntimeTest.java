@@ -1,9 +1,16 @@
 package org.aesh.command;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
+import org.aesh.command.impl.parser.CommandLineParser;
 import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.option.Option;
@@ -19,6 +26,7 @@ public class GroupCommandRuntimeTest {
     private static String lastConnect;
     private static String lastSubcommand;
     private static boolean lastVerbose;
+    private static final List<String> created = Collections.synchronizedList(new ArrayList<>());
 
     @Test
     public void testGroupCommandWithOptionsBeforeSubcommand() throws CommandRegistryException, CommandException,
@@ -60,6 +68,39 @@ public class GroupCommandRuntimeTest {
         assertEquals("child", lastSubcommand);
     }
 
+    @Test
+    public void testChildrenAreCreatedWhenUsed() throws Exception {
+        created.clear();
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .command(LazyGroupCommand.class).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder()
+                .commandRegistry(registry).build();
+        assertTrue(created.isEmpty());
+
+        reset();
+        runtime.executeCommand("lazy first");
+        assertEquals("first", lastSubcommand);
+        assertEquals(Collections.singletonList("first"), created);
+
+        CommandLineParser<CommandInvocation> parser = registry.getCommand("lazy", "").getParser();
+        assertEquals(Arrays.asList("lazy first", "lazy second"), parser.getAllNames());
+        assertEquals(Collections.singletonList("first"), created);
+
+        //help lists the children without creating them
+        assertTrue(parser.printHelp().contains("The second command"));
+        try {
+            runtime.executeCommand("lazy third");
+            fail("third is not a child of lazy");
+        } catch (CommandLineParserException e) {
+            assertTrue(runtime.commandInfo("lazy").contains("The second command"));
+        }
+        assertEquals(Collections.singletonList("first"), created);
+
+        runtime.executeCommand("lazy second");
+        assertEquals("second", lastSubcommand);
+        assertEquals(Arrays.asList("first", "second"), created);
+    }
+
     private void reset() {
         lastConnect = null;
         lastSubcommand = null;
@@ -87,6 +128,41 @@ public class GroupCommandRuntimeTest {
         }
     }
 
+    @CommandDefinition(name = "first", description = "")
+    public static class FirstCommand implements Command<CommandInvocation> {
+        public FirstCommand() {
+            created.add("first");
+        }
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            lastSubcommand = "first";
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "second", description = "The second command")
+    public static class SecondCommand implements Command<CommandInvocation> {
+        public SecondCommand() {
+            created.add("second");
+        }
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            lastSubcommand = "second";
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @GroupCommandDefinition(name = "lazy", description = "", groupCommands = { FirstCommand.class,
+            SecondCommand.class })
+    public static class LazyGroupCommand implements Command<CommandInvocation> {
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
     @GroupCommandDefinition(name = "cli", description = "", groupCommands = { VersionCommand.class, ChildCommand.class })
     public static class CliGroupCommand implements Command<CommandInvocation> {
         @Option(shortName = 'c')
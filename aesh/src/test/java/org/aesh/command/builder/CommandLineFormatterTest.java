@@ -21,6 +21,8 @@ package org.aesh.command.builder;
 
 import static org.aesh.terminal.utils.Config.getLineSeparator;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import org.aesh.AeshConsoleRunner;
 import org.aesh.command.Command;
@@ -28,6 +30,7 @@ import org.aesh.command.CommandDefinition;
 import org.aesh.command.CommandException;
 import org.aesh.command.CommandResult;
 import org.aesh.command.GroupCommandDefinition;
+import org.aesh.command.impl.internal.ProcessedCommand;
 import org.aesh.command.impl.internal.ProcessedCommandBuilder;
 import org.aesh.command.impl.internal.ProcessedOptionBuilder;
 import org.aesh.command.impl.parser.AeshCommandLineParser;
@@ -122,6 +125,50 @@ public class CommandLineFormatterTest {
                 clp.printHelp());
     }
 
+    @Test
+    public void formatterWrapsToWidth() throws CommandLineParserException {
+        ProcessedCommandBuilder<Command<CommandInvocation>, CommandInvocation> pb = ProcessedCommandBuilder.builder()
+                .name("man").description("[OPTION...]");
+
+        pb.addOption(
+                ProcessedOptionBuilder.builder()
+                        .shortName('d')
+                        .name("debug")
+                        .description("emit debugging messages")
+                        .type(String.class)
+                        .build());
+
+        pb.addOption(
+                ProcessedOptionBuilder.builder()
+                        .shortName('D')
+                        .name("default")
+                        .description("reset all options to their default values")
+                        .type(String.class)
+                        .build());
+
+        ProcessedCommand<Command<CommandInvocation>, CommandInvocation> command = pb.create();
+        CommandLineParser clp = new AeshCommandLineParser<>(command);
+
+        String help = clp.printHelp(40, false);
+        assertEquals("Usage: man [<options>]" + getLineSeparator() + "[OPTION...]" + getLineSeparator() +
+                getLineSeparator() +
+                "Options:" + getLineSeparator() +
+                "  -d, --debug    emit debugging messages" + getLineSeparator() +
+                "  -D, --default  reset all options to" + getLineSeparator() +
+                "                 their default values" + getLineSeparator(),
+                help);
+        assertSame(help, clp.printHelp(40, false));
+
+        command.addOption(
+                ProcessedOptionBuilder.builder()
+                        .shortName('v')
+                        .name("verbose")
+                        .description("verbose")
+                        .type(String.class)
+                        .build());
+        assertTrue(clp.printHelp(40, false).contains("--verbose"));
+    }
+
     @Test
     public void groupFormatter() throws CommandLineParserException {
         ProcessedCommandBuilder<Command<CommandInvocation>, CommandInvocation> git = ProcessedCommandBuilder.builder()
@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.container.CommandContainer;
+import org.aesh.command.impl.container.AeshCommandContainerBuilder;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Argument;
+import org.aesh.command.option.Option;
+import org.aesh.command.option.OptionGroup;
+import org.aesh.command.option.OptionList;
+import org.junit.Test;
+
+/**
+ * @author Aesh team
+ */
+public class FieldAccessorsTest {
+
+    @Test
+    public void testInjectWithAccessors() throws Exception {
+        CommandContainer<CommandInvocation> container = new AeshCommandContainerBuilder<CommandInvocation>()
+                .create(AccessorCommand.class);
+        ProcessedCommand<?, ?> processed = container.getParser().getProcessedCommand();
+        for (ProcessedOption option : processed.getOptions()) {
+            if (option.getFieldName().equals("constant"))
+                assertNull(option.getFieldSetter());
+            else
+                assertNotNull(option.name(), option.getFieldSetter());
+        }
+        assertNotNull(processed.getArgument().getFieldSetter());
+
+        AccessorCommand command = new AccessorCommand();
+        AeshCommandContainerBuilder.parseAndPopulate(cast(command),
+                "accessor --count 3 --flag --names a,b,a --lines x,y -Dk=v -Dj=w arg");
+        assertEquals(3, command.count);
+        assertTrue(command.flag);
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), command.names);
+        assertEquals(Arrays.asList("x", "y"), command.lines);
+        assertEquals("[j, k]", command.properties.keySet().toString());
+        assertEquals("arg", command.argument);
+
+        for (ProcessedOption option : processed.getOptions())
+            option.resetField(command);
+        assertEquals(0, command.count);
+        assertFalse(command.flag);
+        assertNull(command.names);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Command<CommandInvocation> cast(Command<?> command) {
+        return (Command<CommandInvocation>) command;
+    }
+
+    @CommandDefinition(name = "accessor", description = "")
+    public static class AccessorCommand implements Command<CommandInvocation> {
+
+        @Option
+        private int count;
+
+        @Option(hasValue = false)
+        private Boolean flag;
+
+        @Option
+        private final String constant = "c";
+
+        @OptionList
+        private Set<String> names;
+
+        @OptionList
+        private LinkedList<String> lines;
+
+        @OptionGroup(shortName = 'D')
+        private TreeMap<String, String> properties;
+
+        @Argument
+        private String argument;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+}
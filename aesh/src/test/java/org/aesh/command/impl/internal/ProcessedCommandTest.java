@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.aesh.command.Command;
+import org.aesh.command.activator.OptionActivator;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.parser.CommandLineParserException;
+import org.aesh.terminal.formatting.TerminalString;
+import org.junit.Test;
+
+/**
+ * @author Aesh team
+ */
+public class ProcessedCommandTest {
+
+    @Test
+    public void testFindOptions() throws CommandLineParserException {
+        ProcessedCommand<Command<CommandInvocation>, CommandInvocation> cmd = createCommand(null);
+
+        assertEquals("verbose", cmd.findOption("v").name());
+        assertNull(cmd.findOption("vv"));
+        assertNull(cmd.findOption("x"));
+        assertEquals("version", cmd.findLongOption("version").name());
+        assertNull(cmd.findLongOption("vers"));
+        assertEquals("color", cmd.findNegatedOption("no-color").name());
+        assertTrue(cmd.findLongOption("color").isNegatedByUser());
+        assertNull(cmd.findNegatedOption("no-verbose"));
+        assertEquals("verbose", cmd.startWithOption("vfoo").name());
+        assertEquals("host", cmd.findBareLongOption("host").name());
+        assertNull(cmd.findBareLongOption("verbose"));
+
+        assertEquals("verbose", cmd.searchAllOptions("-v").name());
+        assertEquals("verbose", cmd.searchAllOptions("-vfoo").name());
+        assertEquals("host-name", cmd.searchAllOptions("--host-name=foo").name());
+        assertEquals("host", cmd.searchAllOptions("--host=foo").name());
+        assertEquals("color", cmd.searchAllOptions("--no-color").name());
+        assertEquals("host", cmd.searchAllOptions("host=foo").name());
+        assertNull(cmd.searchAllOptions("--ver"));
+    }
+
+    @Test
+    public void testPrefixLookups() throws CommandLineParserException {
+        ProcessedCommand<Command<CommandInvocation>, CommandInvocation> cmd = createCommand(null);
+
+        assertEquals("host", cmd.startWithLongOption("hostname").name());
+        assertEquals("host-name", cmd.startWithLongOptionNoActivatorCheck("host-name=x").name());
+        assertNull(cmd.startWithLongOption("foo"));
+
+        assertEquals(Arrays.asList("--verbose", "--version="), render(cmd.findPossibleLongNamesWithDash("ver")));
+        assertEquals(Arrays.asList("host=", "--host-name="), render(cmd.findPossibleLongNamesWithDash("h")));
+        assertEquals(Arrays.asList("--no-color"), render(cmd.findPossibleLongNamesWithDash("no")));
+        assertEquals(Arrays.asList("verbose", "version", "color", "no-color", "host", "host-name"),
+                cmd.findPossibleLongNames("--"));
+        assertEquals(Arrays.asList("host="), render(cmd.findPossibleBareLongNamesWithDash("ho")));
+
+        assertTrue(cmd.hasLongOption("host"));
+        assertFalse(cmd.hasLongOption("hos"));
+        assertFalse(cmd.hasUniqueLongOption("host"));
+        assertTrue(cmd.hasUniqueLongOption("host-name"));
+    }
+
+    @Test
+    public void testActivatorIsOnlyEvaluatedOncePerParse() throws CommandLineParserException {
+        CountingActivator activator = new CountingActivator();
+        ProcessedCommand<Command<CommandInvocation>, CommandInvocation> cmd = createCommand(activator);
+
+        assertEquals("host", cmd.findLongOption("host").name());
+        assertEquals("host", cmd.findLongOption("host").name());
+        cmd.getOptionLongNamesWithDash();
+        cmd.findPossibleLongNamesWithDash("h");
+        assertEquals(1, activator.count);
+
+        //activators can depend on option values
+        cmd.findLongOption("verbose").addValue("true");
+        assertEquals("host", cmd.findLongOption("host").name());
+        assertEquals(2, activator.count);
+
+        cmd.clear();
+        activator.activated = false;
+        assertNull(cmd.findLongOption("host"));
+        assertNull(cmd.findLongOption("host"));
+        assertEquals("host", cmd.findLongOptionNoActivatorCheck("host").name());
+        assertEquals(3, activator.count);
+    }
+
+    private static List<String> render(List<TerminalString> names) {
+        return names.stream().map(TerminalString::getCharacters).collect(Collectors.toList());
+    }
+
+    private static ProcessedCommand<Command<CommandInvocation>, CommandInvocation> createCommand(OptionActivator activator)
+            throws CommandLineParserException {
+        return ProcessedCommandBuilder.<Command<CommandInvocation>, CommandInvocation> builder()
+                .name("test")
+                .description("test")
+                .command(commandInvocation -> null)
+                .addOption(ProcessedOptionBuilder.builder().shortName('v').name("verbose")
+                        .hasValue(false).type(Boolean.class).build())
+                .addOption(ProcessedOptionBuilder.builder().name("version").type(String.class).build())
+                .addOption(ProcessedOptionBuilder.builder().name("color").negatable(true)
+                        .hasValue(false).type(Boolean.class).build())
+                .addOption(ProcessedOptionBuilder.builder().name("host").acceptNameWithoutDashes(true)
+                        .activator(activator).type(String.class).build())
+                .addOption(ProcessedOptionBuilder.builder().name("host-name").type(String.class).build())
+                .create();
+    }
+
+    private static class CountingActivator implements OptionActivator {
+        private int count;
+        private boolean activated = true;
+
+        @Override
+        public boolean isActivated(ParsedCommand parsedCommand) {
+            count++;
+            return activated;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.operator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.aesh.terminal.utils.Parser;
+import org.junit.Test;
+
+/**
+ * @author Aesh team
+ */
+public class AnsiStrippingWriterTest {
+
+    private static final String[] INPUTS = {
+            "plain text",
+            "\u001B[1mbold\u001B[0m text",
+            "\u001B[?25lhidden cursor\u001B[?25h",
+            "\u001B[38;5;208mcolor\u001B[m",
+            "\u001B]8;;http://example.org\u0007link\u001B]8;;\u0007",
+            "\u001B]0;title\u001B\\after title",
+            "\u001B]0;unterminated title",
+            "lone escape \u001B",
+            "\u001B[12",
+            "escape \u001Bx in text",
+            "\u001B[31mred\n\u001B[32mgreen\n",
+    };
+
+    @Test
+    public void testSameAsRegularExpression() throws IOException {
+        for (String input : INPUTS)
+            assertEquals(input, Parser.stripAwayAnsiCodes(input), strip(input));
+    }
+
+    @Test
+    public void testSequencesSplitOverWrites() throws IOException {
+        for (String input : INPUTS) {
+            String expected = Parser.stripAwayAnsiCodes(input);
+            for (int split = 0; split <= input.length(); split++) {
+                StringWriter out = new StringWriter();
+                try (AnsiStrippingWriter writer = new AnsiStrippingWriter(out)) {
+                    writer.write(input.substring(0, split));
+                    writer.write(input.substring(split));
+                }
+                assertEquals(input + " split at " + split, expected, out.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testCharByChar() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (String s : INPUTS)
+            input.append(s, 0, s.length());
+        StringWriter out = new StringWriter();
+        try (AnsiStrippingWriter writer = new AnsiStrippingWriter(out)) {
+            for (int i = 0; i < input.length(); i++)
+                writer.write(input.charAt(i));
+        }
+        assertEquals(strip(input.toString()), out.toString());
+    }
+
+    private static String strip(String input) throws IOException {
+        StringWriter out = new StringWriter();
+        try (AnsiStrippingWriter writer = new AnsiStrippingWriter(out)) {
+            writer.write(input);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.operator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Aesh team
+ */
+public class FileChannelWriterTest {
+
+    private Path file;
+
+    @Before
+    public void setup() throws IOException {
+        file = Files.createTempFile("aesh-redirect", ".txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testOnlyWrittenWhenBufferIsFull() throws IOException {
+        try (FileChannelWriter writer = new FileChannelWriter(file, false, 64)) {
+            writer.write("0123456789");
+            assertEquals(0, Files.size(file));
+            for (int i = 0; i < 10; i++)
+                writer.write("0123456789");
+            assertTrue(Files.size(file) > 0);
+        }
+        assertEquals(110, Files.size(file));
+    }
+
+    @Test
+    public void testMultiByteCharactersOverBufferBoundary() throws IOException {
+        StringBuilder expected = new StringBuilder();
+        try (FileChannelWriter writer = new FileChannelWriter(file, false, 16)) {
+            for (int i = 0; i < 500; i++) {
+                String line = i + " æøå € 😀\n";
+                expected.append(line);
+                //write a char at a time so surrogate pairs are split between writes
+                for (int c = 0; c < line.length(); c++)
+                    writer.write(line.charAt(c));
+            }
+        }
+        assertEquals(expected.toString(), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testAppendAndTruncate() throws IOException {
+        try (FileChannelWriter writer = new FileChannelWriter(file, false, 1024)) {
+            writer.write("first\n");
+        }
+        try (FileChannelWriter writer = new FileChannelWriter(file, true, 1024)) {
+            writer.write("second\n");
+        }
+        assertEquals("first\nsecond\n", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        try (FileChannelWriter writer = new FileChannelWriter(file, false, 1024)) {
+            writer.write("third\n");
+        }
+        assertEquals("third\n", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteAfterClose() throws IOException {
+        FileChannelWriter writer = new FileChannelWriter(file, false, 1024);
+        writer.close();
+        writer.write("closed");
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.operator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * @author Aesh team
+ */
+public class PipeBufferTest {
+
+    @Test(timeout = 10000)
+    public void testWriterBlocksUntilRead() throws Exception {
+        PipeBuffer buffer = new PipeBuffer(16);
+        byte[] data = new byte[1000];
+        for (int i = 0; i < data.length; i++)
+            data[i] = (byte) i;
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try (OutputStream out = buffer.sink()) {
+                out.write(data);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+
+        //the writer can not finish before the data is read
+        writer.join(200);
+        assertTrue(writer.isAlive());
+        assertTrue(buffer.source().available() <= 16);
+
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        InputStream in = buffer.source();
+        byte[] chunk = new byte[7];
+        int n;
+        while ((n = in.read(chunk)) != -1)
+            read.write(chunk, 0, n);
+
+        writer.join();
+        assertEquals(null, failure.get());
+        assertArrayEquals(data, read.toByteArray());
+        assertEquals(-1, in.read());
+    }
+
+    @Test(timeout = 10000)
+    public void testWritesAreDiscardedWhenReaderIsClosed() throws Exception {
+        PipeBuffer buffer = new PipeBuffer(4);
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 100; i++)
+                    buffer.sink().write("data".getBytes());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        writer.start();
+
+        assertEquals('d', buffer.source().read());
+        buffer.closeReader();
+        writer.join();
+        assertFalse(writer.isAlive());
+        assertEquals(-1, buffer.source().read());
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteAfterClose() throws IOException {
+        PipeBuffer buffer = new PipeBuffer(4);
+        buffer.closeWriter();
+        buffer.sink().write(1);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.operator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.aesh.command.AeshCommandRuntimeBuilder;
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.impl.AeshCommandRuntime;
+import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
+import org.aesh.command.impl.shell.ShellOutputDelegate;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.job.Job;
+import org.aesh.command.job.JobOutput;
+import org.aesh.command.job.JobTable;
+import org.aesh.command.registry.CommandRegistry;
+import org.aesh.command.settings.Settings;
+import org.aesh.command.settings.SettingsBuilder;
+import org.aesh.command.shell.Shell;
+import org.aesh.console.ReadlineConsole;
+import org.aesh.terminal.utils.Config;
+import org.aesh.tty.TestConnection;
+import org.junit.Test;
+
+/**
+ * @author Aesh team
+ */
+public class AeshCommandBackgroundOperatorTest {
+
+    private static CountDownLatch gate;
+    private static volatile Shell shell;
+
+    @Test
+    public void testBackgroundJob() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .command(GateCommand.class).command(PrintCommand.class).create();
+        AeshCommandRuntime<CommandInvocation> runtime = (AeshCommandRuntime<CommandInvocation>) AeshCommandRuntimeBuilder
+                .builder().commandRegistry(registry).operators(AeshCommandRuntimeBuilder.ALL_OPERATORS).build();
+
+        gate = new CountDownLatch(1);
+        //the line is done while the job is still running
+        assertEquals(CommandResult.SUCCESS, runtime.executeCommand("gate & print"));
+        Job job = runtime.jobTable().current();
+        assertEquals(1, job.id());
+        assertEquals("gate", job.line());
+        assertEquals(Job.Status.RUNNING, job.status());
+        assertNull(job.result());
+
+        gate.countDown();
+        assertEquals(CommandResult.SUCCESS, job.await());
+        assertEquals(Job.Status.DONE, job.status());
+        assertEquals("gate done" + Config.getLineSeparator(), job.output());
+
+        //a cancelled job is interrupted
+        gate = new CountDownLatch(1);
+        runtime.executeCommand("gate &");
+        Job second = runtime.jobTable().current();
+        assertEquals(2, second.id());
+        assertTrue(second.cancel());
+        assertEquals(CommandResult.FAILURE, second.await());
+        assertEquals(Job.Status.CANCELLED, second.status());
+
+        assertEquals(2, runtime.jobTable().removeDone().size());
+        assertEquals(0, runtime.jobTable().size());
+    }
+
+    @Test
+    public void testOnlyBackgroundJobsCaptureOutput() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .command(ShellCommand.class).create();
+        AeshCommandRuntime<CommandInvocation> runtime = (AeshCommandRuntime<CommandInvocation>) AeshCommandRuntimeBuilder
+                .builder().commandRegistry(registry).operators(AeshCommandRuntimeBuilder.ALL_OPERATORS).build();
+
+        File file = File.createTempFile("aesh-redirect", ".txt");
+        file.deleteOnExit();
+        runtime.executeCommand("shell > " + file.getAbsolutePath());
+        assertFalse(shell instanceof ShellOutputDelegate);
+
+        runtime.executeCommand("shell &");
+        assertEquals(CommandResult.SUCCESS, runtime.jobTable().current().await());
+        assertTrue(shell instanceof ShellOutputDelegate);
+    }
+
+    @Test
+    public void testJobOutputKeepsTheEnd() {
+        JobOutput output = new JobOutput(8);
+        output.write("0123456");
+        output.write("789ab");
+        assertEquals("456789ab", output.text());
+        output.write("cdefghijklmn");
+        assertEquals("ghijklmn", output.text());
+    }
+
+    @Test
+    public void testDoneJobsExpire() {
+        JobTable jobs = new JobTable(Runnable::run);
+        for (int i = 0; i < JobTable.MAX_DONE_JOBS + 5; i++)
+            jobs.start("print", null, () -> CommandResult.SUCCESS);
+        assertEquals(JobTable.MAX_DONE_JOBS, jobs.size());
+        assertEquals(JobTable.MAX_DONE_JOBS + 5, jobs.current().id());
+    }
+
+    @Test
+    public void testJobControlCommands() throws Exception {
+        TestConnection connection = new TestConnection();
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .command(GateCommand.class).create();
+        Settings<CommandInvocation> settings = SettingsBuilder.builder()
+                .commandRegistry(registry)
+                .enableOperatorParser(true)
+                .enableJobControl(true)
+                .connection(connection)
+                .setPersistExport(false)
+                .logging(true)
+                .build();
+
+        ReadlineConsole console = new ReadlineConsole(settings);
+        console.start();
+
+        gate = new CountDownLatch(1);
+        connection.read("gate &" + Config.getLineSeparator());
+        connection.clearOutputBuffer();
+        connection.read("jobs" + Config.getLineSeparator());
+        Thread.sleep(100);
+        connection.assertBufferEndsWith("[1]  Running   gate &" + Config.getLineSeparator());
+        connection.clearOutputBuffer();
+
+        connection.read("bg 1" + Config.getLineSeparator());
+        Thread.sleep(100);
+        connection.assertBufferEndsWith("[1] gate &" + Config.getLineSeparator());
+        connection.clearOutputBuffer();
+
+        gate.countDown();
+        connection.read("fg" + Config.getLineSeparator());
+        Thread.sleep(100);
+        connection.assertBufferEndsWith("gate" + Config.getLineSeparator() + "gate done" + Config.getLineSeparator());
+        connection.clearOutputBuffer();
+
+        connection.read("fg" + Config.getLineSeparator());
+        Thread.sleep(100);
+        connection.assertBufferEndsWith("fg: current: no such job" + Config.getLineSeparator());
+
+        console.stop();
+    }
+
+    @CommandDefinition(name = "gate", description = "")
+    public static class GateCommand implements Command<CommandInvocation> {
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws InterruptedException {
+            if (!gate.await(10, TimeUnit.SECONDS))
+                return CommandResult.FAILURE;
+            commandInvocation.println("gate done");
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "shell", description = "")
+    public static class ShellCommand implements Command<CommandInvocation> {
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            shell = commandInvocation.getShell();
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "print", description = "")
+    public static class PrintCommand implements Command<CommandInvocation> {
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+}
@@ -20,15 +20,18 @@
 package org.aesh.command.operator;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 
+import org.aesh.command.AeshCommandRuntimeBuilder;
 import org.aesh.command.Command;
 import org.aesh.command.CommandDefinition;
 import org.aesh.command.CommandException;
 import org.aesh.command.CommandResult;
+import org.aesh.command.CommandRuntime;
 import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.option.Argument;
@@ -36,6 +39,7 @@ import org.aesh.command.registry.CommandRegistry;
 import org.aesh.command.registry.CommandRegistryException;
 import org.aesh.command.settings.Settings;
 import org.aesh.command.settings.SettingsBuilder;
+import org.aesh.console.ExecutionStrategy;
 import org.aesh.console.ReadlineConsole;
 import org.aesh.io.Resource;
 import org.aesh.terminal.utils.Config;
@@ -109,6 +113,72 @@ public class AeshCommandPipelineTest {
         console.stop();
     }
 
+    @Test(timeout = 20000)
+    public void testStreamingPipeline() throws Exception {
+        LinesCommand lines = new LinesCommand();
+        CountCommand count = new CountCommand();
+        HeadCommand head = new HeadCommand();
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.<CommandInvocation> builder()
+                .command(lines)
+                .command(count)
+                .command(head)
+                .command(FailCommand.class)
+                .create();
+
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.<CommandInvocation> builder()
+                .commandRegistry(registry)
+                .operators(AeshCommandRuntimeBuilder.ALL_OPERATORS)
+                .pipeBufferSize(64)
+                .build();
+
+        //much more output than the buffer can hold
+        assertEquals(CommandResult.SUCCESS, runtime.executeCommand("lines 10000 | count"));
+        assertEquals(10000, count.count);
+
+        assertEquals(CommandResult.SUCCESS, runtime.executeCommand("lines 10000 | count | count"));
+        assertEquals(1, count.count);
+
+        //the rest of the output is discarded when the reader is done
+        assertEquals(CommandResult.SUCCESS, runtime.executeCommand("lines 1000000 | head"));
+        assertEquals("line 0", head.line);
+
+        try {
+            runtime.executeCommand("fail | count");
+            fail("failure of the first command should be reported");
+        } catch (CommandException e) {
+            assertEquals("failed", e.getMessage());
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testStreamingPipelineInBoundedPool() throws Exception {
+        TestConnection connection = new TestConnection();
+        CountCommand count = new CountCommand();
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.<CommandInvocation> builder()
+                .command(new LinesCommand())
+                .command(count)
+                .create();
+
+        Settings<CommandInvocation> settings = SettingsBuilder
+                .builder()
+                .connection(connection)
+                .enableOperatorParser(true)
+                .commandRegistry(registry)
+                .pipeBufferSize(64)
+                .executionStrategy(ExecutionStrategy.boundedPool(1))
+                .logging(true)
+                .build();
+
+        ReadlineConsole console = new ReadlineConsole(settings);
+        console.start();
+
+        //the only thread of the pool runs count, lines must not wait for it
+        connection.read("lines 10000 | count" + Config.getLineSeparator());
+        while (count.count != 10000)
+            Thread.sleep(10);
+        console.stop();
+    }
+
     @CommandDefinition(name = "pipe", description = "")
     public static class PipeCommand implements Command {
 
@@ -166,4 +236,63 @@ public class AeshCommandPipelineTest {
 
     }
 
+    @CommandDefinition(name = "lines", description = "")
+    public static class LinesCommand implements Command<CommandInvocation> {
+
+        @Argument
+        int lines;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            for (int i = 0; i < lines; i++)
+                commandInvocation.getConfiguration().getOutputRedirection().write("line " + i + "\n");
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "count", description = "")
+    public static class CountCommand implements Command<CommandInvocation> {
+        private volatile int count;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws CommandException {
+            try {
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(commandInvocation.getConfiguration().getPipedData()));
+                count = 0;
+                while (reader.readLine() != null)
+                    count++;
+            } catch (IOException e) {
+                throw new CommandException(e);
+            }
+            if (commandInvocation.getConfiguration().hasOutputRedirection())
+                commandInvocation.getConfiguration().getOutputRedirection().write(count + "\n");
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "head", description = "")
+    public static class HeadCommand implements Command<CommandInvocation> {
+        private String line;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws CommandException {
+            try {
+                line = new BufferedReader(
+                        new InputStreamReader(commandInvocation.getConfiguration().getPipedData())).readLine();
+            } catch (IOException e) {
+                throw new CommandException(e);
+            }
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "fail", description = "")
+    public static class FailCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws CommandException {
+            throw new CommandException("failed");
+        }
+    }
 }
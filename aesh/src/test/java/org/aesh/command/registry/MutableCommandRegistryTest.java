@@ -20,15 +20,29 @@
 package org.aesh.command.registry;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.aesh.command.Command;
 import org.aesh.command.CommandDefinition;
 import org.aesh.command.CommandException;
+import org.aesh.command.CommandNotFoundException;
 import org.aesh.command.CommandResult;
 import org.aesh.command.GroupCommandDefinition;
 import org.aesh.command.impl.registry.MutableCommandRegistryImpl;
 import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Argument;
 import org.aesh.command.option.Option;
 import org.aesh.complete.AeshCompleteOperation;
 import org.aesh.parser.LineParser;
@@ -82,6 +96,205 @@ public class MutableCommandRegistryTest {
         assertTrue(co.getCompletionCandidates().contains(new TerminalString("group", true)));
     }
 
+    @Test
+    public void testFindCommandNamesByPrefix() throws CommandRegistryException {
+        MutableCommandRegistryImpl<CommandInvocation> registry = new MutableCommandRegistryImpl<>();
+        registry.addCommand(Command1.class);
+        registry.addCommand(Command2.class);
+        registry.addCommand(Command3.class);
+        registry.addCommand(Command4.class);
+        registry.addCommand(GroupCommand1.class);
+
+        assertEquals(Arrays.asList("foo", "foobar"), registry.findCommandNames("fo"));
+        assertEquals(Arrays.asList("foobar"), registry.findCommandNames("foob"));
+        assertEquals(Arrays.asList("bar", "foo", "foobar", "group", "help"), registry.findCommandNames(""));
+        assertTrue(registry.findCommandNames("x").isEmpty());
+
+        registry.removeCommand("foo");
+        assertEquals(Arrays.asList("foobar"), registry.findCommandNames("fo"));
+        registry.removeCommand("foobar");
+        assertTrue(registry.findCommandNames("f").isEmpty());
+
+        AeshCompleteOperation co = new AeshCompleteOperation(null, "fo", 2);
+        registry.completeCommandName(co, new LineParser().parseLine(co.getBuffer(), co.getCursor()));
+        assertTrue(co.getCompletionCandidates().isEmpty());
+
+        registry.addCommand(Command1.class);
+        assertEquals(Arrays.asList("foo"), registry.findCommandNames("f"));
+    }
+
+    @Test
+    public void testLazyRegistration() throws CommandRegistryException, CommandNotFoundException {
+        MutableCommandRegistryImpl<CommandInvocation> registry = new MutableCommandRegistryImpl<>();
+        registry.setLazyRegistration(true);
+        LazyCommand.created = 0;
+        registry.addCommand(LazyCommand.class);
+        registry.addCommand(BrokenCommand.class);
+        registry.addCommand(Command1.class);
+
+        assertEquals(0, LazyCommand.created);
+        assertTrue(registry.contains("lazy"));
+        assertTrue(registry.contains("lz"));
+        assertTrue(registry.contains("broken"));
+        assertEquals(Arrays.asList("lazy"), registry.findCommandNames("la"));
+
+        AeshCompleteOperation co = new AeshCompleteOperation(null, "", 0);
+        registry.completeCommandName(co, new LineParser().parseLine(co.getBuffer(), co.getCursor()));
+        assertEquals(3, co.getCompletionCandidates().size());
+        assertEquals(0, LazyCommand.created);
+
+        assertEquals("lazy", registry.getCommand("lazy", "lazy").getParser().getProcessedCommand().name());
+        assertEquals(1, LazyCommand.created);
+        assertTrue(registry.getCommand("lazy", "lazy") == registry.getCommandByAlias("lz"));
+        assertEquals(1, LazyCommand.created);
+
+        try {
+            registry.getCommand("broken", "broken");
+            fail("broken command should not be created");
+        } catch (CommandNotFoundException e) {
+            assertTrue(e.getMessage().contains("broken"));
+        }
+
+        registry.removeCommand("lazy");
+        assertFalse(registry.contains("lz"));
+        assertEquals(1, LazyCommand.created);
+    }
+
+    @Test
+    public void testUpdateIsAtomic() throws Exception {
+        MutableCommandRegistryImpl<CommandInvocation> registry = new MutableCommandRegistryImpl<>();
+        registry.addCommand(Command2.class);
+        List<String> events = new ArrayList<>();
+        registry.addRegistrationListener((name, action) -> {
+            //listeners are notified when the changes are visible
+            assertTrue(registry.contains("foo") == (action == CommandRegistry.REGISTRATION_ACTION.ADDED));
+            events.add(action + " " + name);
+        });
+
+        Set<String> before = registry.getAllCommandNames();
+        registry.update(r -> {
+            r.addCommand(Command1.class);
+            r.addCommand(Command4.class);
+            assertFalse(registry.contains("foo"));
+        });
+        assertEquals(Arrays.asList("ADDED foo", "ADDED foobar"), events);
+        assertEquals(Arrays.asList("foo", "foobar"), registry.findCommandNames("fo"));
+        //a snapshot is not changed by later updates
+        assertEquals(1, before.size());
+
+        //a failed update is not applied
+        try {
+            registry.update(r -> {
+                r.removeCommand("foo");
+                r.addCommand(BrokenCommand.class);
+            });
+            fail("broken command should not be added");
+        } catch (CommandRegistryException e) {
+            assertTrue(registry.contains("foo"));
+        }
+
+        registry.update(r -> {
+            r.removeCommand("foo");
+            r.removeCommand("foobar");
+        });
+        assertEquals(Arrays.asList("ADDED foo", "ADDED foobar", "REMOVED foo", "REMOVED foobar"), events);
+        assertTrue(registry.findCommandNames("fo").isEmpty());
+    }
+
+    @Test
+    public void testChangeMadeByListener() throws Exception {
+        MutableCommandRegistryImpl<CommandInvocation> registry = new MutableCommandRegistryImpl<>();
+        registry.addRegistrationListener((name, action) -> {
+            if (name.equals("foo")) {
+                try {
+                    registry.addCommand(Command4.class);
+                } catch (CommandRegistryException e) {
+                    throw new RuntimeException(e);
+                }
+                //applied when all listeners are notified of the update
+                assertFalse(registry.contains("foobar"));
+            }
+        });
+        List<String> events = new ArrayList<>();
+        registry.addRegistrationListener((name, action) -> events.add(action + " " + name));
+
+        registry.update(r -> {
+            r.addCommand(Command1.class);
+            r.addCommand(Command2.class);
+        });
+        assertEquals(Arrays.asList("ADDED foo", "ADDED bar", "ADDED foobar"), events);
+        assertEquals(Arrays.asList("bar", "foo", "foobar"), registry.findCommandNames(""));
+    }
+
+    @Test
+    public void testReadWhileReloading() throws Exception {
+        MutableCommandRegistryImpl<CommandInvocation> registry = new MutableCommandRegistryImpl<>();
+        registry.addCommand(Command2.class);
+        AtomicBoolean reloading = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(readers.submit(() -> {
+                    while (reloading.get()) {
+                        //the commands of the plugin are either all registered or none of them
+                        List<String> names = registry.findCommandNames("fo");
+                        assertTrue(names.toString(), names.isEmpty() || names.size() == 2);
+                        for (String name : registry.getAllCommandNames())
+                            assertTrue(name.equals("bar") || name.startsWith("foo"));
+                        AeshCompleteOperation co = new AeshCompleteOperation(null, "", 0);
+                        registry.completeCommandName(co, new LineParser().parseLine(co.getBuffer(), co.getCursor()));
+                        assertTrue(co.getCompletionCandidates().size() == 1 || co.getCompletionCandidates().size() == 3);
+                        registry.getCommand("bar", "bar");
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < 500; i++) {
+                registry.update(r -> {
+                    r.addCommand(Command1.class);
+                    r.addCommand(Command4.class);
+                });
+                registry.update(r -> {
+                    r.removeCommand("foo");
+                    r.removeCommand("foobar");
+                });
+            }
+            reloading.set(false);
+            for (Future<?> result : results)
+                result.get(10, TimeUnit.SECONDS);
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    @CommandDefinition(name = "lazy", aliases = "lz", description = "")
+    public static class LazyCommand implements Command<CommandInvocation> {
+        static int created;
+
+        public LazyCommand() {
+            created++;
+        }
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "broken", description = "")
+    public static class BrokenCommand implements Command<CommandInvocation> {
+        @Argument
+        private String first;
+        @Argument
+        private String second;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
     @CommandDefinition(name = "foo", description = "")
     public class Command1 implements Command {
         @Override
@@ -106,6 +319,14 @@ public class MutableCommandRegistryTest {
         }
     }
 
+    @CommandDefinition(name = "foobar", description = "")
+    public class Command4 implements Command<CommandInvocation> {
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws CommandException, InterruptedException {
+            return CommandResult.SUCCESS;
+        }
+    }
+
     @GroupCommandDefinition(name = "group", description = "", groupCommands = { Command3.class })
     public class GroupCommand1 implements Command {
 
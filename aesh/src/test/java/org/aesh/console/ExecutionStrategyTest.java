@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.console;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.registry.CommandRegistry;
+import org.aesh.command.settings.Settings;
+import org.aesh.command.settings.SettingsBuilder;
+import org.aesh.terminal.tty.Signal;
+import org.aesh.terminal.utils.Config;
+import org.aesh.tty.TestConnection;
+import org.junit.Test;
+
+/**
+ * @author Aesh team
+ */
+public class ExecutionStrategyTest {
+
+    @Test(timeout = 10000)
+    public void testBoundedPool() throws Exception {
+        WaitCommand wait = assertInterruptAndReuse(ExecutionStrategy.boundedPool(1));
+        assertEquals(1, wait.threads.size());
+    }
+
+    @Test(timeout = 10000)
+    public void testVirtualThreads() throws Exception {
+        assertInterruptAndReuse(ExecutionStrategy.virtualThreads(1));
+    }
+
+    @Test(timeout = 10000)
+    public void testThreadPerProcess() throws Exception {
+        assertInterruptAndReuse(ExecutionStrategy.threadPerProcess());
+    }
+
+    private WaitCommand assertInterruptAndReuse(ExecutionStrategy strategy) throws Exception {
+        TestConnection connection = new TestConnection();
+        WaitCommand wait = new WaitCommand();
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.<CommandInvocation> builder()
+                .command(wait)
+                .create();
+
+        Settings<CommandInvocation> settings = SettingsBuilder.<CommandInvocation> builder()
+                .connection(connection)
+                .commandRegistry(registry)
+                .executionStrategy(strategy)
+                .logging(true)
+                .build();
+
+        ReadlineConsole console = new ReadlineConsole(settings);
+        console.start();
+
+        connection.read("wait" + Config.getLineSeparator());
+        assertTrue(wait.started.await(5, TimeUnit.SECONDS));
+        //Ctrl-C
+        connection.signalHandler().accept(Signal.INT);
+        assertTrue(wait.interrupted.await(5, TimeUnit.SECONDS));
+
+        //the interrupt must not leak into the next command, even when it runs in the same thread
+        wait.started = new CountDownLatch(1);
+        wait.interrupted = new CountDownLatch(1);
+        connection.read("wait" + Config.getLineSeparator());
+        assertTrue(wait.started.await(5, TimeUnit.SECONDS));
+        assertEquals(1, wait.interrupted.getCount());
+        connection.signalHandler().accept(Signal.INT);
+        assertTrue(wait.interrupted.await(5, TimeUnit.SECONDS));
+
+        console.stop();
+        return wait;
+    }
+
+    @CommandDefinition(name = "wait", description = "")
+    public static class WaitCommand implements Command<CommandInvocation> {
+        private volatile CountDownLatch started = new CountDownLatch(1);
+        private volatile CountDownLatch interrupted = new CountDownLatch(1);
+        private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws InterruptedException {
+            threads.add(Thread.currentThread());
+            started.countDown();
+            try {
+                Thread.sleep(60000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return CommandResult.SUCCESS;
+        }
+    }
+}
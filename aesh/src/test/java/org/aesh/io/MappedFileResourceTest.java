@@ -0,0 +1,134 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Aesh team
+ */
+public class MappedFileResourceTest {
+
+    private Path file;
+
+    @Before
+    public void setup() throws IOException {
+        file = Files.createTempFile("aesh-mapped", ".txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testReadOverRegions() throws IOException {
+        String content = "0123456789abcdefghijklmnopqrstuvwxyz";
+        write(content);
+        //small regions to read over region boundaries
+        MappedFileResource resource = new MappedFileResource(file.toFile(), 8);
+        assertEquals(content.length(), resource.size());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = resource.read()) {
+            byte[] buffer = new byte[5];
+            int n;
+            while ((n = in.read(buffer)) != -1)
+                out.write(buffer, 0, n);
+        }
+        assertEquals(content, new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        try (InputStream in = resource.read()) {
+            assertEquals(10, in.skip(10));
+            assertEquals('a', in.read());
+        }
+    }
+
+    @Test
+    public void testTransferTo() throws IOException {
+        write("line one\nline two\n");
+        MappedFileResource resource = new MappedFileResource(file.toFile());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(18, resource.transferTo(out));
+        assertEquals("line one\nline two\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        Path copy = Files.createTempFile("aesh-mapped-copy", ".txt");
+        try {
+            resource.copy(new FileResource(copy.toFile()));
+            assertEquals("line one\nline two\n", new String(Files.readAllBytes(copy), StandardCharsets.UTF_8));
+        } finally {
+            Files.delete(copy);
+        }
+    }
+
+    @Test
+    public void testLines() throws IOException {
+        write("first\r\nsecond\n\nlast line over the region\nætt");
+        List<String> lines = new ArrayList<>();
+        new MappedFileResource(file.toFile(), 32).lines().forEachRemaining(lines::add);
+        assertEquals(Arrays.asList("first", "second", "", "last line over the region", "ætt"), lines);
+    }
+
+    @Test
+    public void testRecords() throws IOException {
+        write("a,bb,,ccc,");
+        Iterator<ByteBuffer> records = new MappedFileResource(file.toFile(), 4).records((byte) ',');
+        List<String> values = new ArrayList<>();
+        while (records.hasNext())
+            values.add(StandardCharsets.UTF_8.decode(records.next()).toString());
+        assertEquals(Arrays.asList("a", "bb", "", "ccc"), values);
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        MappedFileResource resource = new MappedFileResource(file.toFile());
+        assertFalse(resource.lines().hasNext());
+        try (InputStream in = resource.read()) {
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRecordLargerThanRegion() throws IOException {
+        write("0123456789\n");
+        new MappedFileResource(file.toFile(), 4).lines().next();
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,10 +1,24 @@
 package org.aesh.io.scanner;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
 
 import org.aesh.command.CommandDefinition;
 import org.junit.Test;
@@ -27,6 +41,109 @@ public class AnnotationDetectorTest {
 
     }
 
+    @Test
+    public void testCommandIndex() throws IOException {
+        //a classpath root with an index and no class files, only the index can report the commands
+        Path root = Files.createTempDirectory("aesh-index");
+        Files.createDirectories(root.resolve("com/example/sub"));
+        Files.createDirectories(root.resolve("META-INF/aesh"));
+        Files.write(root.resolve(CommandIndex.LOCATION), ("# test\n" +
+                "org.aesh.command.CommandDefinition com.example.Foo\n" +
+                "org.aesh.command.CommandDefinition com.example.sub.Bar$Inner\n" +
+                "org.aesh.command.GroupCommandDefinition com.example.Group\n" +
+                "org.aesh.command.CommandDefinition com.other.Baz\n").getBytes(StandardCharsets.UTF_8));
+
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader indexed = new URLClassLoader(new URL[] { root.toUri().toURL() }, null)) {
+            Thread.currentThread().setContextClassLoader(indexed);
+            CommandDefinitionReporter reporter = new CommandDefinitionReporter();
+            new AnnotationDetector(reporter).detect("com.example");
+            assertEquals(Arrays.asList("com.example.Foo", "com.example.sub.Bar$Inner"), reporter.getCommands());
+
+            reporter = new CommandDefinitionReporter();
+            new AnnotationDetector(reporter).detect("com.example.sub");
+            assertEquals(Arrays.asList("com.example.sub.Bar$Inner"), reporter.getCommands());
+        } finally {
+            Thread.currentThread().setContextClassLoader(loader);
+            for (String file : new String[] { CommandIndex.LOCATION, "META-INF/aesh", "META-INF",
+                    "com/example/sub", "com/example", "com", "" })
+                new File(root.toFile(), file).delete();
+        }
+    }
+
+    @Test
+    public void testParallelScan() throws IOException {
+        File[] roots = { new File("target/classes"), new File("target/test-classes") };
+        CollectingReporter sequential = new CollectingReporter();
+        new AnnotationDetector(sequential).detect(roots);
+        CollectingReporter parallel = new CollectingReporter();
+        new AnnotationDetector(parallel).parallel(true).detect(roots);
+
+        assertTrue(sequential.classes.contains("org.aesh.command.man.Man"));
+        //same classes, in the same order
+        assertEquals(sequential.classes, parallel.classes);
+    }
+
+    @Test
+    public void testScanCache() throws IOException {
+        Path dir = Files.createTempDirectory("aesh-scan");
+        File jar = dir.resolve("commands.jar").toFile();
+        File cache = dir.resolve("scan.cache").toFile();
+        String command = "org.aesh.command.man.Man";
+        try {
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath()));
+                    InputStream in = getClass().getResourceAsStream("/org/aesh/command/man/Man.class")) {
+                out.putNextEntry(new ZipEntry("org/aesh/command/man/Man.class"));
+                copy(in, out);
+            }
+
+            CollectingReporter reporter = new CollectingReporter();
+            new AnnotationDetector(reporter).scanCache(cache).detect(jar);
+            assertEquals(Arrays.asList(command), reporter.classes);
+            assertTrue(cache.isFile());
+
+            //the jar have not changed, so only the cache is read
+            String content = new String(Files.readAllBytes(cache.toPath()), StandardCharsets.UTF_8);
+            Files.write(cache.toPath(), content.replace(command, "com.example.Cached").getBytes(StandardCharsets.UTF_8));
+            reporter = new CollectingReporter();
+            new AnnotationDetector(reporter).parallel(true).scanCache(cache).detect(jar);
+            assertEquals(Arrays.asList("com.example.Cached"), reporter.classes);
+
+            //a changed jar is scanned again
+            jar.setLastModified(jar.lastModified() - 10000);
+            reporter = new CollectingReporter();
+            new AnnotationDetector(reporter).scanCache(cache).detect(jar);
+            assertEquals(Arrays.asList(command), reporter.classes);
+        } finally {
+            jar.delete();
+            cache.delete();
+            dir.toFile().delete();
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1)
+            out.write(buffer, 0, read);
+    }
+
+    public static class CollectingReporter implements AnnotationDetector.TypeReporter {
+
+        private final List<String> classes = new ArrayList<>();
+
+        @Override
+        public void reportTypeAnnotation(Class<? extends Annotation> annotation, String className) {
+            classes.add(className);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Class<? extends Annotation>[] annotations() {
+            return new Class[] { CommandDefinition.class };
+        }
+    }
+
     public static class AnnotationReporter implements AnnotationDetector.TypeReporter {
 
         private boolean foundManCommand = false;
@@ -559,6 +559,92 @@ public class LineParserTest {
         assertEquals("Try to escape normal char", "He\\-o", parseLine("mkdir He\\-o").get(1).word());
     }
 
+    @Test
+    public void testTokenize() {
+        LineParser lineParser = new LineParser();
+        LineTokens tokens = new LineTokens();
+
+        lineParser.tokenize("foo  --bar=baz \"a b\" c\\ d 'e'", tokens);
+        assertEquals(5, tokens.size());
+        assertEquals(1, tokens.lineCount());
+        assertEquals("foo", tokens.word(0));
+        assertTrue(tokens.wordEquals(1, "--bar=baz"));
+        assertTrue(tokens.wordStartsWith(1, "--bar"));
+        assertFalse(tokens.wordStartsWith(1, "--baz"));
+        assertEquals("a b", tokens.word(2));
+        assertEquals("c d", tokens.word(3));
+        assertTrue(tokens.wordEquals(3, "c d"));
+        assertEquals("e", tokens.word(4));
+        assertEquals(5, tokens.lineIndex(1));
+
+        //the same instance is reused
+        lineParser.tokenize("ls \"open", tokens);
+        assertEquals(2, tokens.size());
+        assertEquals("open", tokens.word(1));
+        assertEquals(ParsedWord.Status.OPEN_QUOTE, tokens.status(1));
+        assertEquals(ParserStatus.UNCLOSED_QUOTE, tokens.lineStatus(0));
+
+        lineParser.tokenize("", tokens);
+        assertTrue(tokens.isEmpty());
+    }
+
+    @Test
+    public void testTokenizeWithOperators() {
+        Set<OperatorType> operators = EnumSet.allOf(OperatorType.class);
+        LineParser lineParser = new LineParser();
+        LineTokens tokens = new LineTokens();
+
+        lineParser.tokenize("foo --option1 value1 >> bar -o \"ba ra\"&&car! ", true, operators, tokens);
+        assertEquals(3, tokens.lineCount());
+        assertEquals(OperatorType.APPEND_OUT, tokens.operator(0));
+        assertEquals(OperatorType.AND, tokens.operator(1));
+        assertEquals(OperatorType.NONE, tokens.operator(2));
+        assertEquals(3, tokens.lineEnd(0));
+        assertEquals("bar", tokens.word(tokens.lineStart(1)));
+        assertEquals("ba ra", tokens.word(tokens.lineEnd(1) - 1));
+        assertEquals("car!", tokens.word(tokens.lineStart(2)));
+        assertEquals("foo --option1 value1 ", tokens.line(0));
+
+        lineParser.tokenize("&& foo", true, operators, tokens);
+        assertEquals(ParserStatus.EMPTY_BEFORE_OPERATOR, tokens.lineStatus(0));
+    }
+
+    @Test
+    public void testTokenizeMatchesParseLine() {
+        Set<OperatorType> operators = EnumSet.allOf(OperatorType.class);
+        String[] lines = {
+                "mkdir He\\|lo | foo",
+                "foo bar \"baz 12345\" ",
+                "\"\"  \"\"",
+                "foo --option=\"\" bar",
+                "/x=y:op(arg={'xxx'=> true}) > res",
+                "foo \"\"\"a b\"\"\" c",
+                "cmd;",
+                "foo\\ bar \\",
+                "test 'it\\'s' \"he said \\\"hi\\\"\""
+        };
+        LineParser lineParser = new LineParser();
+        LineTokens tokens = new LineTokens();
+        for (String line : lines) {
+            List<ParsedLine> expected = new LineParser().parseLine(line, -1, true, operators);
+            List<ParsedLine> actual = lineParser.tokenize(line, true, operators, tokens).toParsedLines();
+            assertEquals(line, expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(line, expected.get(i).line(), actual.get(i).line());
+                assertEquals(line, expected.get(i).status(), actual.get(i).status());
+                assertEquals(line, expected.get(i).operator(), actual.get(i).operator());
+                assertEquals(line, expected.get(i).errorMessage(), actual.get(i).errorMessage());
+                assertEquals(line, expected.get(i).size(), actual.get(i).size());
+                for (int j = 0; j < expected.get(i).size(); j++) {
+                    ParsedWord word = expected.get(i).words().get(j);
+                    assertEquals(line, word.word(), actual.get(i).words().get(j).word());
+                    assertEquals(line, word.lineIndex(), actual.get(i).words().get(j).lineIndex());
+                    assertEquals(line, word.status(), actual.get(i).words().get(j).status());
+                }
+            }
+        }
+    }
+
     List<ParsedWord> parseLine(String line) {
         LineParser lineParser = new LineParser();
         EnumSet<OperatorType> operators = EnumSet.allOf(OperatorType.class);
@@ -0,0 +1,27 @@
+package org.aesh.command;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cold variant of {@link StartupBenchmark}: every fork builds the registry exactly once
+ * without any warmup, so the score includes class loading, interpretation and the
+ * first annotation scan - which is what a user sees when the CLI starts.
+ * <p>
+ * The benchmark methods are inherited from {@link StartupBenchmark}, only the mode differs.
+ *
+ * @author Aesh team
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1, batchSize = 1)
+@Fork(10)
+public class ColdStartupBenchmark extends StartupBenchmark {
+}
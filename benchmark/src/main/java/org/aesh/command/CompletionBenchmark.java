@@ -0,0 +1,244 @@
+package org.aesh.command;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.aesh.command.impl.completer.CompleterData;
+import org.aesh.command.impl.completer.FileOptionCompleter;
+import org.aesh.command.impl.container.AeshCommandContainer;
+import org.aesh.command.impl.internal.OptionType;
+import org.aesh.command.impl.internal.ProcessedCommand;
+import org.aesh.command.impl.internal.ProcessedCommandBuilder;
+import org.aesh.command.impl.internal.ProcessedOptionBuilder;
+import org.aesh.command.impl.registry.MutableCommandRegistryImpl;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.complete.AeshCompleteOperation;
+import org.aesh.console.AeshContext;
+import org.aesh.console.DefaultAeshContext;
+import org.aesh.io.FileResource;
+import org.aesh.parser.LineParser;
+import org.aesh.parser.ParsedLine;
+import org.aesh.terminal.formatting.TerminalString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tab completion latency. Measured in {@link Mode#SampleTime} so the results contain the
+ * latency distribution (p50, p90, p99, p99.9...) rather than only an average, which is
+ * what should be compared against a latency budget.
+ * <p>
+ * Every benchmark uses its own state, so only its own parameter is varied:
+ * <ul>
+ * <li><b>commandName</b> — {@code MutableCommandRegistryImpl.completeCommandName} by registry size</li>
+ * <li><b>runtimeCommandName</b> — the same through {@code AeshCommandRuntime.complete}, including line parsing</li>
+ * <li><b>optionName</b> — completing {@code --} for a command, by option count per command</li>
+ * <li><b>groupOptionName</b> — completing {@code --} for the leaf of a group chain, by group depth</li>
+ * <li><b>fileName</b> — {@code FileOptionCompleter} by the number of entries in the directory</li>
+ * </ul>
+ * Run with: {@code mvn -Pbenchmark exec:exec -pl benchmark -Djmh.benchmarks=CompletionBenchmark}
+ *
+ * @author Aesh team
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CompletionBenchmark {
+
+    private static final int OPTIONS_PER_COMMAND = 5;
+
+    @State(Scope.Benchmark)
+    public static class RegistryState {
+
+        @Param({ "10", "100", "500", "1000", "5000" })
+        public int registrySize;
+
+        MutableCommandRegistryImpl<CommandInvocation> registry;
+        CommandRuntime<CommandInvocation> runtime;
+        ParsedLine line;
+        String buffer;
+
+        @Setup
+        public void setup() throws Exception {
+            registry = new MutableCommandRegistryImpl<>();
+            for (int i = 0; i < registrySize; i++) {
+                registry.addCommand(new AeshCommandContainer<>(createCommand("cmd-" + i, OPTIONS_PER_COMMAND)));
+            }
+            runtime = AeshCommandRuntimeBuilder.<CommandInvocation> builder().commandRegistry(registry).build();
+            // matches cmd-1, cmd-10..cmd-19, cmd-100..cmd-199 ... depending on the registry size
+            buffer = "cmd-1";
+            line = new LineParser().parseLine(buffer, buffer.length());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OptionState {
+
+        @Param({ "5", "20", "60", "100" })
+        public int optionCount;
+
+        CommandRuntime<CommandInvocation> runtime;
+        String buffer;
+
+        @Setup
+        public void setup() throws Exception {
+            MutableCommandRegistryImpl<CommandInvocation> registry = new MutableCommandRegistryImpl<>();
+            for (int i = 0; i < 100; i++) {
+                registry.addCommand(new AeshCommandContainer<>(createCommand("cmd-" + i, optionCount)));
+            }
+            runtime = AeshCommandRuntimeBuilder.<CommandInvocation> builder().commandRegistry(registry).build();
+            buffer = "cmd-42 --opt-1 value --";
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class GroupState {
+
+        @Param({ "1", "2", "3" })
+        public int groupDepth;
+
+        CommandRuntime<CommandInvocation> runtime;
+        String buffer;
+
+        @Setup
+        public void setup() throws Exception {
+            MutableCommandRegistryImpl<CommandInvocation> registry = new MutableCommandRegistryImpl<>();
+            for (int i = 0; i < 40; i++) {
+                registry.addCommand(createGroup("grp-" + i, groupDepth));
+            }
+            runtime = AeshCommandRuntimeBuilder.<CommandInvocation> builder().commandRegistry(registry).build();
+            StringBuilder sb = new StringBuilder("grp-7");
+            for (int level = 1; level <= groupDepth; level++) {
+                sb.append(" sub-").append(level).append('-').append(level % 10);
+            }
+            buffer = sb.append(" --").toString();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class DirectoryState {
+
+        @Param({ "10", "1000", "10000", "100000" })
+        public int directorySize;
+
+        Path directory;
+        AeshContext context;
+
+        @Setup
+        public void setup() throws IOException {
+            directory = Files.createTempDirectory("aesh-completion-benchmark");
+            for (int i = 0; i < directorySize; i++) {
+                Files.createFile(directory.resolve("file-" + i + ".txt"));
+            }
+            context = new DefaultAeshContext(new FileResource(directory.toFile()));
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    @Benchmark
+    public AeshCompleteOperation commandName(RegistryState state) {
+        AeshCompleteOperation co = new AeshCompleteOperation(state.buffer, state.buffer.length());
+        state.registry.completeCommandName(co, state.line);
+        return co;
+    }
+
+    @Benchmark
+    public AeshCompleteOperation runtimeCommandName(RegistryState state) {
+        return complete(state.runtime, state.buffer);
+    }
+
+    @Benchmark
+    public AeshCompleteOperation optionName(OptionState state) {
+        return complete(state.runtime, state.buffer);
+    }
+
+    @Benchmark
+    public AeshCompleteOperation groupOptionName(GroupState state) {
+        return complete(state.runtime, state.buffer);
+    }
+
+    @Benchmark
+    public List<TerminalString> fileName(DirectoryState state) {
+        CompleterData invocation = new CompleterData(state.context, "file-1", null);
+        new FileOptionCompleter().complete(invocation);
+        return invocation.getCompleterValues();
+    }
+
+    private static AeshCompleteOperation complete(CommandRuntime<CommandInvocation> runtime, String buffer) {
+        AeshCompleteOperation co = new AeshCompleteOperation(runtime.getAeshContext(), buffer, buffer.length());
+        runtime.complete(co);
+        return co;
+    }
+
+    // ---- Fixtures ----
+
+    @CommandDefinition(name = "bench", description = "Completion benchmark command")
+    public static class BenchCommand implements Command<CommandInvocation> {
+        @Override
+        public CommandResult execute(CommandInvocation ci) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    static ProcessedCommand<Command<CommandInvocation>, CommandInvocation> createCommand(String name, int options)
+            throws Exception {
+        ProcessedCommandBuilder<Command<CommandInvocation>, CommandInvocation> builder = ProcessedCommandBuilder
+                .<Command<CommandInvocation>, CommandInvocation> builder()
+                .name(name)
+                .description("Command " + name)
+                .command(new BenchCommand());
+        for (int i = 0; i < options; i++) {
+            builder.addOption(ProcessedOptionBuilder.builder()
+                    .name("opt-" + i)
+                    .description("Option " + i)
+                    .type(String.class)
+                    .optionType(OptionType.NORMAL)
+                    .build());
+        }
+        return builder.create();
+    }
+
+    /**
+     * Builds a group with ten subcommands per level, every subcommand on the path
+     * {@code sub-1-1 sub-2-2 ...} is itself a group until the requested depth is reached.
+     */
+    static AeshCommandContainer<CommandInvocation> createGroup(String name, int depth) throws Exception {
+        AeshCommandContainer<CommandInvocation> root = new AeshCommandContainer<>(createCommand(name, OPTIONS_PER_COMMAND));
+        AeshCommandContainer<CommandInvocation> parent = root;
+        for (int level = 1; level <= depth; level++) {
+            AeshCommandContainer<CommandInvocation> next = null;
+            for (int i = 0; i < 10; i++) {
+                AeshCommandContainer<CommandInvocation> child = new AeshCommandContainer<>(
+                        createCommand("sub-" + level + "-" + i, OPTIONS_PER_COMMAND));
+                parent.addChild(child);
+                if (i == level % 10)
+                    next = child;
+            }
+            parent = next;
+        }
+        return root;
+    }
+}
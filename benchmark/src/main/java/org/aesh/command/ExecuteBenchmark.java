@@ -0,0 +1,250 @@
+package org.aesh.command;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Argument;
+import org.aesh.command.option.Arguments;
+import org.aesh.command.option.Option;
+import org.aesh.command.option.OptionList;
+import org.aesh.command.registry.CommandRegistry;
+import org.aesh.io.Resource;
+import org.aesh.parser.LineParser;
+import org.aesh.parser.LineTokens;
+import org.aesh.parser.ParsedLine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Steady-state throughput of {@link CommandRuntime#executeCommand(String)}, the path taken
+ * by scripted runs: LineParser, AeshCommandLineParser, AeshCommandPopulator and the
+ * operator wiring in Executions.
+ * <p>
+ * Each line is measured in three steps so a regression can be attributed:
+ * <ul>
+ * <li><b>tokenize</b> — only {@link LineParser#parseLine(String, int, boolean, java.util.Set)}</li>
+ * <li><b>tokenizeReusable</b> — the tokenizer mode, {@link LineParser#tokenize(String, boolean, java.util.Set, LineTokens)}
+ * with a reused parser and LineTokens</li>
+ * <li><b>buildExecutor</b> — tokenize, command lookup and operator wiring</li>
+ * <li><b>execute</b> — the full call, including option parsing, population and execution</li>
+ * </ul>
+ * Bytes allocated per invocation are reported by the GC profiler, which the benchmark
+ * profile enables by default ({@code gc.alloc.rate.norm} in the results).
+ * <p>
+ * Run with: {@code mvn -Pbenchmark exec:exec -pl benchmark -Djmh.benchmarks=ExecuteBenchmark}
+ *
+ * @author Aesh team
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ExecuteBenchmark {
+
+    @Param({ "shortFlags", "longOptions", "optionList", "groupSubcommand", "quotedArguments",
+            "pipe", "redirect", "and" })
+    public String line;
+
+    private CommandRuntime<CommandInvocation> runtime;
+    private File redirectTarget;
+    private String input;
+    private final LineParser lineParser = new LineParser();
+    private final LineTokens tokens = new LineTokens();
+
+    @Setup
+    public void setup() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.<CommandInvocation> builder()
+                .commands(CopyCommand.class, FetchCommand.class, TagCommand.class, RemoteCommand.class,
+                        EchoCommand.class, CountCommand.class)
+                .create();
+        runtime = AeshCommandRuntimeBuilder.<CommandInvocation> builder()
+                .commandRegistry(registry)
+                .operators(AeshCommandRuntimeBuilder.ALL_OPERATORS)
+                .build();
+
+        redirectTarget = File.createTempFile("aesh-execute-benchmark", ".out");
+        input = buildLine(line, redirectTarget.getAbsolutePath());
+        // make sure the line is valid before measuring it
+        if (runtime.executeCommand(input) != CommandResult.SUCCESS)
+            throw new IllegalStateException("Benchmark line failed: " + input);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(redirectTarget.toPath());
+    }
+
+    @Benchmark
+    public List<ParsedLine> tokenize() {
+        return new LineParser().parseLine(input, -1, false, AeshCommandRuntimeBuilder.ALL_OPERATORS);
+    }
+
+    @Benchmark
+    public LineTokens tokenizeReusable() {
+        return lineParser.tokenize(input, false, AeshCommandRuntimeBuilder.ALL_OPERATORS, tokens);
+    }
+
+    @Benchmark
+    public Executor<CommandInvocation> buildExecutor() throws Exception {
+        return runtime.buildExecutor(input);
+    }
+
+    @Benchmark
+    public CommandResult execute() throws Exception {
+        return runtime.executeCommand(input);
+    }
+
+    static String buildLine(String name, String redirectTarget) {
+        switch (name) {
+            case "shortFlags":
+                return "cp -r -f -v -b 8192 src dest";
+            case "longOptions":
+                return "fetch --url=http://example.org/archive --timeout=30 --retries=3 --verbose";
+            case "optionList":
+                return "tag --hosts=alpha,beta,gamma,delta --ports 80,443,8080 release";
+            case "groupSubcommand":
+                return "remote add --name=origin --fetch=true git@example.org:aesh.git";
+            case "quotedArguments":
+                return "echo \"hello quoted world\" 'single quoted value' plain\\ escaped";
+            case "pipe":
+                return "echo one two three | count";
+            case "redirect":
+                return "echo one two three > " + redirectTarget;
+            case "and":
+                return "fetch --url=http://example.org && cp -r src dest && echo done";
+            default:
+                throw new IllegalArgumentException("Unknown line: " + name);
+        }
+    }
+
+    // ---- Commands ----
+
+    @CommandDefinition(name = "cp", description = "Copy files")
+    public static class CopyCommand implements Command<CommandInvocation> {
+        @Option(shortName = 'r', hasValue = false, description = "Recursive")
+        private boolean recursive;
+        @Option(shortName = 'f', hasValue = false, description = "Force")
+        private boolean force;
+        @Option(shortName = 'v', hasValue = false, description = "Verbose")
+        private boolean verbose;
+        @Option(shortName = 'b', description = "Buffer size", defaultValue = "4096")
+        private int bufferSize;
+        @Arguments(description = "Source and destination")
+        private List<String> paths;
+
+        @Override
+        public CommandResult execute(CommandInvocation ci) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "fetch", description = "Network fetch")
+    public static class FetchCommand implements Command<CommandInvocation> {
+        @Option(description = "URL", required = true)
+        private String url;
+        @Option(description = "Timeout", defaultValue = "60")
+        private int timeout;
+        @Option(description = "Retries", defaultValue = "1")
+        private int retries;
+        @Option(hasValue = false, description = "Verbose")
+        private boolean verbose;
+
+        @Override
+        public CommandResult execute(CommandInvocation ci) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "tag", description = "Tag hosts")
+    public static class TagCommand implements Command<CommandInvocation> {
+        @OptionList(description = "Hosts")
+        private List<String> hosts;
+        @OptionList(description = "Ports")
+        private List<Integer> ports;
+        @Argument(description = "Tag")
+        private String tag;
+
+        @Override
+        public CommandResult execute(CommandInvocation ci) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @GroupCommandDefinition(name = "remote", description = "Manage remotes", groupCommands = { RemoteAddCommand.class })
+    public static class RemoteCommand implements Command<CommandInvocation> {
+        @Option(shortName = 'v', hasValue = false, description = "Verbose")
+        private boolean verbose;
+
+        @Override
+        public CommandResult execute(CommandInvocation ci) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "add", description = "Add a remote")
+    public static class RemoteAddCommand implements Command<CommandInvocation> {
+        @Option(description = "Remote name", required = true)
+        private String name;
+        @Option(description = "Fetch after adding", defaultValue = "false")
+        private boolean fetch;
+        @Argument(description = "Remote url")
+        private String url;
+
+        @Override
+        public CommandResult execute(CommandInvocation ci) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "echo", description = "Print the arguments")
+    public static class EchoCommand implements Command<CommandInvocation> {
+        @Arguments(description = "Words")
+        private List<String> words;
+
+        @Override
+        public CommandResult execute(CommandInvocation ci) {
+            // only write when redirected or piped, the benchmark should not measure the console
+            if (ci.getConfiguration() != null && ci.getConfiguration().hasOutputRedirection())
+                ci.getConfiguration().getOutputRedirection().write(String.join(" ", words) + "\n");
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "count", description = "Count the piped bytes")
+    public static class CountCommand implements Command<CommandInvocation> {
+        @Argument(description = "Piped input")
+        private Resource input;
+
+        @Override
+        public CommandResult execute(CommandInvocation ci) throws CommandException {
+            if (input == null)
+                return CommandResult.FAILURE;
+            try (InputStream in = input.read()) {
+                long count = 0;
+                while (in.read() != -1)
+                    count++;
+                return count > 0 ? CommandResult.SUCCESS : CommandResult.FAILURE;
+            } catch (IOException e) {
+                throw new CommandException(e);
+            }
+        }
+    }
+}